@@ -0,0 +1,185 @@
+package com.rex.worldMood;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerToggleSneakEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells active players from idle and AFK ones, so effects nobody is watching are not sent.
+ * <p>
+ * On a busy night a third of the players online can be AFK, and every mood used to draw its haze,
+ * pulses and fog around them exactly as for everyone else. Walking, looking around, clicking,
+ * chatting and commands all count as activity; a player is {@link Activity#IDLE} after
+ * {@code idleSeconds} without any, and {@link Activity#AFK} after {@code afkSeconds}.
+ * <ul>
+ *   <li>AFK players get no ambient layers from the {@link AtmosphereRenderer}, and their fog
+ *       bubble stays where it is instead of following them (an AFK pool pushes players around).</li>
+ *   <li>Idle players get {@code idleScale} of their particle share from the {@link ParticleBudget}.</li>
+ * </ul>
+ * The moment an AFK player does something again they get everything back at once: every layer is
+ * drawn for them right away and the fog catches up, instead of waiting for the next period.
+ * <p>
+ * Gameplay effects (burning in the sun, buffed monsters) never look at this; only visuals do.
+ */
+public final class ActivityTracker implements Listener {
+
+    public enum Activity { ACTIVE, IDLE, AFK }
+
+    private final WorldMood plugin;
+    private final Map<UUID, Record> records = new ConcurrentHashMap<>();
+    private volatile WorldMoodSettings.ActivitySettings settings;
+
+    public ActivityTracker(WorldMood plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+
+    /** Takes the {@code activity} settings from the current snapshot. */
+    public void reload() {
+        settings = plugin.getSettings().getActivity();
+    }
+
+    /** How active {@code player} is right now. Always ACTIVE when tracking is off. */
+    public Activity get(Player player) {
+        WorldMoodSettings.ActivitySettings settings = this.settings;
+        if (!settings.isEnabled()) return Activity.ACTIVE;
+        Record record = records.get(player.getUniqueId());
+        if (record == null) return Activity.ACTIVE; // not seen yet (just joined, or a reload)
+        long quiet = System.currentTimeMillis() - record.lastActive;
+        if (quiet >= settings.getAfkMillis()) return Activity.AFK;
+        return quiet >= settings.getIdleMillis() ? Activity.IDLE : Activity.ACTIVE;
+    }
+
+    public boolean isAfk(Player player) {
+        return get(player) == Activity.AFK;
+    }
+
+    /** The fraction of the particle share {@code player} gets for their activity: 1, idleScale or 0. */
+    public double detailScale(Player player) {
+        switch (get(player)) {
+            case AFK:
+                return 0.0;
+            case IDLE:
+                return settings.getIdleScale();
+            default:
+                return 1.0;
+        }
+    }
+
+    /** How many tracked players are in each state, indexed by {@link Activity#ordinal()}. */
+    public int[] census(Iterable<? extends Player> players) {
+        int[] counts = new int[Activity.values().length];
+        for (Player player : players) {
+            counts[get(player).ordinal()]++;
+        }
+        return counts;
+    }
+
+    /** Counts as activity. Called on the player's own thread, from their events. */
+    private void touch(Player player) {
+        long now = System.currentTimeMillis();
+        Record record = records.get(player.getUniqueId());
+        if (record == null) {
+            records.put(player.getUniqueId(), new Record(now));
+            return;
+        }
+        long quiet = now - record.lastActive;
+        record.lastActive = now;
+        WorldMoodSettings.ActivitySettings settings = this.settings;
+        if (settings.isEnabled() && quiet >= settings.getAfkMillis()) {
+            returned(player);
+        }
+    }
+
+    /** An AFK player is back: give them their atmosphere now, not on the next period. */
+    private void returned(Player player) {
+        plugin.getScheduler().runFor(player, () -> {
+            if (!player.isOnline()) return;
+            plugin.getAtmosphereRenderer().renderNow(player);
+        });
+        plugin.getFogController().refresh();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        records.put(event.getPlayer().getUniqueId(), new Record(System.currentTimeMillis()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        records.remove(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent event) {
+        // Fires every tick for anyone moving, so only real input counts: turning the camera, or
+        // walking while not in a vehicle. Being carried by water or a minecart does not.
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to == null) return;
+        boolean looked = from.getYaw() != to.getYaw() || from.getPitch() != to.getPitch();
+        boolean walked = (from.getBlockX() != to.getBlockX() || from.getBlockZ() != to.getBlockZ())
+                && !event.getPlayer().isInsideVehicle()
+                && !to.getBlock().isLiquid();
+        if (looked || walked) {
+            touch(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInteract(PlayerInteractEvent event) {
+        touch(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemHeld(PlayerItemHeldEvent event) {
+        touch(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onSneak(PlayerToggleSneakEvent event) {
+        touch(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (event.getWhoClicked() instanceof Player) {
+            touch((Player) event.getWhoClicked());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCommand(PlayerCommandPreprocessEvent event) {
+        touch(event.getPlayer());
+    }
+
+    @SuppressWarnings("deprecation") // AsyncPlayerChatEvent: deprecated on Paper only, the one Spigot has
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChat(AsyncPlayerChatEvent event) {
+        // Off the main thread; touch() only writes a timestamp, and returned() schedules its work.
+        touch(event.getPlayer());
+    }
+
+    private static final class Record {
+        volatile long lastActive;
+
+        Record(long lastActive) {
+            this.lastActive = lastActive;
+        }
+    }
+}
@@ -5,14 +5,14 @@ import org.bukkit.Location;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.SoundCategory;
+import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 
-import java.util.Set;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.logging.Logger;
 
 /**
  * Transient, per-player atmosphere helpers for the immersive mood effects.
@@ -22,44 +22,144 @@ import java.util.logging.Logger;
  * the moment a mood ends (or the player logs off) the effects simply stop.
  * <p>
  * All methods are null-safe on the {@link Particle} / {@link PotionEffectType} argument, because
- * those come from {@link Compat} and can be null on older server versions.
+ * those come from {@link Compat} and can be null on older server versions. Particles that need
+ * extra data on this version are skipped by the plain-particle helpers, as classified once by
+ * {@link Compat#isPlainParticle}.
+ * <p>
+ * Particle counts are requests, not promises: each one is first cut down by the installed
+ * {@link ParticleBudget} to what the server and that player can afford right now.
+ * <p>
+ * These run for every player several times a second, so the hot path allocates nothing: particle
+ * payloads and potion effects are immutable, so moods build them once through {@link #dust},
+ * {@link #transition} and {@link #effect} (which intern them) and pass the same instances every
+ * time, and positions are worked out in a per-thread scratch {@link Location}. Where it is safe,
+ * the particle packets themselves are then sent from an {@link AtmosphereDispatcher} worker.
  */
 public final class Atmosphere {
 
     private Atmosphere() {
     }
 
+    private static volatile ParticleBudget budget;
+    private static volatile AtmosphereDispatcher dispatcher;
+    private static volatile EffectLedger ledger;
+
+    // Interned payloads, keyed by everything that makes them differ. They are immutable, so one
+    // instance serves every mood, player and thread.
+    private static final Map<Long, Particle.DustOptions> DUST = new ConcurrentHashMap<>();
+    private static final Map<String, Object> TRANSITIONS = new ConcurrentHashMap<>();
+    private static final Map<String, PotionEffect> EFFECTS = new ConcurrentHashMap<>();
+
+    // One reusable position per thread: on Folia, players tick on different region threads.
+    private static final ThreadLocal<Location> SCRATCH = ThreadLocal.withInitial(() -> new Location(null, 0, 0, 0));
+
+    /** Routes every particle request through {@code budget}; {@code null} sends them unbudgeted. */
+    public static void install(ParticleBudget particleBudget) {
+        budget = particleBudget;
+    }
+
+    /**
+     * Sends particles through {@code atmosphereDispatcher}'s workers from now on; {@code null}
+     * sends them on the calling thread.
+     */
+    public static void installDispatcher(AtmosphereDispatcher atmosphereDispatcher) {
+        dispatcher = atmosphereDispatcher;
+    }
+
+    /** Skips pulses the player still has through {@code effectLedger}; {@code null} always applies. */
+    public static void installLedger(EffectLedger effectLedger) {
+        ledger = effectLedger;
+    }
+
+    private static boolean dispatch(AtmosphereDispatcher.Kind kind, Player player, Particle particle, Object data,
+                                    double x, double y, double z, int count, double radius, double extra) {
+        AtmosphereDispatcher current = dispatcher;
+        return current != null && current.offer(kind, player, particle, data, x, y, z, count, radius, extra);
+    }
+
+    private static int afford(Player player, int count) {
+        ParticleBudget current = budget;
+        return current == null ? count : current.grant(player, count);
+    }
+
+    /** The shared dust payload for this colour and size. */
+    public static Particle.DustOptions dust(Color color, float size) {
+        long key = ((long) color.asRGB() << 32) | (Float.floatToIntBits(size) & 0xFFFFFFFFL);
+        return DUST.computeIfAbsent(key, k -> new Particle.DustOptions(color, size));
+    }
+
     /**
-     * Particles that turned out to require extra data (BlockData, Float, etc.) on this server
-     * version. Different Minecraft versions attach different data requirements to the same
-     * particle, so rather than hard-code which need what, we try once, and if the server rejects
-     * the plain call we remember it and never spawn it again — a purely cosmetic haze must never
-     * crash a tick.
+     * The shared {@code Particle.DustTransition} payload for these colours and size, or null on
+     * servers predating 1.17 (see {@link Compat#dustTransition}).
      */
-    private static final Set<Particle> NEEDS_DATA = ConcurrentHashMap.newKeySet();
-    private static final Logger LOG = Logger.getLogger("WorldMood");
+    public static Object transition(Color from, Color to, float size) {
+        String key = from.asRGB() + ">" + to.asRGB() + "@" + size;
+        Object cached = TRANSITIONS.get(key);
+        if (cached == null) {
+            cached = Compat.dustTransition(from, to, size);
+            if (cached == null) return null;
+            TRANSITIONS.putIfAbsent(key, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * The shared hidden, ambient-style effect used by {@link #pulse(Player, PotionEffect)}.
+     * Null when the type does not exist on this version, which {@code pulse} then ignores.
+     */
+    @SuppressWarnings("deprecation") // getName: stable across 1.16-1.20, unlike getKey's availability
+    public static PotionEffect effect(PotionEffectType type, int durationTicks, int amplifier) {
+        if (type == null) return null;
+        String key = type.getName() + "/" + durationTicks + "/" + amplifier;
+        return EFFECTS.computeIfAbsent(key, k -> new PotionEffect(type, durationTicks, amplifier, false, false, false));
+    }
+
+    /**
+     * An entity's eye position, written into this thread's scratch location. Only valid until the
+     * next call on the same thread; never store it.
+     */
+    public static Location eyes(LivingEntity entity) {
+        Location at = entity.getLocation(SCRATCH.get());
+        at.setY(at.getY() + entity.getEyeHeight());
+        return at;
+    }
 
     /**
      * Scatters coloured dust in a box around the player to create a drifting haze.
      * Sent only to that player, so it fills their view without touching anyone else's.
      */
+    public static void dustHaze(Player player, Particle.DustOptions dust, int count, double radius) {
+        if (player == null || Compat.DUST == null || dust == null || count <= 0) return;
+        count = afford(player, count);
+        if (count <= 0) return;
+        Location centre = eyes(player);
+        if (dispatch(AtmosphereDispatcher.Kind.DUST, player, Compat.DUST, dust,
+                centre.getX(), centre.getY(), centre.getZ(), count, radius, 0.0)) return;
+        sendDust(player, dust, centre.getX(), centre.getY(), centre.getZ(), count, radius);
+    }
+
+    static void sendDust(Player player, Particle.DustOptions dust, double x, double y, double z, int count, double radius) {
+        player.spawnParticle(Compat.DUST, x, y, z, count, radius, radius * 0.7, radius, 0.0, dust);
+    }
+
+    /** Convenience form of {@link #dustHaze(Player, Particle.DustOptions, int, double)}. */
     public static void dustHaze(Player player, Color color, float size, int count, double radius) {
-        if (player == null || Compat.DUST == null || count <= 0) return;
-        Location centre = player.getEyeLocation();
-        player.spawnParticle(Compat.DUST, centre, count, radius, radius * 0.7, radius, 0.0,
-                new Particle.DustOptions(color, size));
+        dustHaze(player, dust(color, size), count, radius);
     }
 
     /** Scatters a plain particle in a box around the player (client-side to them only). */
     public static void haze(Player player, Particle particle, int count, double radius, double extra) {
-        if (player == null || particle == null || count <= 0 || NEEDS_DATA.contains(particle)) return;
-        try {
-            player.spawnParticle(particle, player.getEyeLocation(), count, radius, radius * 0.7, radius, extra);
-        } catch (IllegalArgumentException e) {
-            NEEDS_DATA.add(particle);
-            LOG.warning("[Atmosphere] Particle " + particle + " needs extra data on this version; "
-                    + "leaving it out of the ambient haze.");
-        }
+        if (player == null || !Compat.isPlainParticle(particle) || count <= 0) return;
+        count = afford(player, count);
+        if (count <= 0) return;
+        Location centre = eyes(player);
+        if (dispatch(AtmosphereDispatcher.Kind.HAZE, player, particle, null,
+                centre.getX(), centre.getY(), centre.getZ(), count, radius, extra)) return;
+        sendHaze(player, particle, centre.getX(), centre.getY(), centre.getZ(), count, radius, extra);
+    }
+
+    static void sendHaze(Player player, Particle particle, double x, double y, double z, int count, double radius, double extra) {
+        player.spawnParticle(particle, x, y, z, count, radius, radius * 0.7, radius, extra);
     }
 
     /**
@@ -67,22 +167,23 @@ public final class Atmosphere {
      * which sells "weather" far better than particles spawned at eye level.
      */
     public static void fallingMotes(Player player, Particle particle, int count, double radius) {
-        if (player == null || particle == null || count <= 0) return;
-        if (NEEDS_DATA.contains(particle)) return;
+        if (player == null || !Compat.isPlainParticle(particle) || count <= 0) return;
+        count = afford(player, count);
+        if (count <= 0) return;
+        Location base = player.getLocation(SCRATCH.get());
+        if (dispatch(AtmosphereDispatcher.Kind.MOTES, player, particle, null,
+                base.getX(), base.getY(), base.getZ(), count, radius, 0.0)) return;
+        sendMotes(player, particle, base.getX(), base.getY(), base.getZ(), count, radius);
+    }
+
+    static void sendMotes(Player player, Particle particle, double x, double y, double z, int count, double radius) {
         ThreadLocalRandom rnd = ThreadLocalRandom.current();
-        Location base = player.getLocation();
-        try {
-            for (int i = 0; i < count; i++) {
-                Location at = base.clone().add(
-                        (rnd.nextDouble() - 0.5) * 2 * radius,
-                        4 + rnd.nextDouble() * 4,
-                        (rnd.nextDouble() - 0.5) * 2 * radius);
-                player.spawnParticle(particle, at, 0, 0, -0.35, 0, 0.12); // downward velocity
-            }
-        } catch (IllegalArgumentException e) {
-            NEEDS_DATA.add(particle);
-            LOG.warning("[Atmosphere] Particle " + particle + " needs extra data on this version; "
-                    + "leaving it out of the falling motes.");
+        for (int i = 0; i < count; i++) {
+            player.spawnParticle(particle,
+                    x + (rnd.nextDouble() - 0.5) * 2 * radius,
+                    y + 4 + rnd.nextDouble() * 4,
+                    z + (rnd.nextDouble() - 0.5) * 2 * radius,
+                    0, 0, -0.35, 0, 0.12); // downward velocity
         }
     }
 
@@ -91,13 +192,26 @@ public final class Atmosphere {
      * No-ops when the effect type is unavailable on this version (Compat returns null there).
      */
     public static void pulse(Player player, PotionEffectType type, int durationTicks, int amplifier) {
-        if (player == null || type == null) return;
-        player.addPotionEffect(new PotionEffect(type, durationTicks, amplifier, false, false, false), true);
+        pulse(player, effect(type, durationTicks, amplifier));
+    }
+
+    /**
+     * {@link #pulse(Player, PotionEffectType, int, int)} with an effect built once by {@link #effect}.
+     * Only actually re-sent once the previous pulse is close to running out (see {@link EffectLedger}).
+     */
+    public static void pulse(Player player, PotionEffect effect) {
+        if (player == null || effect == null) return;
+        EffectLedger current = ledger;
+        if (current != null) {
+            current.apply(player, effect);
+        } else {
+            player.addPotionEffect(effect, true);
+        }
     }
 
     /** Plays an ambient sound to a single player at their location. */
     public static void ambient(Player player, Sound sound, float volume, float pitch) {
         if (player == null || sound == null) return;
-        player.playSound(player.getLocation(), sound, SoundCategory.AMBIENT, volume, pitch);
+        player.playSound(player.getLocation(SCRATCH.get()), sound, SoundCategory.AMBIENT, volume, pitch);
     }
 }
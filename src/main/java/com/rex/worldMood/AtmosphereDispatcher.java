@@ -0,0 +1,214 @@
+package com.rex.worldMood;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Particle;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the per-player atmosphere particles from worker threads instead of the main thread.
+ * <p>
+ * A haze is a pure packet send to one player: it reads nothing from the world and changes nothing
+ * in it. The expensive part is building and writing the packets, and on Spigot and Paper that is
+ * safe from any thread. So {@link Atmosphere} takes a snapshot on the main thread (the player's
+ * eye position and the budgeted count) and hands it here. The workers then pick the
+ * positions and send the packets. The main thread only pays for the snapshot and a queue insert.
+ * <p>
+ * Jobs are pooled and the queue is bounded: when the workers fall behind, the call is simply run
+ * on the caller's thread, so nothing ever piles up. If a send ever fails off-thread, the dispatcher
+ * stops taking jobs and hands {@link #shutdown()} to the global thread, which sends what is still
+ * queued; everything after that is sent synchronously again, as before.
+ * <p>
+ * Workers never ask the server whether a player is still online: its player list belongs to the
+ * main thread. The dispatcher keeps its own set of online players instead, updated from join and
+ * quit events on the main thread, and a job whose player has left since it was queued is dropped.
+ * <p>
+ * Sounds are not offloaded: from 1.19 a sound packet takes its seed from the world's random, which
+ * must not be touched off-thread. Region-threaded servers never use this; their effects already
+ * run off the main thread, on each player's region.
+ */
+public final class AtmosphereDispatcher implements Listener {
+
+    private static final int QUEUE_CAPACITY = 8192;
+
+    enum Kind { DUST, HAZE, MOTES }
+
+    private final WorldMood plugin;
+    private final BlockingQueue<Job> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<Job> pool = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    private final Thread[] workers;
+    private volatile boolean running = true;
+    private boolean failed;   // guarded by this; set by the first worker whose send fails
+
+    /** Main thread only. */
+    public AtmosphereDispatcher(WorldMood plugin, int threads) {
+        this.plugin = plugin;
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            online.add(player.getUniqueId());
+        }
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        workers = new Thread[Math.max(1, threads)];
+        for (int i = 0; i < workers.length; i++) {
+            Thread worker = new Thread(this::work, "WorldMood-Atmosphere-" + (i + 1));
+            worker.setDaemon(true);
+            workers[i] = worker;
+            worker.start();
+        }
+    }
+
+    /**
+     * Queues a send. Returns false — and the caller must send it itself — when the dispatcher is
+     * off or its queue is full. Called on the thread that owns {@code player}.
+     */
+    boolean offer(Kind kind, Player player, Particle particle, Object data,
+                  double x, double y, double z, int count, double radius, double extra) {
+        if (!running) return false;
+        Job job = pool.poll();
+        if (job == null) job = new Job();
+        job.kind = kind;
+        job.player = player;
+        job.playerId = player.getUniqueId();
+        job.particle = particle;
+        job.data = data;
+        job.x = x;
+        job.y = y;
+        job.z = z;
+        job.count = count;
+        job.radius = radius;
+        job.extra = extra;
+        if (queue.offer(job)) return true;
+        recycle(job);
+        return false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getThreads() {
+        return workers.length;
+    }
+
+    /** Stops the workers and sends whatever is still queued on the calling thread. Main thread only. */
+    public void shutdown() {
+        running = false;
+        HandlerList.unregisterAll(this);
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(500L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        Job job;
+        while ((job = queue.poll()) != null) {
+            try {
+                if (job.player.isOnline()) send(job);
+            } finally {
+                recycle(job);
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        online.add(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        online.remove(event.getPlayer().getUniqueId());
+    }
+
+    private void work() {
+        while (running) {
+            Job job;
+            try {
+                job = queue.poll(1L, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (job == null) continue;
+            try {
+                if (online.contains(job.playerId)) {
+                    send(job);
+                }
+            } catch (RuntimeException e) {
+                fail(e);
+            } finally {
+                recycle(job);
+            }
+        }
+    }
+
+    /**
+     * Not as thread-safe here as expected. Stops taking jobs and has the global thread shut the
+     * workers down and send what is still queued, so nothing is left holding players until reload.
+     */
+    private void fail(RuntimeException e) {
+        synchronized (this) {
+            if (failed) return;
+            failed = true;
+        }
+        running = false;
+        plugin.getLogger().warning("[Atmosphere] Off-thread particle send failed (" + e
+                + "); sending ambient particles on the main thread from now on.");
+        plugin.getScheduler().runGlobal(this::shutdown);
+    }
+
+    private static void send(Job job) {
+        switch (job.kind) {
+            case DUST:
+                Atmosphere.sendDust(job.player, (Particle.DustOptions) job.data, job.x, job.y, job.z, job.count, job.radius);
+                break;
+            case HAZE:
+                Atmosphere.sendHaze(job.player, job.particle, job.x, job.y, job.z, job.count, job.radius, job.extra);
+                break;
+            case MOTES:
+                Atmosphere.sendMotes(job.player, job.particle, job.x, job.y, job.z, job.count, job.radius);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void recycle(Job job) {
+        job.player = null;
+        job.playerId = null;
+        job.particle = null;
+        job.data = null;
+        pool.offer(job);
+    }
+
+    /** One snapshotted send. Mutable and pooled; only ever owned by one thread at a time. */
+    private static final class Job {
+        Kind kind;
+        Player player;
+        UUID playerId;
+        Particle particle;
+        Object data;
+        double x;
+        double y;
+        double z;
+        int count;
+        double radius;
+        double extra;
+    }
+}
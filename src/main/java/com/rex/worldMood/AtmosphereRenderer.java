@@ -0,0 +1,201 @@
+package com.rex.worldMood;
+
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * The one loop that draws every mood's ambient visuals.
+ * <p>
+ * Moods used to run their own: a 4-tick haze task here, a 40-tick sparkle task there, and the
+ * 1 Hz {@code tick()} of several more, each walking every player and re-checking their world and
+ * game mode. Now a mood declares {@link Layer layers} in {@code apply()} — what to draw, how often,
+ * in which worlds — and this renderer walks the players once per tick, reads each player's world
+ * and game mode once, and runs whichever layers are due for them.
+ * <p>
+ * Layers are paced per player: a layer with a 20-tick period fires for each player once a second,
+ * but at a phase derived from their id, so the players are spread across all 20 ticks rather than
+ * all drawn on the same one. Each layer keeps a count and total time of its runs for
+ * {@code /worldmood stats}.
+ * <p>
+ * Layers are owned by the mood that added them; MoodManager drops them when the mood ends.
+ * AFK players (see {@link ActivityTracker}) are passed over until they are back, and players who
+ * chose minimal effects (see {@link EffectsProfile}) are passed over altogether.
+ */
+public final class AtmosphereRenderer {
+
+    /** Bitmask of due layers per player; more than this many layers at once is never needed. */
+    private static final int MAX_LAYERS = 64;
+
+    private final WorldMood plugin;
+    private final List<Layer> layers = new CopyOnWriteArrayList<>();
+    private volatile Layer[] active = new Layer[0];   // what the frame loop reads; rebuilt on change
+    private TaskScheduler.Task frameTask;
+    private long frame;
+
+    public AtmosphereRenderer(WorldMood plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Adds a layer drawn every {@code periodTicks} for each player in one of {@code worlds}
+     * ({@code null} for any world). Spectators are skipped unless {@code spectators} is set.
+     */
+    public Layer add(Object owner, String name, int periodTicks, Set<World.Environment> worlds,
+                     boolean spectators, Consumer<Player> render) {
+        if (layers.size() >= MAX_LAYERS) {
+            throw new IllegalStateException("Too many atmosphere layers (max " + MAX_LAYERS + ")");
+        }
+        Layer layer = new Layer(owner, name, periodTicks, worlds, spectators, render);
+        layers.add(layer);
+        active = layers.toArray(new Layer[0]);
+        if (frameTask == null) {
+            frameTask = plugin.getScheduler().runGlobalTimer(task -> renderFrame(), 1L, 1L);
+        }
+        return layer;
+    }
+
+    /** Removes every layer {@code owner} added; the loop stops once nothing is left to draw. */
+    public void clear(Object owner) {
+        layers.removeIf(layer -> layer.owner == owner);
+        active = layers.toArray(new Layer[0]);
+        if (layers.isEmpty()) {
+            stop();
+        }
+    }
+
+    public void stop() {
+        layers.clear();
+        active = new Layer[0];
+        if (frameTask != null) {
+            frameTask.cancel();
+            frameTask = null;
+        }
+    }
+
+    /** The active layers, for reporting. */
+    public List<Layer> getLayers() {
+        return Collections.unmodifiableList(new ArrayList<>(layers));
+    }
+
+    private void renderFrame() {
+        long now = ++frame;
+        Layer[] active = this.active;
+        if (active.length == 0) return;
+
+        TaskScheduler scheduler = plugin.getScheduler();
+        ActivityTracker activity = plugin.getActivityTracker();
+        EffectsProfile profile = plugin.getEffectsProfile();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (activity.isAfk(player) || profile.isMinimal(player)) continue;
+            // Work out which layers are due on the global thread from the id alone, so a player
+            // with nothing due this tick costs no task hand-off on Folia.
+            long phase = player.getUniqueId().hashCode() & 0x7fffffffL;
+            long due = 0L;
+            for (int i = 0; i < active.length; i++) {
+                if ((now + phase) % active[i].periodTicks == 0) {
+                    due |= 1L << i;
+                }
+            }
+            if (due == 0L) continue;
+
+            if (!scheduler.isRegionized()) {
+                render(player, active, due);
+            } else {
+                final long dueLayers = due;
+                scheduler.runFor(player, () -> render(player, active, dueLayers));
+            }
+        }
+    }
+
+    /**
+     * Draws every layer for {@code player} at once, regardless of phase. For a player who was
+     * skipped while AFK and just came back. Call on the player's own thread.
+     */
+    public void renderNow(Player player) {
+        Layer[] active = this.active;
+        if (active.length == 0 || plugin.getEffectsProfile().isMinimal(player)) return;
+        long all = active.length == MAX_LAYERS ? -1L : (1L << active.length) - 1;
+        render(player, active, all);
+    }
+
+    private void render(Player player, Layer[] active, long due) {
+        if (!player.isOnline()) return;
+        World.Environment environment = player.getWorld().getEnvironment();
+        boolean spectating = player.getGameMode() == GameMode.SPECTATOR;
+        for (int i = 0; i < active.length; i++) {
+            if ((due & (1L << i)) == 0) continue;
+            Layer layer = active[i];
+            if (spectating && !layer.spectators) continue;
+            if (layer.worlds != null && !layer.worlds.contains(environment)) continue;
+            long start = System.nanoTime();
+            try {
+                layer.render.accept(player);
+            } catch (RuntimeException e) {
+                // One broken layer must not take the rest of the frame with it.
+                if (layer.failures.sum() == 0) {
+                    plugin.getLogger().warning("[Atmosphere] Layer '" + layer.name + "' failed: " + e
+                            + " (further failures are only counted; see /worldmood stats)");
+                }
+                layer.failures.increment();
+            }
+            layer.runs.increment();
+            layer.nanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /** One thing a mood draws, and how much it has cost so far. */
+    public static final class Layer {
+        private final Object owner;
+        private final String name;
+        private final int periodTicks;
+        private final Set<World.Environment> worlds;
+        private final boolean spectators;
+        private final Consumer<Player> render;
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        private Layer(Object owner, String name, int periodTicks, Set<World.Environment> worlds,
+                      boolean spectators, Consumer<Player> render) {
+            this.owner = owner;
+            this.name = name;
+            this.periodTicks = Math.max(1, periodTicks);
+            this.worlds = worlds == null ? null : EnumSet.copyOf(worlds);
+            this.spectators = spectators;
+            this.render = render;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getPeriodTicks() {
+            return periodTicks;
+        }
+
+        public long getRuns() {
+            return runs.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /** Mean time of one run for one player, in microseconds. */
+        public double getAverageMicros() {
+            long count = runs.sum();
+            return count == 0 ? 0.0 : nanos.sum() / 1000.0 / count;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.rex.worldMood;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Temporary block swaps that are guaranteed to be put back, even across a crash.
+ * <p>
+ * Void Tension's Unstable Ground turns real blocks into crying obsidian, magma and the like for a
+ * few seconds. It used to schedule one revert task per anomaly, and a stop or crash inside that
+ * window left the swapped blocks in the world for good. Now every swap is journalled through the
+ * {@link WorldStateGuard} <i>before</i> the blocks change: the journal is written off-thread, and
+ * the blocks are placed by a region task once it is on disk, usually a tick or two later. One
+ * shared timer puts due blocks back once a second, grouped per chunk, so reverts from many
+ * anomalies in the same chunk run as one region task. Startup replays whatever an unclean
+ * shutdown left in the journal.
+ * <p>
+ * A block is only swapped while it is still what it was when the swap was asked for, and only put
+ * back while it is still what the swap placed, so a block a player has mined or replaced in
+ * between is left alone. Swaps may be made from any region thread.
+ */
+public final class BlockRevertQueue {
+
+    private static final long PASS_TICKS = 20L;
+
+    private final WorldMood plugin;
+    private final WorldStateGuard guard;
+    // Everything placed and not yet put back, per world. Guarded by this.
+    private final Map<UUID, List<Swap>> swapsByWorld = new HashMap<>();
+    private long passes;
+    private TaskScheduler.Task timer;
+
+    public BlockRevertQueue(WorldMood plugin, WorldStateGuard guard) {
+        this.plugin = plugin;
+        this.guard = guard;
+    }
+
+    /**
+     * Turns each block into its replacement as soon as the swap is journalled, and back into what it
+     * was {@code revertAfterTicks} (rounded up to whole seconds) after that. Call from the thread
+     * that owns the blocks. {@code onReverted}, if given, runs once the first block's chunk has been
+     * put back, or straight away if none of the blocks could be swapped.
+     */
+    public void swap(World world, Map<Block, Material> changes, long revertAfterTicks, Runnable onReverted) {
+        if (changes.isEmpty()) return;
+        List<Swap> added = new ArrayList<>(changes.size());
+        for (Map.Entry<Block, Material> change : changes.entrySet()) {
+            Block block = change.getKey();
+            added.add(new Swap(block.getX(), block.getY(), block.getZ(), change.getValue(), block.getBlockData()));
+        }
+        Swap first = added.get(0);
+        first.onReverted = onReverted;
+        // Journal first: a crash between placing and reverting must still find the originals.
+        guard.journalSwaps(world, added, () -> {
+            if (!plugin.isEnabled()) return;
+            plugin.getScheduler().runAt(world, first.x >> 4, first.z >> 4, () -> place(world, added, revertAfterTicks));
+        });
+    }
+
+    private void place(World world, List<Swap> added, long revertAfterTicks) {
+        List<Swap> placed = new ArrayList<>(added.size());
+        List<Swap> skipped = new ArrayList<>();
+        for (Swap swap : added) {
+            Block block = world.getBlockAt(swap.x, swap.y, swap.z);
+            if (block.getBlockData().equals(swap.original)) {
+                block.setType(swap.placed, false);
+                placed.add(swap);
+            } else {
+                skipped.add(swap);
+            }
+        }
+        Runnable onReverted = added.get(0).onReverted;
+        if (!skipped.isEmpty()) {
+            guard.journalReverted(world, skipped);
+            if (placed.isEmpty()) {
+                if (onReverted != null) onReverted.run();
+                return;
+            }
+            added.get(0).onReverted = null;
+            placed.get(0).onReverted = onReverted;
+        }
+        // Registered only now, so the timer never puts back a block before it has been placed.
+        synchronized (this) {
+            long due = passes + Math.max(1L, (revertAfterTicks + PASS_TICKS - 1) / PASS_TICKS);
+            for (Swap swap : placed) swap.due = due;
+            swapsByWorld.computeIfAbsent(world.getUID(), k -> new ArrayList<>()).addAll(placed);
+            if (timer == null) {
+                timer = plugin.getScheduler().runGlobalTimer(task -> pass(), PASS_TICKS, PASS_TICKS);
+            }
+        }
+    }
+
+    /**
+     * Puts back everything still swapped. Called on disable; region threads take no new plugin
+     * work at that point, so on Folia the journal is left for the next startup to replay instead.
+     */
+    public synchronized void flush() {
+        if (timer != null) {
+            timer.cancel();
+            timer = null;
+        }
+        if (plugin.getScheduler().isRegionized()) return;
+        for (Map.Entry<UUID, List<Swap>> entry : swapsByWorld.entrySet()) {
+            World world = Bukkit.getWorld(entry.getKey());
+            if (world == null) continue;
+            revert(world, entry.getValue());
+            guard.journalReverted(world, entry.getValue());
+        }
+        swapsByWorld.clear();
+    }
+
+    /** One timer pass: send out what is now due, per chunk. */
+    private void pass() {
+        // Sent out after the lock is released: on Spigot the revert runs inline and calls back in.
+        for (Revert revert : collectDue()) {
+            plugin.getScheduler().runAt(revert.world, revert.chunkX, revert.chunkZ, () -> {
+                revert(revert.world, revert.swaps);
+                reverted(revert.world, revert.swaps);
+            });
+        }
+    }
+
+    private synchronized List<Revert> collectDue() {
+        passes++;
+        List<Revert> due = new ArrayList<>();
+        Iterator<Map.Entry<UUID, List<Swap>>> worlds = swapsByWorld.entrySet().iterator();
+        while (worlds.hasNext()) {
+            Map.Entry<UUID, List<Swap>> entry = worlds.next();
+            World world = Bukkit.getWorld(entry.getKey());
+            if (world == null) {
+                // Unloaded: the journal keeps its swaps for the next startup.
+                worlds.remove();
+                continue;
+            }
+            Map<Long, List<Swap>> dueByChunk = new LinkedHashMap<>();
+            for (Swap swap : entry.getValue()) {
+                if (!swap.dispatched && swap.due <= passes) {
+                    swap.dispatched = true;
+                    dueByChunk.computeIfAbsent(chunkKey(swap.x >> 4, swap.z >> 4), k -> new ArrayList<>()).add(swap);
+                }
+            }
+            for (Map.Entry<Long, List<Swap>> chunk : dueByChunk.entrySet()) {
+                long key = chunk.getKey();
+                due.add(new Revert(world, (int) (key >> 32), (int) key, chunk.getValue()));
+            }
+        }
+        if (swapsByWorld.isEmpty() && timer != null) {
+            timer.cancel();
+            timer = null;
+        }
+        return due;
+    }
+
+    private synchronized void reverted(World world, List<Swap> group) {
+        List<Swap> swaps = swapsByWorld.get(world.getUID());
+        if (swaps == null) return;
+        swaps.removeAll(group);
+        if (swaps.isEmpty()) swapsByWorld.remove(world.getUID());
+        guard.journalReverted(world, group);
+    }
+
+    private static void revert(World world, List<Swap> swaps) {
+        for (Swap swap : swaps) {
+            Block block = world.getBlockAt(swap.x, swap.y, swap.z);
+            if (block.getType() == swap.placed) {
+                block.setBlockData(swap.original, true);
+            }
+        }
+        for (Swap swap : swaps) {
+            if (swap.onReverted != null) swap.onReverted.run();
+        }
+    }
+
+    private static long chunkKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    /** One chunk's share of a pass. */
+    private static final class Revert {
+        final World world;
+        final int chunkX;
+        final int chunkZ;
+        final List<Swap> swaps;
+
+        Revert(World world, int chunkX, int chunkZ, List<Swap> swaps) {
+            this.world = world;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.swaps = swaps;
+        }
+    }
+
+    /** One swapped block: where, what was put there, and what to put back. */
+    static final class Swap {
+        final int x;
+        final int y;
+        final int z;
+        final Material placed;
+        final BlockData original;
+        long due;
+        boolean dispatched;
+        Runnable onReverted;
+
+        Swap(int x, int y, int z, Material placed, BlockData original) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.placed = placed;
+            this.original = original;
+        }
+    }
+}
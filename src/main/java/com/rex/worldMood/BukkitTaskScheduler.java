@@ -0,0 +1,115 @@
+package com.rex.worldMood;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.function.Consumer;
+
+/**
+ * {@link TaskScheduler} for Spigot and Paper: one main thread owns everything, so every kind of
+ * work goes to the ordinary Bukkit scheduler, and work requested from the main thread runs inline.
+ */
+final class BukkitTaskScheduler implements TaskScheduler {
+
+    private final Plugin plugin;
+
+    BukkitTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return false;
+    }
+
+    @Override
+    public Task runGlobal(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+            return DONE;
+        }
+        return new Handle(Bukkit.getScheduler().runTask(plugin, task));
+    }
+
+    @Override
+    public Task runGlobalLater(Runnable task, long delayTicks) {
+        return new Handle(Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks));
+    }
+
+    @Override
+    public Task runGlobalTimer(Consumer<Task> task, long delayTicks, long periodTicks) {
+        Handle handle = new Handle(null);
+        handle.task = Bukkit.getScheduler().runTaskTimer(plugin, () -> task.accept(handle), delayTicks, periodTicks);
+        return handle;
+    }
+
+    @Override
+    public Task runFor(Entity entity, Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+            return DONE;
+        }
+        return runForLater(entity, task, 0L);
+    }
+
+    @Override
+    public Task runForLater(Entity entity, Runnable task, long delayTicks) {
+        // Mirrors the region scheduler's contract: work bound to an entity that has since gone
+        // (a player who logged out in the meantime) is dropped rather than run against a ghost.
+        return new Handle(Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            if (entity.isValid()) {
+                task.run();
+            }
+        }, delayTicks));
+    }
+
+    @Override
+    public Task runAt(World world, int chunkX, int chunkZ, Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+            return DONE;
+        }
+        return new Handle(Bukkit.getScheduler().runTask(plugin, task));
+    }
+
+    @Override
+    public Task runAtLater(World world, int chunkX, int chunkZ, Runnable task, long delayTicks) {
+        return new Handle(Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks));
+    }
+
+    @Override
+    public void teleport(Entity entity, Location destination) {
+        entity.teleport(destination);
+    }
+
+    @Override
+    public void cancelAll() {
+        Bukkit.getScheduler().cancelTasks(plugin);
+    }
+
+    private static final class Handle implements Task {
+        private BukkitTask task;
+        private boolean cancelled;
+
+        Handle(BukkitTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            if (task != null) {
+                task.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled || (task != null && task.isCancelled());
+        }
+    }
+}
@@ -233,6 +233,32 @@ public final class Compat {
         }
     }
 
+    // ------------------------------------------------------------------
+    // Particle data requirements, probed once.
+    // ------------------------------------------------------------------
+
+    /**
+     * For every particle on this server, by ordinal: whether it spawns without a data argument.
+     * Which particles need data (BlockData, Color, Float, ...) differs between versions, so this is
+     * read once from the server's own {@link Particle#getDataType()} instead of being discovered by
+     * a spawn failing in the middle of a player's tick.
+     */
+    private static final boolean[] PLAIN_PARTICLES = probePlainParticles();
+
+    private static boolean[] probePlainParticles() {
+        Particle[] all = Particle.values();
+        boolean[] plain = new boolean[all.length];
+        for (Particle particle : all) {
+            plain[particle.ordinal()] = particle.getDataType() == Void.class;
+        }
+        return plain;
+    }
+
+    /** Whether {@code particle} exists here and can be spawned with no data. Just an array read. */
+    public static boolean isPlainParticle(Particle particle) {
+        return particle != null && PLAIN_PARTICLES[particle.ordinal()];
+    }
+
     // ------------------------------------------------------------------
     // Things whose SHAPE, not just name, changed between versions.
     // ------------------------------------------------------------------
@@ -341,6 +367,10 @@ public final class Compat {
         if (DARKNESS == null) missing.append(" Darkness-effect");
         if (SONIC_BOOM == null) missing.append(" Sonic-boom-particle");
         if (DUST_TRANSITION_CTOR == null) missing.append(" Dust-colour-transition");
+        for (Particle particle : new Particle[]{PORTAL, WITCH, DRAGON_BREATH, ASH}) {
+            // Ambient hazes spawn these without data; any that need it here are left out.
+            if (particle != null && !isPlainParticle(particle)) missing.append(" Plain-").append(particle);
+        }
 
         LOG.info("[Compat] Running on " + Bukkit.getBukkitVersion() + ".");
         if (missing.length() > 0) {
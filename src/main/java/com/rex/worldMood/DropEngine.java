@@ -0,0 +1,260 @@
+package com.rex.worldMood;
+
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExpEvent;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.inventory.FurnaceExtractEvent;
+import org.bukkit.event.player.PlayerExpChangeEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * The one set of drop and XP listeners, applying whichever mood's {@link Rules} are active.
+ * <p>
+ * Lucky Day and Prosperous Winds used to register their own block-break, death and XP handlers,
+ * each walking sets and lists and asking for a block's drops on every break. Now each mood
+ * compiles its config once into {@link Rules} (ores as a bitset over material ordinals, treasure
+ * as an array) and hands them over in {@code apply()}; these listeners stay registered for the
+ * plugin's lifetime and do nothing while no rules are active.
+ * <p>
+ * A block break is a bitset lookup and a random roll; the block's drops are only computed once a
+ * roll has actually come up. Random numbers come from {@link ThreadLocalRandom}, since on Folia
+ * these events fire on many region threads at once.
+ */
+public final class DropEngine implements Listener {
+
+    private volatile Object owner;
+    private volatile Rules active;
+
+    /** Applies {@code rules} from now on, on behalf of {@code owner} (normally the mood). */
+    public void activate(Object owner, Rules rules) {
+        this.owner = owner;
+        this.active = rules;
+    }
+
+    /** Stops applying {@code owner}'s rules; someone else's stay in place. */
+    public void deactivate(Object owner) {
+        if (this.owner == owner) {
+            this.active = null;
+            this.owner = null;
+        }
+    }
+
+    public Rules getActive() {
+        return active;
+    }
+
+    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        Rules rules = active;
+        if (rules == null || !rules.affectsBlocks) return;
+        Player player = event.getPlayer();
+        if (player.getGameMode() == GameMode.CREATIVE || player.getGameMode() == GameMode.SPECTATOR) return;
+
+        Block block = event.getBlock();
+        Material type = block.getType();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ItemStack tool = null;
+        Collection<ItemStack> drops = null;
+
+        if (rules.doubledBlocks.get(type.ordinal()) && random.nextDouble() < rules.doubleChance) {
+            tool = player.getInventory().getItemInMainHand();
+            Location centre = block.getLocation().add(0.5, 0.5, 0.5);
+            if (tool.containsEnchantment(Enchantment.SILK_TOUCH)) {
+                block.getWorld().dropItemNaturally(centre, new ItemStack(type, 1));
+            } else {
+                drops = block.getDrops(tool);
+                for (ItemStack drop : drops) {
+                    if (drop.getType() != Material.AIR) {
+                        block.getWorld().dropItemNaturally(centre, drop.clone());
+                    }
+                }
+            }
+            if (rules.onDoubled != null) rules.onDoubled.accept(centre);
+        }
+
+        if (rules.treasure.length > 0 && random.nextDouble() < rules.blockTreasureChance) {
+            // Only blocks that give something back can give treasure.
+            if (event.getExpToDrop() <= 0) {
+                if (tool == null) tool = player.getInventory().getItemInMainHand();
+                if (drops == null) drops = block.getDrops(tool);
+                if (drops.isEmpty()) return;
+            }
+            dropTreasure(rules, block.getLocation().add(0.5, 0.5, 0.5), random);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
+    public void onEntityDeath(EntityDeathEvent event) {
+        Rules rules = active;
+        if (rules == null || !rules.affectsMobs) return;
+        LivingEntity entity = event.getEntity();
+        if (entity.getKiller() == null) return;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        if (random.nextDouble() < rules.mobLootChance) {
+            List<ItemStack> extra = null;
+            for (ItemStack drop : event.getDrops()) {
+                if (random.nextDouble() < rules.mobLootDupeChance) {
+                    if (extra == null) extra = new ArrayList<>();
+                    extra.add(drop.clone());
+                }
+            }
+            if (extra != null) {
+                for (ItemStack drop : extra) {
+                    entity.getWorld().dropItemNaturally(entity.getLocation(), drop);
+                }
+                if (rules.onExtraLoot != null) rules.onExtraLoot.accept(entity.getEyeLocation());
+            }
+        }
+
+        if (rules.treasure.length > 0 && random.nextDouble() < rules.mobTreasureChance) {
+            dropTreasure(rules, entity.getEyeLocation(), random);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
+    public void onExpChange(PlayerExpChangeEvent event) {
+        Rules rules = active;
+        if (rules == null || rules.xpMultiplier == 1.0 || event.getAmount() <= 0) return;
+        event.setAmount(rules.multiplyXp(event.getAmount()));
+    }
+
+    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
+    public void onBlockExp(BlockExpEvent event) {
+        Rules rules = active;
+        if (rules == null || rules.xpMultiplier == 1.0 || event.getExpToDrop() <= 0) return;
+        event.setExpToDrop(rules.multiplyXp(event.getExpToDrop()));
+    }
+
+    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
+    public void onFurnaceExtract(FurnaceExtractEvent event) {
+        Rules rules = active;
+        if (rules == null || rules.xpMultiplier == 1.0 || event.getExpToDrop() <= 0) return;
+        event.setExpToDrop(rules.multiplyXp(event.getExpToDrop()));
+    }
+
+    private static void dropTreasure(Rules rules, Location at, ThreadLocalRandom random) {
+        Material treasure = rules.treasure[random.nextInt(rules.treasure.length)];
+        at.getWorld().dropItemNaturally(at, new ItemStack(treasure, 1));
+        if (rules.onTreasure != null) rules.onTreasure.accept(at);
+    }
+
+    /**
+     * One mood's drop and XP modifiers, compiled from its config. Immutable once built; build with
+     * {@link #builder()}.
+     */
+    public static final class Rules {
+        private final double xpMultiplier;
+        private final BitSet doubledBlocks;
+        private final double doubleChance;
+        private final Material[] treasure;
+        private final double blockTreasureChance;
+        private final double mobTreasureChance;
+        private final double mobLootChance;
+        private final double mobLootDupeChance;
+        private final Consumer<Location> onDoubled;
+        private final Consumer<Location> onTreasure;
+        private final Consumer<Location> onExtraLoot;
+        private final boolean affectsBlocks;
+        private final boolean affectsMobs;
+
+        private Rules(Builder builder) {
+            xpMultiplier = builder.xpMultiplier;
+            doubledBlocks = (BitSet) builder.doubledBlocks.clone();
+            doubleChance = builder.doubleChance;
+            treasure = builder.treasure.toArray(new Material[0]);
+            blockTreasureChance = builder.blockTreasureChance;
+            mobTreasureChance = builder.mobTreasureChance;
+            mobLootChance = builder.mobLootChance;
+            mobLootDupeChance = builder.mobLootDupeChance;
+            onDoubled = builder.onDoubled;
+            onTreasure = builder.onTreasure;
+            onExtraLoot = builder.onExtraLoot;
+            affectsBlocks = (!doubledBlocks.isEmpty() && doubleChance > 0)
+                    || (treasure.length > 0 && blockTreasureChance > 0);
+            affectsMobs = mobLootChance > 0 || (treasure.length > 0 && mobTreasureChance > 0);
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public double getXpMultiplier() {
+            return xpMultiplier;
+        }
+
+        private int multiplyXp(int amount) {
+            return (int) Math.max(1, Math.round(amount * xpMultiplier));
+        }
+    }
+
+    public static final class Builder {
+        private double xpMultiplier = 1.0;
+        private final BitSet doubledBlocks = new BitSet();
+        private double doubleChance;
+        private final List<Material> treasure = new ArrayList<>();
+        private double blockTreasureChance;
+        private double mobTreasureChance;
+        private double mobLootChance;
+        private double mobLootDupeChance;
+        private Consumer<Location> onDoubled;
+        private Consumer<Location> onTreasure;
+        private Consumer<Location> onExtraLoot;
+
+        private Builder() {
+        }
+
+        public Builder xpMultiplier(double multiplier) {
+            this.xpMultiplier = multiplier;
+            return this;
+        }
+
+        /** Breaking one of {@code blocks} drops its loot a second time with {@code chance}. */
+        public Builder doubleDrops(Collection<Material> blocks, double chance, Consumer<Location> effect) {
+            for (Material block : blocks) {
+                doubledBlocks.set(block.ordinal());
+            }
+            this.doubleChance = chance;
+            this.onDoubled = effect;
+            return this;
+        }
+
+        /** One of {@code items} drops with these chances from mined blocks and from killed mobs. */
+        public Builder treasure(Collection<Material> items, double blockChance, double mobChance, Consumer<Location> effect) {
+            treasure.addAll(items);
+            this.blockTreasureChance = blockChance;
+            this.mobTreasureChance = mobChance;
+            this.onTreasure = effect;
+            return this;
+        }
+
+        /** With {@code chance}, a mob killed by a player drops each of its items again with {@code dupeChance}. */
+        public Builder extraMobLoot(double chance, double dupeChance, Consumer<Location> effect) {
+            this.mobLootChance = chance;
+            this.mobLootDupeChance = dupeChance;
+            this.onExtraLoot = effect;
+            return this;
+        }
+
+        public Rules build() {
+            return new Rules(this);
+        }
+    }
+}
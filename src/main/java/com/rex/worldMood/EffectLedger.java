@@ -0,0 +1,111 @@
+package com.rex.worldMood;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityPotionEffectEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which ambient pulses each player still has, so {@link Atmosphere#pulse} only resends
+ * one when it is about to run out.
+ * <p>
+ * A pulse used to be force-applied on every call, and every apply is an effect packet, even when
+ * the player already had the same effect with most of its time left. Void Tension's screen warp
+ * alone did that every second. Now each apply is written down with when it will expire, and a
+ * pulse is skipped while more than {@code pulseRefreshTicks} remain.
+ * <p>
+ * The ledger only tracks what it applied itself. Anything that could take the effect away from
+ * under it clears the entry: the effect being removed or cleared (milk, death, commands, other
+ * plugins), death, respawn, a world change, and quitting. Expiry is measured in wall-clock time,
+ * which only runs ahead of a lagging server, so an entry can go stale early but never late.
+ */
+public final class EffectLedger implements Listener {
+
+    private final WorldMood plugin;
+    private final Map<UUID, Map<PotionEffectType, Entry>> ledger = new ConcurrentHashMap<>();
+    private volatile long refreshMillis;
+
+    public EffectLedger(WorldMood plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+
+    /** Re-reads {@code pulseRefreshTicks}. */
+    public void reload() {
+        refreshMillis = plugin.getSettings().getPulseRefreshTicks() * 50L;
+    }
+
+    /**
+     * Applies {@code effect} unless the player still has it from an earlier call with more than the
+     * refresh threshold left, or has asked for no screen pulses ({@link EffectsProfile}). Returns
+     * whether a packet was actually sent.
+     */
+    public boolean apply(Player player, PotionEffect effect) {
+        if (!plugin.getEffectsProfile().allowsPulses(player)) return false;
+        long now = System.currentTimeMillis();
+        Map<PotionEffectType, Entry> effects = ledger.computeIfAbsent(player.getUniqueId(), id -> new ConcurrentHashMap<>());
+        Entry entry = effects.get(effect.getType());
+        if (entry != null && entry.amplifier == effect.getAmplifier() && entry.expiresAt - now > refreshMillis) {
+            return false;
+        }
+        player.addPotionEffect(effect, true);
+        if (entry == null) {
+            entry = new Entry();
+            effects.put(effect.getType(), entry);
+        }
+        entry.amplifier = effect.getAmplifier();
+        entry.expiresAt = now + effect.getDuration() * 50L;
+        return true;
+    }
+
+    public void forget(Player player) {
+        ledger.remove(player.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEffectChange(EntityPotionEffectEvent event) {
+        if (!(event.getEntity() instanceof Player)) return;
+        if (event.getAction() != EntityPotionEffectEvent.Action.REMOVED
+                && event.getAction() != EntityPotionEffectEvent.Action.CLEARED) return;
+        Map<PotionEffectType, Entry> effects = ledger.get(event.getEntity().getUniqueId());
+        if (effects != null) {
+            effects.remove(event.getModifiedType());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent event) {
+        forget(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        forget(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        forget(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        forget(event.getPlayer());
+    }
+
+    private static final class Entry {
+        int amplifier;
+        long expiresAt;
+    }
+}
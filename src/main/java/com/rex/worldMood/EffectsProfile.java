@@ -0,0 +1,136 @@
+package com.rex.worldMood;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Each player's choice of how much of the ambient atmosphere they want, kept across sessions.
+ * <p>
+ * Some players are on low-end clients, and some cannot stand the screen warp or a dark pulse. With
+ * {@code /worldmood effects} they pick a {@link Level}; it is stored in their own persistent data
+ * container, so it follows them across restarts with no file of our own, and mirrored here in
+ * memory at join because it is read for every particle and pulse.
+ * <ul>
+ *   <li>{@link Level#FULL}: everything, as designed.</li>
+ *   <li>{@link Level#REDUCED}: {@code reducedScale} of the haze, and no screen pulses (nausea,
+ *       darkness, blindness).</li>
+ *   <li>{@link Level#MINIMAL}: no ambient layers at all, and the coloured fog is not drawn
+ *       around them. These players cost the atmosphere nothing.</li>
+ * </ul>
+ * The fog is a change to the world, so a minimal player standing next to someone else still sees
+ * that player's fog. Titles, the HUD and gameplay effects are never affected.
+ */
+public final class EffectsProfile implements Listener {
+
+    public enum Level {
+        FULL, REDUCED, MINIMAL;
+
+        /** The level called {@code name}, ignoring case, or null. */
+        public static Level parse(String name) {
+            for (Level level : values()) {
+                if (level.name().equalsIgnoreCase(name)) return level;
+            }
+            return null;
+        }
+
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final WorldMood plugin;
+    private final NamespacedKey key;
+    private final Map<UUID, Level> levels = new ConcurrentHashMap<>();
+    private volatile double reducedScale;
+
+    public EffectsProfile(WorldMood plugin) {
+        this.plugin = plugin;
+        this.key = new NamespacedKey(plugin, "effects");
+        reload();
+    }
+
+    /** Re-reads {@code reducedEffectsScale}. */
+    public void reload() {
+        reducedScale = plugin.getSettings().getReducedEffectsScale();
+    }
+
+    /** Loads everyone online, for a reload while players are on. Call on the global thread. */
+    public void loadOnline(Iterable<? extends Player> players) {
+        for (Player player : players) {
+            plugin.getScheduler().runFor(player, () -> load(player));
+        }
+    }
+
+    public Level get(Player player) {
+        Level level = levels.get(player.getUniqueId());
+        return level == null ? Level.FULL : level;
+    }
+
+    /** Whether {@code player} gets no ambient atmosphere at all. */
+    public boolean isMinimal(Player player) {
+        return get(player) == Level.MINIMAL;
+    }
+
+    /** Whether screen pulses (nausea, darkness, blindness) may be sent to {@code player}. */
+    public boolean allowsPulses(Player player) {
+        return get(player) == Level.FULL;
+    }
+
+    /** The fraction of the ambient particles {@code player} wants: 1, reducedScale or 0. */
+    public double detailScale(Player player) {
+        switch (get(player)) {
+            case MINIMAL:
+                return 0.0;
+            case REDUCED:
+                return reducedScale;
+            default:
+                return 1.0;
+        }
+    }
+
+    /** Stores {@code level} for {@code player}. Call on the player's own thread. */
+    public void set(Player player, Level level) {
+        if (level == Level.FULL) {
+            player.getPersistentDataContainer().remove(key);
+            levels.remove(player.getUniqueId());
+        } else {
+            player.getPersistentDataContainer().set(key, PersistentDataType.STRING, level.key());
+            levels.put(player.getUniqueId(), level);
+        }
+        if (level == Level.MINIMAL) {
+            plugin.getFogController().refresh(); // let the bubble around them go now
+        }
+    }
+
+    private void load(Player player) {
+        String stored = player.getPersistentDataContainer().get(key, PersistentDataType.STRING);
+        Level level = stored == null ? null : Level.parse(stored);
+        if (level == null || level == Level.FULL) {
+            levels.remove(player.getUniqueId());
+        } else {
+            levels.put(player.getUniqueId(), level);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        // LOWEST, so the level is known before the mood greets them.
+        load(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        levels.remove(event.getPlayer().getUniqueId());
+    }
+}
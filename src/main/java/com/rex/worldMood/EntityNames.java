@@ -0,0 +1,86 @@
+package com.rex.worldMood;
+
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Mood nametags for mobs ("Void Touched Cave Spider" and the like), formatted once per entity type.
+ * <p>
+ * Void Tension used to rebuild each name from {@code EntityType.name()} (replace, lower-case,
+ * split, capitalise, join, colour) for every entity it touched, and on {@code apply()} that is
+ * every living entity in every world. A {@link Tags} set formats every type's name up front into
+ * an {@link EnumMap}, so tagging or untagging an entity is one map lookup and no new strings.
+ * <p>
+ * Any mood can build its own set with {@link #tags}; build it once, when the mood is created.
+ */
+public final class EntityNames {
+
+    // "CAVE_SPIDER" -> "Cave Spider", for every type this server knows.
+    private static final Map<EntityType, String> READABLE = readableNames();
+
+    private EntityNames() {
+    }
+
+    /** The type's name as a player would write it, e.g. "Cave Spider". */
+    public static String readable(EntityType type) {
+        return READABLE.get(type);
+    }
+
+    /**
+     * Tags of the form {@code prefix + readable name}. {@code prefix} should carry its own colour
+     * codes, since {@link Tags#remove} recognises the plugin's tags by it.
+     */
+    public static Tags tags(String prefix) {
+        return new Tags(prefix);
+    }
+
+    private static Map<EntityType, String> readableNames() {
+        Map<EntityType, String> names = new EnumMap<>(EntityType.class);
+        StringBuilder name = new StringBuilder();
+        for (EntityType type : EntityType.values()) {
+            name.setLength(0);
+            boolean wordStart = true;
+            for (char c : type.name().toCharArray()) {
+                if (c == '_') {
+                    if (!wordStart) name.append(' ');
+                    wordStart = true;
+                } else {
+                    name.append(wordStart ? Character.toUpperCase(c) : Character.toLowerCase(c));
+                    wordStart = false;
+                }
+            }
+            names.put(type, name.toString());
+        }
+        return names;
+    }
+
+    /** One mood's nametag for every entity type. Immutable. */
+    public static final class Tags {
+        private final String prefix;
+        private final Map<EntityType, String> names = new EnumMap<>(EntityType.class);
+
+        private Tags(String prefix) {
+            this.prefix = prefix;
+            for (Map.Entry<EntityType, String> entry : READABLE.entrySet()) {
+                names.put(entry.getKey(), prefix + entry.getValue());
+            }
+        }
+
+        /** Gives {@code entity} this tag, hidden until looked at directly. */
+        public void apply(LivingEntity entity) {
+            entity.setCustomName(names.get(entity.getType()));
+            entity.setCustomNameVisible(false);
+        }
+
+        /** Clears {@code entity}'s name if it is still this tag; a name a player gave it stays. */
+        public void remove(LivingEntity entity) {
+            String current = entity.getCustomName();
+            if (current != null && current.startsWith(prefix)) {
+                entity.setCustomName(null);
+            }
+        }
+    }
+}
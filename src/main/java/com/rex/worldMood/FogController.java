@@ -4,8 +4,6 @@ import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.block.Biome;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
 import java.io.IOException;
@@ -13,6 +11,7 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -33,7 +32,9 @@ import java.util.UUID;
  * <p>
  * The tinted region is a moving bubble: a periodic sweep tints cells players walk into and restores
  * cells they leave behind, which keeps the effect following the player and bounds how much world
- * state (and how much of the crash-recovery record) is ever outstanding.
+ * state (and how much of the crash-recovery record) is ever outstanding. An AFK player's bubble
+ * is kept but stops following them until they are back (see {@link ActivityTracker}), and players
+ * who chose minimal effects get no bubble of their own (see {@link EffectsProfile}).
  * <p>
  * On legacy servers a custom biome cannot be resolved ({@link BiomeFog#biome(String)} is null), so
  * {@link #begin(String)} no-ops and the mood runs with its Tier-1 effects only.
@@ -64,17 +65,26 @@ public final class FogController {
     };
 
     private String activeKey;
-    private Biome activeBiome;
+    private volatile Biome activeBiome;
     // world UID -> (packed cell key -> recorded cell). The authoritative in-memory mirror of disk.
+    // Only ever touched on the global thread; region work reports back through runGlobal.
     private final Map<UUID, Map<Long, BiomeFog.Cell>> tinted = new HashMap<>();
     // Our own fog biomes, compared by REFERENCE only: on 1.21.x Biome.equals/hashCode collapse all
     // biomes together, so a HashSet would match every vanilla biome. Registry singletons make == safe.
-    private Biome[] ownBiomes;
-    private BukkitTask sweepTask;
+    private volatile Biome[] ownBiomes;
+    private TaskScheduler.Task sweepTask;
     private boolean warnedUnregistered;
     // True only where the bundled datapack's biome schema is known to load: the modern jar on MC 1.21+.
     private boolean datapackCapable;
 
+    // Bookkeeping for the region hops below. Biome reads and writes must happen on the thread that
+    // owns the chunk, so a sweep fans out per chunk and joins back on the global thread. On
+    // Spigot/Paper every hop runs inline, so both counters are back at zero before sweep()/end()
+    // return and the ordering is exactly the single-threaded one.
+    private volatile int session;     // bumped by end(); region work from an older session stands down
+    private int worldsInFlight;       // worlds whose sweep is still waiting on region work
+    private int restoresInFlight;     // chunk restores end() has dispatched but not heard back from
+
     public FogController(WorldMood plugin, WorldStateGuard guard) {
         this.plugin = plugin;
         this.guard = guard;
@@ -104,6 +114,12 @@ public final class FogController {
             }
             return;
         }
+        start(biomeKey, biome);
+    }
+
+    /** Starts a session with an already-resolved biome. Package-private so tests can supply one. */
+    void start(String biomeKey, Biome biome) {
+        resolveOwnBiomes();
         this.activeKey = biomeKey;
         this.activeBiome = biome;
         sweep(Bukkit.getOnlinePlayers());
@@ -111,16 +127,13 @@ public final class FogController {
         for (Map<Long, BiomeFog.Cell> m : tinted.values()) total += m.size();
         plugin.getLogger().info("[Fog] " + biomeKey + " active — tinted " + total + " biome cells around "
                 + Bukkit.getOnlinePlayers().size() + " player(s).");
-        sweepTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (activeBiome == null) {
-                    cancel();
-                    return;
-                }
-                sweep(Bukkit.getOnlinePlayers());
+        sweepTask = plugin.getScheduler().runGlobalTimer(task -> {
+            if (activeBiome == null) {
+                task.cancel();
+                return;
             }
-        }.runTaskTimer(plugin, RETINT_PERIOD_TICKS, RETINT_PERIOD_TICKS);
+            sweep(Bukkit.getOnlinePlayers());
+        }, RETINT_PERIOD_TICKS, RETINT_PERIOD_TICKS);
     }
 
     /** Stops the session and restores every tinted cell to its original biome, clearing the disk record. */
@@ -131,41 +144,79 @@ public final class FogController {
         }
         activeBiome = null;
         activeKey = null;
+        session++;
         if (tinted.isEmpty()) {
-            guard.clearFog();
+            if (restoresInFlight == 0) guard.clearFog();
             return;
         }
+        TaskScheduler scheduler = plugin.getScheduler();
+        if (scheduler.isRegionized() && !plugin.isEnabled()) {
+            // Region threads take no more plugin work once we are disabling. The disk record is still
+            // intact, so leave it: restorePending() puts every cell back on the next start.
+            plugin.getLogger().info("[Fog] Server is stopping; tinted cells will be restored on next startup.");
+            tinted.clear();
+            return;
+        }
+        restoresInFlight++; // held until every restore below has been dispatched
         for (Map.Entry<UUID, Map<Long, BiomeFog.Cell>> e : tinted.entrySet()) {
             World world = Bukkit.getWorld(e.getKey());
             if (world == null) continue;
-            Set<Long> chunks = new HashSet<>();
-            for (BiomeFog.Cell c : e.getValue().values()) {
-                world.setBiome(c.x, c.y, c.z, c.original);
-                chunks.add(chunkKey(c.x >> 4, c.z >> 4));
+            for (Map.Entry<Long, List<BiomeFog.Cell>> chunk : groupByChunk(e.getValue().values()).entrySet()) {
+                int cx = (int) (chunk.getKey() >> 32), cz = (int) (long) chunk.getKey();
+                List<BiomeFog.Cell> cells = chunk.getValue();
+                restoresInFlight++;
+                scheduler.runAt(world, cx, cz, () -> {
+                    for (BiomeFog.Cell c : cells) {
+                        world.setBiome(c.x, c.y, c.z, c.original);
+                    }
+                    BiomeFog.refreshChunk(world, cx, cz);
+                    scheduler.runGlobal(this::restoreDone);
+                });
             }
-            refreshAll(world, chunks);
             plugin.getLogger().info("[Fog] Restored " + e.getValue().size() + " biome cells in world '"
                     + world.getName() + "'.");
         }
         tinted.clear();
-        guard.clearFog();
+        restoreDone();
+    }
+
+    /** Sweeps now rather than on the next period, e.g. for a player who just came back from AFK. */
+    public void refresh() {
+        plugin.getScheduler().runGlobal(() -> sweep(Bukkit.getOnlinePlayers()));
+    }
+
+    /** The record may only be dropped once every restore has landed — a crash before then replays it. */
+    private void restoreDone() {
+        if (--restoresInFlight == 0) {
+            guard.clearFog();
+        }
     }
 
     /**
      * One bubble step: restore cells everyone has walked away from, tint cells they've walked into.
-     * Ordering is dictated by crash-safety — see the numbered steps below.
+     * Ordering is dictated by crash-safety — see the numbered steps in {@link WorldSweep}.
      */
     private void sweep(Collection<? extends Player> players) {
         if (activeBiome == null) return;
+        // A previous sweep (or end()) is still waiting on region threads; let it land first so two
+        // passes never race on the same record.
+        if (worldsInFlight > 0 || restoresInFlight > 0) return;
 
-        // Group online players by world so distance checks and edits are per-world.
+        // Group online players by world so distance checks and edits are per-world. AFK players
+        // keep the cells around them from being pruned, but their bubble does not grow.
         Map<UUID, List<int[]>> playerChunksByWorld = new HashMap<>();
+        Map<UUID, List<int[]>> activeChunksByWorld = new HashMap<>();
+        ActivityTracker activity = plugin.getActivityTracker();
+        EffectsProfile profile = plugin.getEffectsProfile();
         for (Player p : players) {
             World w = p.getWorld();
-            if (w.getEnvironment() != World.Environment.NORMAL) continue;
-            playerChunksByWorld.computeIfAbsent(w.getUID(), k -> new ArrayList<>())
-                    .add(new int[]{p.getLocation().getBlockX() >> 4, p.getLocation().getBlockZ() >> 4,
-                            p.getLocation().getBlockY()});
+            if (w.getEnvironment() != World.Environment.NORMAL || profile.isMinimal(p)) continue;
+            int[] at = {p.getLocation().getBlockX() >> 4, p.getLocation().getBlockZ() >> 4,
+                    p.getLocation().getBlockY()};
+            playerChunksByWorld.computeIfAbsent(w.getUID(), k -> new ArrayList<>()).add(at);
+            if (!activity.isAfk(p)) {
+                activeChunksByWorld.computeIfAbsent(w.getUID(), k -> new ArrayList<>()).add(at);
+            }
         }
 
         Set<UUID> worlds = new HashSet<>();
@@ -175,40 +226,113 @@ public final class FogController {
         for (UUID worldId : worlds) {
             World world = Bukkit.getWorld(worldId);
             if (world == null) continue;
-            List<int[]> playerChunks = playerChunksByWorld.getOrDefault(worldId, java.util.Collections.emptyList());
+            List<int[]> playerChunks = playerChunksByWorld.getOrDefault(worldId, Collections.emptyList());
             Map<Long, BiomeFog.Cell> cells = tinted.computeIfAbsent(worldId, k -> new LinkedHashMap<>());
 
-            // Compute the two edit sets first, reading originals for new cells before any swap.
-            List<BiomeFog.Cell> toPrune = collectPrunable(cells, playerChunks);
-            List<BiomeFog.Cell> toAdd = collectNew(world, cells, playerChunks);
-            if (toPrune.isEmpty() && toAdd.isEmpty()) continue;
+            // Work out both edit sets from memory first; originals are read per chunk below.
+            Map<Long, List<BiomeFog.Cell>> toPrune = groupByChunk(collectPrunable(cells, playerChunks));
+            Map<Long, List<int[]>> candidates = collectCandidates(world, cells,
+                    activeChunksByWorld.getOrDefault(worldId, Collections.emptyList()));
+            if (toPrune.isEmpty() && candidates.isEmpty()) continue;
+
+            new WorldSweep(world, cells).run(toPrune, candidates);
+        }
+    }
+
+    /** One world's share of a sweep: fans out per chunk, joins back on the global thread. */
+    private final class WorldSweep {
+        private final World world;
+        private final Map<Long, BiomeFog.Cell> cells;
+        private final int mySession = session;
+        private final List<BiomeFog.Cell> added = new ArrayList<>();
+        private int pending;
+
+        WorldSweep(World world, Map<Long, BiomeFog.Cell> cells) {
+            this.world = world;
+            this.cells = cells;
+        }
 
-            Set<Long> chunks = new HashSet<>();
+        void run(Map<Long, List<BiomeFog.Cell>> toPrune, Map<Long, List<int[]>> candidates) {
+            TaskScheduler scheduler = plugin.getScheduler();
+            worldsInFlight++;
+            pending = 1; // held until everything below has been dispatched
 
             // 1. Restore pruned cells on disk BEFORE dropping them from the record (a crash here just
             //    re-restores them next startup — harmless — whereas dropping first could strand fog).
-            for (BiomeFog.Cell c : toPrune) {
-                world.setBiome(c.x, c.y, c.z, c.original);
-                cells.remove(BiomeFog.cellKey(c.x, c.y, c.z));
-                chunks.add(chunkKey(c.x >> 4, c.z >> 4));
+            for (Map.Entry<Long, List<BiomeFog.Cell>> chunk : toPrune.entrySet()) {
+                int cx = (int) (chunk.getKey() >> 32), cz = (int) (long) chunk.getKey();
+                List<BiomeFog.Cell> group = chunk.getValue();
+                pending++;
+                scheduler.runAt(world, cx, cz, () -> {
+                    for (BiomeFog.Cell c : group) {
+                        world.setBiome(c.x, c.y, c.z, c.original);
+                    }
+                    BiomeFog.refreshChunk(world, cx, cz);
+                    scheduler.runGlobal(() -> {
+                        for (BiomeFog.Cell c : group) {
+                            cells.remove(BiomeFog.cellKey(c.x, c.y, c.z));
+                        }
+                        done();
+                    });
+                });
+            }
+            // 2. Read the originals of cells players walked into, on the thread that owns them.
+            for (Map.Entry<Long, List<int[]>> chunk : candidates.entrySet()) {
+                int cx = (int) (chunk.getKey() >> 32), cz = (int) (long) chunk.getKey();
+                List<int[]> group = chunk.getValue();
+                pending++;
+                scheduler.runAt(world, cx, cz, () -> {
+                    List<BiomeFog.Cell> read = new ArrayList<>(group.size());
+                    for (int[] at : group) {
+                        Biome cur = world.getBiome(at[0], at[1], at[2]);
+                        // Never record one of our own fog biomes as an "original": that would
+                        // happen only if a lost record left stray fog behind, and persisting it
+                        // as the original would make the tint permanent.
+                        if (isOwnBiome(cur)) continue;
+                        read.add(new BiomeFog.Cell(at[0], at[1], at[2], cur));
+                    }
+                    scheduler.runGlobal(() -> {
+                        added.addAll(read);
+                        done();
+                    });
+                });
             }
-            // 2. Add new cells to the in-memory record (not yet swapped on disk).
-            for (BiomeFog.Cell c : toAdd) {
+            done();
+        }
+
+        private void done() {
+            if (--pending > 0) return;
+            worldsInFlight--;
+            // end() ran while we were out; it restored whatever was recorded, and nothing new of ours
+            // was swapped yet, so there is nothing left to do.
+            if (mySession != session) return;
+
+            // 3. Add the new cells to the record and persist it NOW — new cells are on disk as
+            //    "originally X" before we change them.
+            for (BiomeFog.Cell c : added) {
                 cells.put(BiomeFog.cellKey(c.x, c.y, c.z), c);
             }
-            // 3. Persist the record NOW — new cells are on disk as "originally X" before we change them.
             if (cells.isEmpty()) {
                 guard.clearFogWorld(world);
             } else {
                 guard.saveFog(world, cells.values());
             }
-            // 4. Only now swap the new cells to the fog biome.
-            for (BiomeFog.Cell c : toAdd) {
-                world.setBiome(c.x, c.y, c.z, activeBiome);
-                chunks.add(chunkKey(c.x >> 4, c.z >> 4));
+            // 4. Only now swap the new cells to the fog biome, and resend each touched chunk so
+            //    clients see the change without relogging.
+            Biome biome = activeBiome;
+            if (biome == null) return;
+            TaskScheduler scheduler = plugin.getScheduler();
+            for (Map.Entry<Long, List<BiomeFog.Cell>> chunk : groupByChunk(added).entrySet()) {
+                int cx = (int) (chunk.getKey() >> 32), cz = (int) (long) chunk.getKey();
+                List<BiomeFog.Cell> group = chunk.getValue();
+                scheduler.runAt(world, cx, cz, () -> {
+                    if (mySession != session) return; // ended meanwhile; end() restored these
+                    for (BiomeFog.Cell c : group) {
+                        world.setBiome(c.x, c.y, c.z, biome);
+                    }
+                    BiomeFog.refreshChunk(world, cx, cz);
+                });
             }
-            // 5. Resend every touched chunk so clients see the change without relogging.
-            refreshAll(world, chunks);
         }
     }
 
@@ -225,9 +349,9 @@ public final class FogController {
         return out;
     }
 
-    /** Untinted cells within RADIUS_CHUNKS/Y_BAND of a player, originals read here before any swap. */
-    private List<BiomeFog.Cell> collectNew(World world, Map<Long, BiomeFog.Cell> cells, List<int[]> playerChunks) {
-        List<BiomeFog.Cell> out = new ArrayList<>();
+    /** Untinted cell positions within RADIUS_CHUNKS/Y_BAND of a player, grouped by chunk key. */
+    private Map<Long, List<int[]>> collectCandidates(World world, Map<Long, BiomeFog.Cell> cells, List<int[]> playerChunks) {
+        Map<Long, List<int[]>> out = new LinkedHashMap<>();
         if (playerChunks.isEmpty() || cells.size() >= MAX_CELLS_PER_WORLD) return out;
         int minWorldY = world.getMinHeight();
         int maxWorldY = world.getMaxHeight() - 1;
@@ -241,17 +365,14 @@ public final class FogController {
                     int camY = pc[2];
                     int minY = alignDown(Math.max(minWorldY, camY - Y_BAND));
                     int maxY = Math.min(maxWorldY, camY + Y_BAND);
+                    List<int[]> group = null;
                     for (int x = bx; x < bx + 16; x += 4) {
                         for (int z = bz; z < bz + 16; z += 4) {
                             for (int y = minY; y <= maxY; y += 4) {
                                 long key = BiomeFog.cellKey(x, y, z);
                                 if (cells.containsKey(key) || !seen.add(key)) continue;
-                                Biome cur = world.getBiome(x, y, z);
-                                // Never record one of our own fog biomes as an "original": that would
-                                // happen only if a lost record left stray fog behind, and persisting it
-                                // as the original would make the tint permanent.
-                                if (isOwnBiome(cur)) continue;
-                                out.add(new BiomeFog.Cell(x, y, z, cur));
+                                if (group == null) group = out.computeIfAbsent(chunkKey(cx, cz), k -> new ArrayList<>());
+                                group.add(new int[]{x, y, z});
                             }
                         }
                     }
@@ -261,18 +382,31 @@ public final class FogController {
         return out;
     }
 
+    private static Map<Long, List<BiomeFog.Cell>> groupByChunk(Collection<BiomeFog.Cell> cells) {
+        Map<Long, List<BiomeFog.Cell>> out = new LinkedHashMap<>();
+        for (BiomeFog.Cell c : cells) {
+            out.computeIfAbsent(chunkKey(c.x >> 4, c.z >> 4), k -> new ArrayList<>()).add(c);
+        }
+        return out;
+    }
+
+    /** Resolves our own fog biomes once, on the global thread, before any region work reads them. */
+    private void resolveOwnBiomes() {
+        if (ownBiomes != null) return;
+        List<Biome> resolved = new ArrayList<>();
+        for (String key : OWN_BIOME_KEYS) {
+            Biome own = BiomeFog.biome(key);
+            if (own != null) resolved.add(own);
+        }
+        ownBiomes = resolved.toArray(new Biome[0]);
+    }
+
     /** True if {@code b} is one of our fog biomes, by reference (see the {@link #ownBiomes} note). */
     private boolean isOwnBiome(Biome b) {
-        if (ownBiomes == null) {
-            List<Biome> resolved = new ArrayList<>();
-            for (String key : OWN_BIOME_KEYS) {
-                Biome own = BiomeFog.biome(key);
-                if (own != null) resolved.add(own);
-            }
-            ownBiomes = resolved.toArray(new Biome[0]);
-        }
-        for (Biome own : ownBiomes) {
-            if (own == b) return true;
+        Biome[] own = ownBiomes;
+        if (own == null) return false;
+        for (Biome candidate : own) {
+            if (candidate == b) return true;
         }
         return false;
     }
@@ -294,12 +428,6 @@ public final class FogController {
         return (((long) cx) << 32) | (cz & 0xFFFFFFFFL);
     }
 
-    private static void refreshAll(World world, Set<Long> chunks) {
-        for (long ck : chunks) {
-            BiomeFog.refreshChunk(world, (int) (ck >> 32), (int) ck);
-        }
-    }
-
     // ------------------------------------------------------------------
     // Datapack shipping (modern jar only)
     // ------------------------------------------------------------------
@@ -0,0 +1,225 @@
+package com.rex.worldMood;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Consumer;
+
+/**
+ * {@link TaskScheduler} for region-threaded servers (Folia).
+ * <p>
+ * Folia's schedulers are not in the Spigot API either jar compiles against, so — exactly as
+ * {@link Compat} does for renamed constants — every entry point is resolved <b>by name, once</b>,
+ * and invoked reflectively. Folia hands its tasks a {@code ScheduledTask}; that is passed through
+ * as a plain {@link Object} and cancelled reflectively as well.
+ * <p>
+ * Folia rejects a delay of zero on its delayed/repeating methods, so delays are clamped to 1.
+ */
+final class FoliaTaskScheduler implements TaskScheduler {
+
+    private static final String REGIONIZED_SERVER = "io.papermc.paper.threadedregions.RegionizedServer";
+    private static final String SCHEDULED_TASK = "io.papermc.paper.threadedregions.scheduler.ScheduledTask";
+
+    private final Plugin plugin;
+
+    private final Object globalScheduler;
+    private final Method globalRun;
+    private final Method globalRunDelayed;
+    private final Method globalRunAtFixedRate;
+    private final Method globalCancelTasks;
+
+    private final Object regionScheduler;
+    private final Method regionRun;
+    private final Method regionRunDelayed;
+
+    private final Method entityGetScheduler;
+    private final Method entityRun;
+    private final Method entityRunDelayed;
+
+    private final Method entityTeleportAsync;
+
+    private final Method ownsEntity;
+    private final Method ownsChunk;
+
+    private final Method taskCancel;
+
+    /** Whether this server splits the world across region threads. */
+    static boolean isSupported() {
+        try {
+            Class.forName(REGIONIZED_SERVER);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    FoliaTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+        try {
+            Method getGlobal = Bukkit.class.getMethod("getGlobalRegionScheduler");
+            globalScheduler = getGlobal.invoke(null);
+            Class<?> globalType = getGlobal.getReturnType();
+            globalRun = globalType.getMethod("run", Plugin.class, Consumer.class);
+            globalRunDelayed = globalType.getMethod("runDelayed", Plugin.class, Consumer.class, long.class);
+            globalRunAtFixedRate = globalType.getMethod("runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class);
+            globalCancelTasks = globalType.getMethod("cancelTasks", Plugin.class);
+
+            Method getRegion = Bukkit.class.getMethod("getRegionScheduler");
+            regionScheduler = getRegion.invoke(null);
+            Class<?> regionType = getRegion.getReturnType();
+            regionRun = regionType.getMethod("run", Plugin.class, World.class, int.class, int.class, Consumer.class);
+            regionRunDelayed = regionType.getMethod("runDelayed", Plugin.class, World.class, int.class, int.class, Consumer.class, long.class);
+
+            entityGetScheduler = Entity.class.getMethod("getScheduler");
+            Class<?> entityType = entityGetScheduler.getReturnType();
+            entityRun = entityType.getMethod("run", Plugin.class, Consumer.class, Runnable.class);
+            entityRunDelayed = entityType.getMethod("runDelayed", Plugin.class, Consumer.class, Runnable.class, long.class);
+            entityTeleportAsync = Entity.class.getMethod("teleportAsync", Location.class);
+
+            ownsEntity = Bukkit.class.getMethod("isOwnedByCurrentRegion", Entity.class);
+            ownsChunk = Bukkit.class.getMethod("isOwnedByCurrentRegion", World.class, int.class, int.class);
+
+            taskCancel = Class.forName(SCHEDULED_TASK).getMethod("cancel");
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Region scheduler API not found: " + e, e);
+        }
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return true;
+    }
+
+    @Override
+    public Task runGlobal(Runnable task) {
+        FoliaTask handle = new FoliaTask();
+        handle.bind(invoke(globalRun, globalScheduler, plugin, handle.once(task)));
+        return handle;
+    }
+
+    @Override
+    public Task runGlobalLater(Runnable task, long delayTicks) {
+        FoliaTask handle = new FoliaTask();
+        handle.bind(invoke(globalRunDelayed, globalScheduler, plugin, handle.once(task), Math.max(1L, delayTicks)));
+        return handle;
+    }
+
+    @Override
+    public Task runGlobalTimer(Consumer<Task> task, long delayTicks, long periodTicks) {
+        FoliaTask handle = new FoliaTask();
+        Consumer<Object> body = scheduled -> {
+            handle.bind(scheduled);
+            task.accept(handle);
+        };
+        handle.bind(invoke(globalRunAtFixedRate, globalScheduler, plugin, body,
+                Math.max(1L, delayTicks), Math.max(1L, periodTicks)));
+        return handle;
+    }
+
+    @Override
+    public Task runFor(Entity entity, Runnable task) {
+        if (Boolean.TRUE.equals(invoke(ownsEntity, null, entity))) {
+            task.run();
+            return DONE;
+        }
+        FoliaTask handle = new FoliaTask();
+        Object scheduler = invoke(entityGetScheduler, entity);
+        // A null result means the entity was already removed; the work is simply dropped.
+        handle.bind(invoke(entityRun, scheduler, plugin, handle.once(task), null));
+        return handle;
+    }
+
+    @Override
+    public Task runForLater(Entity entity, Runnable task, long delayTicks) {
+        FoliaTask handle = new FoliaTask();
+        Object scheduler = invoke(entityGetScheduler, entity);
+        handle.bind(invoke(entityRunDelayed, scheduler, plugin, handle.once(task), null, Math.max(1L, delayTicks)));
+        return handle;
+    }
+
+    @Override
+    public Task runAt(World world, int chunkX, int chunkZ, Runnable task) {
+        if (Boolean.TRUE.equals(invoke(ownsChunk, null, world, chunkX, chunkZ))) {
+            task.run();
+            return DONE;
+        }
+        FoliaTask handle = new FoliaTask();
+        handle.bind(invoke(regionRun, regionScheduler, plugin, world, chunkX, chunkZ, handle.once(task)));
+        return handle;
+    }
+
+    @Override
+    public Task runAtLater(World world, int chunkX, int chunkZ, Runnable task, long delayTicks) {
+        FoliaTask handle = new FoliaTask();
+        handle.bind(invoke(regionRunDelayed, regionScheduler, plugin, world, chunkX, chunkZ,
+                handle.once(task), Math.max(1L, delayTicks)));
+        return handle;
+    }
+
+    @Override
+    public void teleport(Entity entity, Location destination) {
+        invoke(entityTeleportAsync, entity, destination);
+    }
+
+    @Override
+    public void cancelAll() {
+        // Region and entity tasks are torn down by Folia itself when the plugin disables; only the
+        // global scheduler keeps plugin tasks around on its own.
+        invoke(globalCancelTasks, globalScheduler, plugin);
+    }
+
+    private Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Wraps Folia's {@code ScheduledTask}, which may only exist once the task has been queued. */
+    private final class FoliaTask implements Task {
+        private volatile Object scheduled;
+        private volatile boolean cancelled;
+
+        void bind(Object scheduled) {
+            if (scheduled == null || this.scheduled != null) return;
+            this.scheduled = scheduled;
+            if (cancelled) {
+                invoke(taskCancel, scheduled);
+            }
+        }
+
+        Consumer<Object> once(Runnable task) {
+            return scheduled -> {
+                bind(scheduled);
+                if (!cancelled) {
+                    task.run();
+                }
+            };
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Object current = scheduled;
+            if (current != null) {
+                invoke(taskCancel, current);
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
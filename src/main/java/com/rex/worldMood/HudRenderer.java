@@ -0,0 +1,219 @@
+package com.rex.worldMood;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.NamespacedKey;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Draws the mood boss bar, sending a packet only when something a player could see has changed.
+ * <p>
+ * Every {@code BossBar} setter is an update packet to every viewer, whether or not the value moved.
+ * The mood tick used to set progress and rebuild the title once a second, but the client draws
+ * progress as a fill of {@value #BAR_STEPS} pixels: over a long mood, most of those updates moved
+ * the fill by less than one pixel. Here progress is quantised to that resolution, and each bar
+ * remembers what it last sent, so an unchanged title, step, colour or visibility is never resent.
+ * Titles are built once per remaining second and reused.
+ * <p>
+ * There is normally one shared bar. With {@code perPlayerBossBars} every player instead gets a
+ * private bar; each one is delta-suppressed in the same way.
+ */
+public final class HudRenderer {
+
+    /** Width in pixels of the boss bar fill on the client; finer progress is invisible. */
+    static final int BAR_STEPS = 182;
+
+    private static final String IDLE_TITLE = "No Active Mood";
+    private static final String[] TWO_DIGITS = new String[100];
+
+    static {
+        for (int i = 0; i < TWO_DIGITS.length; i++) {
+            TWO_DIGITS[i] = (i < 10 ? "0" : "") + i;
+        }
+    }
+
+    private final NamespacedKey key;
+    private final boolean perPlayer;
+    private final BarView shared;
+    private final Set<UUID> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, BarView> personal = new ConcurrentHashMap<>();
+
+    // The current frame: what every bar should be showing. Bars catch up to it in render().
+    private volatile boolean active;
+    private volatile BarColor frameColor = BarColor.BLUE;
+    private volatile String frameTitle = IDLE_TITLE;
+    private volatile int frameStep = BAR_STEPS;
+
+    private String titlePrefix;
+    private String[] titlesBySecond = new String[0];
+
+    public HudRenderer(NamespacedKey key, boolean perPlayer) {
+        this.key = key;
+        this.perPlayer = perPlayer;
+        if (perPlayer) {
+            shared = null;
+        } else {
+            BossBar bar = Bukkit.createBossBar(key, IDLE_TITLE, BarColor.BLUE, BarStyle.SOLID);
+            bar.setVisible(false);
+            shared = new BarView(bar);
+        }
+    }
+
+    /** Shows the bar full, titled with the mood name, for everyone already subscribed. */
+    public void start(String moodName, BarColor color, long totalDurationTicks) {
+        titlePrefix = ChatColor.BOLD + moodName + ChatColor.RESET + " - ";
+        titlesBySecond = new String[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(0, totalDurationTicks / 20) + 1)];
+        frameColor = color;
+        frameTitle = ChatColor.BOLD + moodName;
+        frameStep = BAR_STEPS;
+        active = true;
+        renderAll();
+    }
+
+    /** Once-a-second update; costs nothing on the wire unless the title or the visible fill changed. */
+    public void progress(long ticksRemaining, long totalDurationTicks) {
+        if (!active) return;
+        double progress = (totalDurationTicks <= 0) ? 0 : (double) ticksRemaining / totalDurationTicks;
+        progress = Math.max(0, Math.min(1, progress));
+        frameStep = (int) Math.round(progress * BAR_STEPS);
+        frameTitle = title(Math.max(0, ticksRemaining / 20));
+        renderAll();
+    }
+
+    /** Hides the bar between moods. Players stay subscribed to the shared bar. */
+    public void clear() {
+        active = false;
+        frameColor = BarColor.BLUE;
+        frameTitle = IDLE_TITLE;
+        frameStep = BAR_STEPS;
+        titlesBySecond = new String[0];
+        if (shared != null) {
+            shared.render(frameTitle, frameStep, frameColor, false);
+        }
+        for (BarView view : personal.values()) {
+            view.render(frameTitle, frameStep, frameColor, false);
+        }
+    }
+
+    /** Adds a player to the HUD if a mood is showing. O(1) when they already have it. */
+    public void show(Player player) {
+        if (!active) return;
+        UUID id = player.getUniqueId();
+        if (!perPlayer) {
+            if (subscribers.add(id)) {
+                shared.bar.addPlayer(player);
+            }
+            return;
+        }
+        BarView view = personal.get(id);
+        if (view == null) {
+            BossBar bar = Bukkit.createBossBar(frameTitle, frameColor, BarStyle.SOLID);
+            bar.setVisible(false);
+            bar.addPlayer(player);
+            view = new BarView(bar);
+            personal.put(id, view);
+        }
+        view.render(frameTitle, frameStep, frameColor, true);
+    }
+
+    /** Takes a player off the HUD, e.g. on quit. */
+    public void remove(Player player) {
+        UUID id = player.getUniqueId();
+        if (subscribers.remove(id)) {
+            shared.bar.removePlayer(player);
+        }
+        BarView view = personal.remove(id);
+        if (view != null) {
+            view.bar.removeAll();
+        }
+    }
+
+    /** Removes every bar this renderer created. Called before the HUD is rebuilt on reload. */
+    public void dispose() {
+        active = false;
+        for (BarView view : personal.values()) {
+            view.bar.removeAll();
+        }
+        personal.clear();
+        subscribers.clear();
+        if (shared != null) {
+            shared.bar.removeAll();
+            Bukkit.removeBossBar(key);
+        }
+    }
+
+    private void renderAll() {
+        String title = frameTitle;
+        int step = frameStep;
+        BarColor color = frameColor;
+        if (shared != null) {
+            shared.render(title, step, color, true);
+        }
+        for (BarView view : personal.values()) {
+            view.render(title, step, color, true);
+        }
+    }
+
+    private String title(long secondsRemaining) {
+        String[] cache = titlesBySecond;
+        if (secondsRemaining < cache.length) {
+            String cached = cache[(int) secondsRemaining];
+            if (cached == null) {
+                cached = titlePrefix + clock(secondsRemaining);
+                cache[(int) secondsRemaining] = cached;
+            }
+            return cached;
+        }
+        return titlePrefix + clock(secondsRemaining);
+    }
+
+    private static String clock(long totalSeconds) {
+        long minutes = totalSeconds / 60;
+        int seconds = (int) (totalSeconds % 60);
+        return (minutes < 100 ? TWO_DIGITS[(int) minutes] : Long.toString(minutes)) + ":" + TWO_DIGITS[seconds];
+    }
+
+    /** One boss bar plus the last state actually sent for it. */
+    private static final class BarView {
+        final BossBar bar;
+        private String title;
+        private int step;
+        private BarColor color;
+        private boolean visible;
+
+        BarView(BossBar bar) {
+            this.bar = bar;
+            this.title = bar.getTitle();
+            this.step = (int) Math.round(bar.getProgress() * BAR_STEPS);
+            this.color = bar.getColor();
+            this.visible = bar.isVisible();
+        }
+
+        synchronized void render(String newTitle, int newStep, BarColor newColor, boolean newVisible) {
+            if (newColor != color) {
+                bar.setColor(newColor);
+                color = newColor;
+            }
+            if (!newTitle.equals(title)) {
+                bar.setTitle(newTitle);
+                title = newTitle;
+            }
+            if (newStep != step) {
+                bar.setProgress((double) newStep / BAR_STEPS);
+                step = newStep;
+            }
+            if (newVisible != visible) {
+                bar.setVisible(newVisible);
+                visible = newVisible;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.rex.worldMood;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One shared light reading per player, so the moods stop looking up the same blocks separately.
+ * <p>
+ * Infernal Heat asks whether a player's head is under open sky, Calm Skies whether their feet are,
+ * Shadow Veil whether they stand in the dark, and the {@link ParticleBudget} whether they are
+ * underground, each with its own block lookups at its own rate. Now they all ask {@link #read},
+ * which samples the player's feet and eye blocks once and hands the same immutable
+ * {@link Reading} to everyone for up to a second, or until the player moves to another block.
+ * <p>
+ * Sampling happens on demand on the calling thread, which for every caller is the thread that owns
+ * the player, so it is safe on Folia too. Players no mood is asking about are never sampled.
+ */
+public final class LightSampler {
+
+    private static final long MAX_AGE_MILLIS = 1000L;
+
+    // One reusable position per thread: on Folia, players tick on different region threads.
+    private static final ThreadLocal<Location> SCRATCH = ThreadLocal.withInitial(() -> new Location(null, 0, 0, 0));
+
+    private final Map<UUID, Reading> readings = new ConcurrentHashMap<>();
+
+    /** The light around {@code player} now: the last reading if it is still for this spot. */
+    public Reading read(Player player) {
+        Location at = player.getLocation(SCRATCH.get());
+        World world = at.getWorld();
+        int x = at.getBlockX();
+        int y = at.getBlockY();
+        int z = at.getBlockZ();
+        int eyeY = Location.locToBlock(at.getY() + player.getEyeHeight());
+        long now = System.currentTimeMillis();
+
+        Reading last = readings.get(player.getUniqueId());
+        if (last != null && last.world == world && last.x == x && last.y == y && last.z == z
+                && last.eyeY == eyeY && now - last.takenAt < MAX_AGE_MILLIS) {
+            return last;
+        }
+        Reading reading = new Reading(world, x, y, z, eyeY, now,
+                world.getBlockAt(x, eyeY, z).getLightFromSky(),
+                world.getBlockAt(x, y, z).getLightFromSky(),
+                world.getBlockAt(x, y, z).getLightLevel());
+        readings.put(player.getUniqueId(), reading);
+        return reading;
+    }
+
+    public void forget(Player player) {
+        readings.remove(player.getUniqueId());
+    }
+
+    public void clear() {
+        readings.clear();
+    }
+
+    /** Light levels (0-15) at one player's feet and eyes, at one moment. */
+    public static final class Reading {
+        private final World world;
+        private final int x;
+        private final int y;
+        private final int z;
+        private final int eyeY;
+        private final long takenAt;
+        private final int eyeSkyLight;
+        private final int feetSkyLight;
+        private final int feetLight;
+
+        private Reading(World world, int x, int y, int z, int eyeY, long takenAt,
+                        int eyeSkyLight, int feetSkyLight, int feetLight) {
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.eyeY = eyeY;
+            this.takenAt = takenAt;
+            this.eyeSkyLight = eyeSkyLight;
+            this.feetSkyLight = feetSkyLight;
+            this.feetLight = feetLight;
+        }
+
+        /** Sky light at head height; 15 means nothing at all overhead. */
+        public int getEyeSkyLight() {
+            return eyeSkyLight;
+        }
+
+        public int getFeetSkyLight() {
+            return feetSkyLight;
+        }
+
+        /** Total light (sky or block, whichever is brighter) where the player stands. */
+        public int getFeetLight() {
+            return feetLight;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.rex.worldMood;
+
+import org.bukkit.World;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockDispenseArmorEvent;
+import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.EntityPotionEffectEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.potion.PotionEffectType;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * The spawn, death and loadout listeners every mood shares, registered once for the plugin's lifetime.
+ * <p>
+ * Calm Skies, Blood Moon and Void Tension used to register themselves as listeners on
+ * {@code apply()} and unregister on {@code remove()}, and each of their spawn handlers re-checked
+ * the entity type, the world and the spawn reason. Now a mood declares up front which spawns it
+ * cares about as a {@link SpawnFilter}, and this router hands it only those. A spawn the active
+ * mood does not care about is turned away by one {@link EnumSet} bit test on its reason.
+ * <p>
+ * Infernal Heat did the same for the eight events that can change what a player wears or their
+ * potion effects; it now takes a {@link #routeLoadoutChanges loadout route} instead, and while no
+ * mood has one each of those events costs a single field read.
+ * <p>
+ * Routes are owned by the mood that added them; MoodManager drops them when the mood ends.
+ */
+public final class MoodEventRouter implements Listener {
+
+    private volatile Route<CreatureSpawnEvent> spawns;
+    private volatile Route<EntityDeathEvent> deaths;
+    private volatile LoadoutRoute loadout;
+
+    /** Sends {@code owner} every spawn that passes {@code filter}, until {@link #clear}. */
+    public void routeSpawns(Object owner, SpawnFilter filter, Consumer<CreatureSpawnEvent> handler) {
+        spawns = new Route<>(owner, filter, handler);
+    }
+
+    /** Sends {@code owner} the deaths of every entity that is a {@code category}. */
+    public void routeDeaths(Object owner, Class<? extends LivingEntity> category, Consumer<EntityDeathEvent> handler) {
+        deaths = new Route<>(owner, SpawnFilter.of(null, null, category), handler);
+    }
+
+    /**
+     * Sends {@code owner} the id of every player whose armour or inventory may have changed (a
+     * click, a drag, an interaction, a broken item, a dispensed piece of armour, a death or a
+     * respawn), and of every entity that gains or loses {@code potion} ({@code null} for none).
+     * Cancelled events are passed on too, since they are only hints to re-check.
+     */
+    public void routeLoadoutChanges(Object owner, PotionEffectType potion, Consumer<UUID> handler) {
+        loadout = new LoadoutRoute(owner, potion, handler);
+    }
+
+    /** Drops every route {@code owner} added. */
+    public void clear(Object owner) {
+        Route<CreatureSpawnEvent> spawnRoute = spawns;
+        if (spawnRoute != null && spawnRoute.owner == owner) spawns = null;
+        Route<EntityDeathEvent> deathRoute = deaths;
+        if (deathRoute != null && deathRoute.owner == owner) deaths = null;
+        LoadoutRoute loadoutRoute = loadout;
+        if (loadoutRoute != null && loadoutRoute.owner == owner) loadout = null;
+    }
+
+    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
+    public void onCreatureSpawn(CreatureSpawnEvent event) {
+        Route<CreatureSpawnEvent> route = spawns;
+        if (route == null || !route.filter.reasonMatches(event.getSpawnReason())) return;
+        if (!route.filter.entityMatches(event.getEntity())) return;
+        route.handler.accept(event);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityDeath(EntityDeathEvent event) {
+        Route<EntityDeathEvent> route = deaths;
+        if (route == null || !route.filter.entityMatches(event.getEntity())) return;
+        route.handler.accept(event);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClick(InventoryClickEvent event) {
+        loadoutChanged(event.getWhoClicked().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        loadoutChanged(event.getWhoClicked().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInteract(PlayerInteractEvent event) {
+        // right-clicking a piece of armour equips it
+        loadoutChanged(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(PlayerItemBreakEvent event) {
+        loadoutChanged(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDispenseArmor(BlockDispenseArmorEvent event) {
+        loadoutChanged(event.getTargetEntity().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerDeath(PlayerDeathEvent event) {
+        loadoutChanged(event.getEntity().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        loadoutChanged(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPotionEffect(EntityPotionEffectEvent event) {
+        LoadoutRoute route = loadout;
+        if (route == null || route.potion == null || !route.potion.equals(event.getModifiedType())) return;
+        route.handler.accept(event.getEntity().getUniqueId());
+    }
+
+    private void loadoutChanged(UUID id) {
+        LoadoutRoute route = loadout;
+        if (route != null) route.handler.accept(id);
+    }
+
+    /**
+     * Which spawns a mood wants: by reason, by world type, and by kind of entity. Players never
+     * match. Built once, in the mood's {@code apply()}.
+     */
+    public static final class SpawnFilter {
+        private final Set<CreatureSpawnEvent.SpawnReason> reasons;
+        private final Set<World.Environment> worlds;
+        private final Class<? extends LivingEntity> category;
+
+        private SpawnFilter(Set<CreatureSpawnEvent.SpawnReason> reasons, Set<World.Environment> worlds,
+                            Class<? extends LivingEntity> category) {
+            this.reasons = reasons == null ? null : EnumSet.copyOf(reasons);
+            this.worlds = worlds == null ? null : EnumSet.copyOf(worlds);
+            this.category = category;
+        }
+
+        /**
+         * Spawns for one of {@code reasons} ({@code null} for any), in one of {@code worlds}
+         * ({@code null} for any), of an entity that is a {@code category}.
+         */
+        public static SpawnFilter of(Set<CreatureSpawnEvent.SpawnReason> reasons, Set<World.Environment> worlds,
+                                     Class<? extends LivingEntity> category) {
+            return new SpawnFilter(reasons, worlds, category);
+        }
+
+        boolean reasonMatches(CreatureSpawnEvent.SpawnReason reason) {
+            return reasons == null || reasons.contains(reason);
+        }
+
+        boolean entityMatches(LivingEntity entity) {
+            if (entity instanceof Player || !category.isInstance(entity)) return false;
+            return worlds == null || worlds.contains(entity.getWorld().getEnvironment());
+        }
+    }
+
+    private static final class LoadoutRoute {
+        final Object owner;
+        final PotionEffectType potion;
+        final Consumer<UUID> handler;
+
+        LoadoutRoute(Object owner, PotionEffectType potion, Consumer<UUID> handler) {
+            this.owner = owner;
+            this.potion = potion;
+            this.handler = handler;
+        }
+    }
+
+    private static final class Route<E> {
+        final Object owner;
+        final SpawnFilter filter;
+        final Consumer<E> handler;
+
+        Route(Object owner, SpawnFilter filter, Consumer<E> handler) {
+            this.owner = owner;
+            this.filter = filter;
+            this.handler = handler;
+        }
+    }
+}
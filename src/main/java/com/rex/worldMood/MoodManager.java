@@ -6,62 +6,163 @@ import org.bukkit.ChatColor;
 import org.bukkit.NamespacedKey;
 import org.bukkit.World;
 import org.bukkit.boss.BarColor;
-import org.bukkit.boss.BarStyle;
 import org.bukkit.boss.BossBar;
-import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
-import org.bukkit.scoreboard.*;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 public class MoodManager implements Listener {
 
     private final WorldMood plugin;
+    private final List<Mood> allMoods = new ArrayList<>();
     private final Map<String, Mood> availableMoods = new HashMap<>();
     private final List<Mood> weightedMoodList = new ArrayList<>();
     private Mood currentMood = null;
-    private BukkitTask moodCycleTask = null;
-    private BukkitTask moodDurationTask = null;
-    private BukkitTask moodTickTask = null;
+    private TaskScheduler.Task moodCycleTask = null;
+    private TaskScheduler.Task moodDurationTask = null;
+    private TaskScheduler.Task moodTickTask = null;
+    private long moodTotalTicks = 0;
+    private long moodTicksRemaining = 0;
 
-    private BossBar moodBossBar = null;
+    private HudRenderer hud = null;
     private final NamespacedKey bossBarKey;
 
-    private Scoreboard temporaryHudScoreboard = null;
-    private BukkitTask hudHideTask = null;
-    private final Map<UUID, Scoreboard> playerOriginalScoreboards = new ConcurrentHashMap<>();
-    private static final String SCOREBOARD_OBJECTIVE_NAME = "wm_hud";
-    /** ChatColor.values()[0..15] are the colour codes — one unique prefix per HUD line. */
-    private static final int MAX_HUD_LINES = 15;
-    private static final int MAX_ENTRY_LENGTH = 40;
+    // Joins waiting to be brought into the active mood, oldest first. Keyed by player so a quick
+    // reconnect coalesces into one entry; the value is the join-clock tick it becomes due. Drained
+    // by one timer at a capped rate, so a reconnect storm after a proxy restart costs a flat amount
+    // per tick instead of one task per join. Global thread only.
+    private final LinkedHashMap<UUID, Long> pendingJoins = new LinkedHashMap<>();
+    private TaskScheduler.Task joinTask = null;
+    private long joinClock = 0;
+    private int joinsPerTick;
+    /** Give the client a moment to finish logging in before it gets titles and HUD packets. */
+    private static final long JOIN_SETTLE_TICKS = 10L;
+
+    private final SidebarHud sidebar;
+    private TaskScheduler.Task hudHideTask = null;
 
     public MoodManager(WorldMood plugin) {
         this.plugin = plugin;
         this.bossBarKey = new NamespacedKey(plugin, "worldmood_bossbar");
+        this.sidebar = new SidebarHud(plugin);
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
     }
 
     public void loadMoods() {
+        WorldMoodSettings settings = plugin.getSettings();
+        sidebar.reload();
+
+        allMoods.clear();
+        allMoods.add(new CalmSkies(plugin));
+        allMoods.add(new InfernalHeat(plugin));
+        allMoods.add(new BloodMoon(plugin));
+        allMoods.add(new ProsperousWinds(plugin));
+        allMoods.add(new ShadowVeil(plugin));
+        allMoods.add(new LuckyDay(plugin));
+        allMoods.add(new VoidTension(plugin));
+        registerMoods();
+
+        joinsPerTick = settings.getJoinsProcessedPerTick();
+        rebuildBossBar();
+    }
+
+    /**
+     * Brings the moods, HUD and cycle in line with a reloaded config without ending the active
+     * mood. {@code previous} is the settings from before the reload.
+     * <p>
+     * Only moods whose section changed re-read it, in place. The active mood keeps running on its
+     * new values and sets up again only what the changed keys feed, such as its layers or fog
+     * ({@link Mood#onSettingsReloaded(Set)}). Only a change to one of its
+     * {@link Mood#getApplyTimeKeys() apply-time keys}, which are world state, restarts it, with the
+     * time it had left and without any titles or greetings; it is only ended if it was disabled.
+     * The boss bar and the cycle timer are rebuilt only if their own settings changed.
+     */
+    public void applyReload(WorldMoodSettings previous) {
+        WorldMoodSettings settings = plugin.getSettings();
+        sidebar.reload();
+        joinsPerTick = settings.getJoinsProcessedPerTick();
+
+        if (!settings.isPluginEnabled()) {
+            stopMoodCycle();
+        }
+
+        Mood restart = null;
+        long restartTotal = moodTotalTicks;
+        long restartRemaining = moodTicksRemaining;
+        for (Mood mood : allMoods) {
+            Set<String> changed = settings.mood(mood.getConfigKey()).changedSince(previous.mood(mood.getConfigKey()));
+            if (changed.isEmpty()) continue;
+            if (mood != currentMood) {
+                mood.reloadSettings();
+                continue;
+            }
+            boolean structural = !Collections.disjoint(changed, mood.getApplyTimeKeys());
+            if (!settings.mood(mood.getConfigKey()).isEnabled()) {
+                stopCurrentMood(true);
+                mood.reloadSettings();
+            } else if (structural) {
+                // remove() must undo what apply() did with the old values, so stop before re-reading.
+                plugin.getLogger().info("Restarting " + mood.getName() + " to apply " + changed + ".");
+                restart = mood;
+                mood.setRestarting(true);
+                try {
+                    stopCurrentMood(false);
+                } finally {
+                    mood.setRestarting(false);
+                }
+                mood.reloadSettings();
+            } else {
+                mood.reloadSettings();
+                mood.onSettingsReloaded(changed);
+            }
+        }
+        registerMoods();
+
+        if (settings.isUseBossBar() != previous.isUseBossBar()
+                || settings.isPerPlayerBossBars() != previous.isPerPlayerBossBars()) {
+            rebuildBossBar();
+            if (currentMood != null) {
+                updateHUDStart(moodTotalTicks);
+                updateHUDProgress(moodTicksRemaining, moodTotalTicks);
+                final Mood active = currentMood;
+                plugin.getPlayerFanout().deliver(player -> {
+                    if (currentMood == active) showHUD(player);
+                });
+            }
+        }
+        if (!settings.isUseScoreboardHud()) {
+            clearScoreboardHUD();
+        }
+
+        if (restart != null && restartRemaining > 0) {
+            restart.setRestarting(true);
+            try {
+                startMood(restart, restartTotal, restartRemaining, false);
+            } finally {
+                restart.setRestarting(false);
+            }
+        }
+
+        if (settings.isPluginEnabled() && (moodCycleTask == null || weightedMoodList.isEmpty()
+                || settings.isRandomizeMoods() != previous.isRandomizeMoods()
+                || settings.getMoodFrequencyTicks() != previous.getMoodFrequencyTicks())) {
+            cancelCycle();
+            scheduleCycle();
+        }
+    }
+
+    private void registerMoods() {
         availableMoods.clear();
         weightedMoodList.clear();
-        FileConfiguration config = plugin.getConfig();
-
-        registerMood(new CalmSkies(plugin));
-        registerMood(new InfernalHeat(plugin));
-        registerMood(new BloodMoon(plugin));
-        registerMood(new ProsperousWinds(plugin));
-        registerMood(new ShadowVeil(plugin));
-        registerMood(new LuckyDay(plugin));
-        registerMood(new VoidTension(plugin));
+        for (Mood mood : allMoods) {
+            registerMood(mood);
+        }
 
         availableMoods.values().stream()
                 .filter(Mood::isEnabled)
@@ -72,18 +173,23 @@ public class MoodManager implements Listener {
                 });
 
         plugin.getLogger().info("Loaded " + availableMoods.size() + " enabled moods.");
+    }
 
+    private void rebuildBossBar() {
+        if (hud != null) {
+            hud.dispose();
+        }
         BossBar existing = Bukkit.getBossBar(bossBarKey);
         if (existing != null) {
             existing.removeAll();
             Bukkit.removeBossBar(bossBarKey);
         }
 
-        if (config.getBoolean("useBossBar", true)) {
-            moodBossBar = Bukkit.createBossBar(bossBarKey, "No Active Mood", BarColor.BLUE, BarStyle.SOLID);
-            moodBossBar.setVisible(false);
+        WorldMoodSettings settings = plugin.getSettings();
+        if (settings.isUseBossBar()) {
+            hud = new HudRenderer(bossBarKey, settings.isPerPlayerBossBars());
         } else {
-            moodBossBar = null;
+            hud = null;
         }
     }
 
@@ -95,33 +201,35 @@ public class MoodManager implements Listener {
 
     public void startMoodCycle() {
         stopMoodCycle();
+        scheduleCycle();
+    }
 
-        if (!plugin.getConfig().getBoolean("randomizeMoods", true) || weightedMoodList.isEmpty()) {
+    private void scheduleCycle() {
+        if (!plugin.getSettings().isRandomizeMoods() || weightedMoodList.isEmpty()) {
             return;
         }
 
-        long frequencyTicks = plugin.getConfig().getLong("moodFrequencyMinutes", 30) * 60 * 20;
+        long frequencyTicks = plugin.getSettings().getMoodFrequencyTicks();
         if (frequencyTicks <= 0) {
             plugin.getLogger().warning("Mood frequency is set to 0 or less, disabling random cycle.");
             return;
         }
 
-        moodCycleTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                startRandomMood();
-            }
-        }.runTaskTimer(plugin, 100L, frequencyTicks);
+        moodCycleTask = plugin.getScheduler().runGlobalTimer(task -> startRandomMood(), 100L, frequencyTicks);
 
         plugin.getLogger().info("Started random mood cycle.");
     }
 
     public void stopMoodCycle() {
+        cancelCycle();
+        stopCurrentMood();
+    }
+
+    private void cancelCycle() {
         if (moodCycleTask != null && !moodCycleTask.isCancelled()) {
             moodCycleTask.cancel();
         }
         moodCycleTask = null;
-        stopCurrentMood();
     }
 
     public boolean startRandomMood() {
@@ -188,6 +296,15 @@ public class MoodManager implements Listener {
     }
 
     private boolean startMood(Mood mood) {
+        long durationTicks = calculateDuration(mood);
+        return startMood(mood, durationTicks, durationTicks, true);
+    }
+
+    /**
+     * Starts {@code mood} with {@code remainingTicks} of {@code totalTicks} left. {@code announce}
+     * is false when a reload restarts the mood, which skips the chat line and the sidebar.
+     */
+    private boolean startMood(Mood mood, long totalTicks, long remainingTicks, boolean announce) {
         if (currentMood != null) {
             plugin.getLogger().severe("INTERNAL ERROR: Attempted to start mood " + mood.getName() + " while " + currentMood.getName() + " is active.");
             return false;
@@ -209,6 +326,10 @@ public class MoodManager implements Listener {
             applyError.printStackTrace();
             try {
                 currentMood.remove();
+                plugin.getAtmosphereRenderer().clear(currentMood);
+                plugin.getEventRouter().clear(currentMood);
+                plugin.getPlayerGrid().clear();
+                plugin.getSpawnQueue().clear(currentMood);
             } catch (Throwable cleanupError) {
                 plugin.getLogger().severe("Cleanup after the failed mood ALSO failed. World settings "
                         + "may be left changed; they will be restored on the next startup: " + cleanupError);
@@ -217,63 +338,60 @@ public class MoodManager implements Listener {
             return false;
         }
 
-        if (plugin.getConfig().getBoolean("broadcastMoodChanges", true)) {
-            Bukkit.broadcastMessage(ChatColor.DARK_AQUA + "[WorldMood] " + ChatColor.AQUA + "The atmosphere shifts... " + ChatColor.BOLD + currentMood.getName() + ChatColor.RESET + ChatColor.AQUA + " has begun!");
-            Bukkit.broadcastMessage(ChatColor.GRAY + " > " + ChatColor.ITALIC + currentMood.getDescription());
+        if (announce && plugin.getSettings().isBroadcastMoodChanges()) {
+            announce(ChatColor.DARK_AQUA + "[WorldMood] " + ChatColor.AQUA + "The atmosphere shifts... " + ChatColor.BOLD + currentMood.getName() + ChatColor.RESET + ChatColor.AQUA + " has begun!",
+                    ChatColor.GRAY + " > " + ChatColor.ITALIC + currentMood.getDescription());
         }
 
-        updateHUDStart();
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            showHUD(player);
-            currentMood.onPlayerJoin(player);
-        }
+        moodTotalTicks = totalTicks;
+        moodTicksRemaining = remainingTicks;
 
-        long durationTicks = calculateDuration(mood);
-        final long finalDurationTicks = durationTicks;
+        updateHUDStart(moodTotalTicks);
+        final Mood started = currentMood;
+        plugin.getPlayerFanout().deliver(player -> {
+            // Skipped if the mood already ended before this player's turn came up.
+            if (currentMood != started) return;
+            showHUD(player);
+            // The greeting is for a mood that just began, not one restarted for a reload.
+            if (announce) started.onPlayerJoin(player);
+        });
 
-        if (plugin.getConfig().getBoolean("useScoreboardHud", true)) {
+        if (announce && plugin.getSettings().isUseScoreboardHud()) {
             createAndShowScoreboardHUD();
-            long hideDelayTicks = plugin.getConfig().getLong("hudDisplaySeconds", 15) * 20L;
+            long hideDelayTicks = plugin.getSettings().getHudDisplayTicks();
             if (hideDelayTicks > 0) {
                 if (hudHideTask != null) hudHideTask.cancel();
-                hudHideTask = new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        clearScoreboardHUD();
-                        hudHideTask = null;
-                    }
-                }.runTaskLater(plugin, hideDelayTicks);
+                hudHideTask = plugin.getScheduler().runGlobalLater(() -> {
+                    clearScoreboardHUD();
+                    hudHideTask = null;
+                }, hideDelayTicks);
             } else {
                 clearScoreboardHUD();
             }
         }
 
-        moodDurationTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                stopCurrentMood();
+        moodDurationTask = plugin.getScheduler().runGlobalLater(this::stopCurrentMood, moodTicksRemaining);
+
+        moodTickTask = plugin.getScheduler().runGlobalTimer(task -> {
+            if (currentMood == null) {
+                task.cancel();
+                return;
             }
-        }.runTaskLater(plugin, finalDurationTicks);
-
-        moodTickTask = new BukkitRunnable() {
-            long ticksRemaining = finalDurationTicks;
-            @Override
-            public void run() {
-                if (currentMood == null) {
-                    this.cancel();
-                    return;
-                }
-                ticksRemaining -= 20;
-                if (ticksRemaining < 0) ticksRemaining = 0;
+            moodTicksRemaining -= 20;
+            if (moodTicksRemaining < 0) moodTicksRemaining = 0;
 
-                currentMood.handleTick(ticksRemaining);
-                updateHUDProgress(ticksRemaining, finalDurationTicks);
+            // Each player publishes their own position, from the thread that owns them.
+            PlayerGrid grid = plugin.getPlayerGrid();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                plugin.getScheduler().runFor(player, () -> grid.publish(player));
+            }
+            currentMood.handleTick(moodTicksRemaining);
+            updateHUDProgress(moodTicksRemaining, moodTotalTicks);
 
-                if (ticksRemaining <= 0) {
-                    this.cancel();
-                }
+            if (moodTicksRemaining <= 0) {
+                task.cancel();
             }
-        }.runTaskTimer(plugin, 0L, 20L);
+        }, 0L, 20L);
 
         return true;
     }
@@ -300,12 +418,15 @@ public class MoodManager implements Listener {
         moodTickTask = null;
 
         currentMood.remove();
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            currentMood.onPlayerQuit(player);
-        }
+        plugin.getAtmosphereRenderer().clear(currentMood);
+        plugin.getEventRouter().clear(currentMood);
+        plugin.getPlayerGrid().clear();
+        plugin.getSpawnQueue().clear(currentMood);
+        final Mood stopped = currentMood;
+        plugin.getPlayerFanout().deliver(stopped::onPlayerQuit);
 
-        if (broadcast && plugin.getConfig().getBoolean("broadcastMoodChanges", true)) {
-            Bukkit.broadcastMessage(ChatColor.DARK_AQUA + "[WorldMood] " + ChatColor.GRAY + "The " + ChatColor.BOLD + currentMood.getName() + ChatColor.RESET + ChatColor.GRAY + " mood fades away.");
+        if (broadcast && plugin.getSettings().isBroadcastMoodChanges()) {
+            announce(ChatColor.DARK_AQUA + "[WorldMood] " + ChatColor.GRAY + "The " + ChatColor.BOLD + currentMood.getName() + ChatColor.RESET + ChatColor.GRAY + " mood fades away.");
         }
 
         currentMood = null;
@@ -356,8 +477,8 @@ public class MoodManager implements Listener {
         return durationTicks;
     }
 
-    private void updateHUDStart() {
-        if (moodBossBar == null || currentMood == null) return;
+    private void updateHUDStart(long totalDurationTicks) {
+        if (hud == null || currentMood == null) return;
 
         BarColor color = BarColor.BLUE;
         if (currentMood instanceof InfernalHeat || currentMood instanceof BloodMoon) color = BarColor.RED;
@@ -365,62 +486,35 @@ public class MoodManager implements Listener {
         else if (currentMood instanceof LuckyDay) color = BarColor.YELLOW;
         else if (currentMood instanceof ShadowVeil || currentMood instanceof VoidTension) color = BarColor.PURPLE;
 
-        moodBossBar.setColor(color);
-        moodBossBar.setTitle(ChatColor.BOLD + currentMood.getName());
-        moodBossBar.setProgress(1.0);
-        moodBossBar.setVisible(true);
-
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (!moodBossBar.getPlayers().contains(player)) {
-                moodBossBar.addPlayer(player);
-            }
-        }
+        hud.start(currentMood.getName(), color, totalDurationTicks);
+        // Players are added to the bar one by one through the fan-out (see showHUD in startMood).
     }
 
     private void updateHUDProgress(long ticksRemaining, long totalDurationTicks) {
-        if (moodBossBar == null || currentMood == null || !moodBossBar.isVisible()) return;
-
-        double progress = (totalDurationTicks <= 0) ? 0 : (double) ticksRemaining / totalDurationTicks;
-        progress = Math.max(0, Math.min(1, progress));
-        moodBossBar.setProgress(progress);
-
-        long secondsRemaining = ticksRemaining / 20;
-        moodBossBar.setTitle(ChatColor.BOLD + currentMood.getName() + ChatColor.RESET + " - " + formatTime(secondsRemaining));
+        if (hud == null || currentMood == null) return;
+        hud.progress(ticksRemaining, totalDurationTicks);
     }
 
     private void clearHUD() {
-        if (moodBossBar != null) {
-            moodBossBar.setVisible(false);
-            moodBossBar.setProgress(1.0);
-            moodBossBar.setTitle("No Active Mood");
-            moodBossBar.setColor(BarColor.BLUE);
+        if (hud != null) {
+            hud.clear();
         }
     }
 
     private void showHUD(Player player) {
-        if (moodBossBar != null && currentMood != null && moodBossBar.isVisible()) {
-            if (!moodBossBar.getPlayers().contains(player)) {
-                moodBossBar.addPlayer(player);
-            }
+        if (hud != null && currentMood != null) {
+            hud.show(player);
         }
     }
 
     private void createAndShowScoreboardHUD() {
-        if (currentMood == null || !plugin.getConfig().getBoolean("useScoreboardHud", true)) return;
+        if (currentMood == null || !plugin.getSettings().isUseScoreboardHud()) return;
+        // Region-threaded servers do not implement the scoreboard API at all; the boss bar and chat
+        // announcement still carry the mood there.
+        if (plugin.getScheduler().isRegionized()) return;
 
         clearScoreboardHUD();
 
-        ScoreboardManager manager = Bukkit.getScoreboardManager();
-        if (manager == null) {
-            plugin.getLogger().severe("ScoreboardManager is null! Cannot create HUD.");
-            return;
-        }
-        temporaryHudScoreboard = manager.getNewScoreboard();
-        // Via Compat: the Criteria overload is 1.20.1+, so naming it here would break the 1.16.5 build.
-        Objective objective = Compat.registerObjective(temporaryHudScoreboard, SCOREBOARD_OBJECTIVE_NAME,
-                ChatColor.AQUA + "" + ChatColor.BOLD + "World Mood");
-        objective.setDisplaySlot(DisplaySlot.SIDEBAR);
-
         List<String> lines = new ArrayList<>();
         lines.add(ChatColor.YELLOW + "" + ChatColor.BOLD + currentMood.getName());
         lines.add(" ");
@@ -436,86 +530,96 @@ public class MoodManager implements Listener {
             effects.forEach(effect -> lines.add(ChatColor.WHITE + "- " + (effect.length() > 35 ? effect.substring(0, 32) + "..." : effect)));
         }
 
-        // Each entry gets a unique colour-code prefix derived from its INDEX, not its hash.
-        // Index-derived prefixes are unique by construction, so no retry loop is needed.
-        // (The previous hash-based version could spin forever: prepending a 2-char code and then
-        // trimming back to 40 chars removed exactly the characters it had just added.)
-        int scoreValue = lines.size();
-        for (int index = 0; index < lines.size(); index++) {
-            if (index >= MAX_HUD_LINES) {
-                plugin.getLogger().warning("Scoreboard HUD had more lines than can be displayed ("
-                        + lines.size() + "); showing the first " + MAX_HUD_LINES + ".");
-                break;
-            }
-            String prefix = ChatColor.values()[index].toString() + ChatColor.RESET;
-            String entry = prefix + trimToLength(lines.get(index), MAX_ENTRY_LENGTH - prefix.length());
-
-            objective.getScore(entry).setScore(scoreValue - index);
-        }
-
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (!playerOriginalScoreboards.containsKey(player.getUniqueId())) {
-                playerOriginalScoreboards.put(player.getUniqueId(), player.getScoreboard());
-            }
-            player.setScoreboard(temporaryHudScoreboard);
-        }
+        // The board is pooled: only lines that differ from the last mood's are sent.
+        sidebar.setLines(ChatColor.AQUA + "" + ChatColor.BOLD + "World Mood", lines);
+        plugin.getPlayerFanout().deliver(sidebar::show);
     }
 
     private void clearScoreboardHUD() {
-        Iterator<Map.Entry<UUID, Scoreboard>> iterator = playerOriginalScoreboards.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<UUID, Scoreboard> entry = iterator.next();
-            Player player = Bukkit.getPlayer(entry.getKey());
-            if (player != null && player.isOnline()) {
-                if (temporaryHudScoreboard == null || player.getScoreboard().equals(temporaryHudScoreboard)) {
-                    player.setScoreboard(entry.getValue());
-                }
+        if (!sidebar.isActive()) return;
+        // Hides go through the fan-out too, so for each player they stay ordered with a show
+        // that may still be queued for them.
+        final int asOf = sidebar.deactivate();
+        for (UUID id : sidebar.getViewers()) {
+            Player player = Bukkit.getPlayer(id);
+            if (player == null) {
+                continue;
             }
-            iterator.remove();
-        }
-
-        if (temporaryHudScoreboard != null) {
-            Objective objective = temporaryHudScoreboard.getObjective(SCOREBOARD_OBJECTIVE_NAME);
-            if (objective != null) {
-                objective.unregister();
-            }
-            temporaryHudScoreboard = null;
+            plugin.getPlayerFanout().deliver(player, p -> sidebar.hide(p, asOf));
         }
     }
 
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
-        Player player = event.getPlayer();
-        if (currentMood != null) {
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (player.isOnline()) {
-                        if (plugin.getConfig().getBoolean("useBossBar", true)) showHUD(player);
-                        currentMood.onPlayerJoin(player);
-                        if (temporaryHudScoreboard != null && hudHideTask != null && !hudHideTask.isCancelled()) {
-                            if (!playerOriginalScoreboards.containsKey(player.getUniqueId())) {
-                                playerOriginalScoreboards.put(player.getUniqueId(), player.getScoreboard());
-                            }
-                            player.setScoreboard(temporaryHudScoreboard);
-                        }
-                    }
-                }
-            }.runTaskLater(plugin, 10L);
+        // Fired on the player's own thread, so they can publish their position here rather than
+        // wait up to a second for the next mood tick's pass.
+        plugin.getPlayerGrid().publish(event.getPlayer());
+        UUID id = event.getPlayer().getUniqueId();
+        // On Folia the event fires on the player's region thread; the queue belongs to the global one.
+        plugin.getScheduler().runGlobal(() -> queueJoin(id));
+    }
+
+    private void queueJoin(UUID id) {
+        if (currentMood == null) return;
+        // Re-inserting moves a reconnecting player to the back with a fresh settle delay.
+        pendingJoins.remove(id);
+        pendingJoins.put(id, joinClock + JOIN_SETTLE_TICKS);
+        if (joinTask == null) {
+            joinTask = plugin.getScheduler().runGlobalTimer(task -> processJoins(), 1L, 1L);
         }
     }
 
+    private void processJoins() {
+        joinClock++;
+        Mood active = currentMood;
+        if (active == null) {
+            pendingJoins.clear(); // stopping the mood already covered everyone who is online
+        }
+        int budget = joinsPerTick;
+        Iterator<Map.Entry<UUID, Long>> it = pendingJoins.entrySet().iterator();
+        while (budget > 0 && it.hasNext()) {
+            Map.Entry<UUID, Long> pending = it.next();
+            if (pending.getValue() > joinClock) break; // oldest first, so nobody behind is due either
+            it.remove();
+            Player player = Bukkit.getPlayer(pending.getKey());
+            if (player == null) continue;
+            budget--;
+            welcome(player, active);
+        }
+        if (pendingJoins.isEmpty()) {
+            joinTask.cancel();
+            joinTask = null;
+        }
+    }
+
+    /** Brings a player who joined mid-mood up to date: boss bar, the mood's own greeting, sidebar. */
+    private void welcome(Player player, Mood active) {
+        plugin.getScheduler().runFor(player, () -> {
+            if (!player.isOnline() || currentMood != active) return;
+            showHUD(player);
+            active.onPlayerJoin(player);
+            sidebar.show(player); // no-op once the sidebar has been hidden again
+        });
+    }
+
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
+        plugin.getPlayerFanout().forget(player);
+        plugin.getParticleBudget().forget(player);
+        plugin.getLightSampler().forget(player);
+        plugin.getSpawnQueue().forget(player);
+        plugin.getPlayerGrid().forget(player);
+        UUID id = player.getUniqueId();
+        plugin.getScheduler().runGlobal(() -> pendingJoins.remove(id));
+        if (hud != null) {
+            hud.remove(player);
+        }
         if (currentMood != null) {
             currentMood.onPlayerQuit(player);
         }
-        ScoreboardManager sm = Bukkit.getScoreboardManager();
-        Scoreboard originalBoard = playerOriginalScoreboards.remove(player.getUniqueId());
-        if (sm != null && player.getScoreboard().equals(temporaryHudScoreboard)) {
-            player.setScoreboard(originalBoard != null ? originalBoard : sm.getMainScoreboard());
-        }
+        if (plugin.getScheduler().isRegionized()) return;
+        sidebar.forget(player);
     }
 
     public Mood getCurrentMood() {
@@ -530,19 +634,19 @@ public class MoodManager implements Listener {
         return availableMoods.values().stream().filter(Mood::isEnabled).collect(Collectors.toList());
     }
 
-    /** Trims to {@code max} chars without leaving a dangling section sign that would corrupt the line. */
-    private String trimToLength(String text, int max) {
-        if (text == null) return "";
-        if (text.length() <= max) return text;
-        String trimmed = text.substring(0, max);
-        if (trimmed.endsWith("§")) trimmed = trimmed.substring(0, trimmed.length() - 1);
-        return trimmed;
+    /**
+     * Chat announcement to everyone. Replaces Bukkit.broadcastMessage so each player's copy joins
+     * their fan-out queue and arrives in order with the rest of the mood's start or end.
+     */
+    private void announce(String... lines) {
+        for (String line : lines) {
+            Bukkit.getConsoleSender().sendMessage(line);
+        }
+        plugin.getPlayerFanout().deliver(player -> {
+            for (String line : lines) {
+                player.sendMessage(line);
+            }
+        });
     }
 
-    private String formatTime(long totalSeconds) {
-        if (totalSeconds < 0) totalSeconds = 0;
-        long minutes = totalSeconds / 60;
-        long seconds = totalSeconds % 60;
-        return String.format("%02d:%02d", minutes, seconds);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,248 @@
+package com.rex.worldMood;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many ambient particles {@link Atmosphere} sends, server-wide and per player.
+ * <p>
+ * The haze moods ask for a lot: Blood Moon's two dust layers are 48 particles per player per
+ * second, and Void Tension's mist alone is 78 every 4 ticks. Every request passes through
+ * {@link #grant} first, which scales it down by
+ * <ul>
+ *   <li>how many players are online (past {@code fullDetailPlayers}, everyone gets a smaller share),</li>
+ *   <li>how the server is keeping up (tick times past {@code msptSoftLimit} fade effects out
+ *       toward {@code minimumScale} at {@code msptHardLimit}),</li>
+ *   <li>level of detail for the player: underground, riding something, or moving fast, most of
+ *       a haze is either hidden or streaks past unseen; and idle players (see
+ *       {@link ActivityTracker}) are probably not looking,</li>
+ *   <li>what the player asked for with {@code /worldmood effects} (see {@link EffectsProfile}),
+ *       which holds even with budgeting switched off,</li>
+ * </ul>
+ * and then clips it to what is left of this tick's global and per-player allowance. Fractional
+ * counts are rounded randomly, so a scaled-down haze thins out evenly instead of vanishing.
+ * <p>
+ * Safe from any thread: on Folia each player's effects run on their own region thread. The settings
+ * are one immutable {@link WorldMoodSettings.ParticleBudgetSettings}, swapped whole on reload, and
+ * each call reads them once, so it never mixes old and new values.
+ */
+public final class ParticleBudget {
+
+    // Paper exposes a rolling average tick time; elsewhere it is estimated from the tick clock.
+    private static final Method AVERAGE_TICK_TIME = findAverageTickTime();
+
+    private final WorldMood plugin;
+
+    private volatile WorldMoodSettings.ParticleBudgetSettings settings;
+
+    private TaskScheduler.Task clockTask;
+    private volatile long tick;
+    private long lastTickNanos;
+    private volatile double mspt = 50.0;
+    private volatile double serverScale = 1.0;
+    private final AtomicInteger spentThisTick = new AtomicInteger();
+    private final Map<UUID, PlayerShare> shares = new ConcurrentHashMap<>();
+
+    private final LongAdder requested = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+
+    public ParticleBudget(WorldMood plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+
+    /** Takes the {@code particleBudget} settings from the current snapshot and starts or stops the tick clock to match. */
+    public void reload() {
+        settings = plugin.getSettings().getParticleBudget();
+        boolean enabled = settings.isEnabled();
+        if (enabled && clockTask == null) {
+            lastTickNanos = System.nanoTime();
+            clockTask = plugin.getScheduler().runGlobalTimer(task -> onTick(), 1L, 1L);
+        } else if (!enabled && clockTask != null) {
+            clockTask.cancel();
+            clockTask = null;
+        }
+    }
+
+    /**
+     * How many of {@code count} particles may actually be sent to {@code player} right now.
+     * Every call is counted towards the requested/sent metrics, whether or not budgeting is on.
+     */
+    public int grant(Player player, int count) {
+        if (count <= 0) return 0;
+        requested.add(count);
+        WorldMoodSettings.ParticleBudgetSettings settings = this.settings;
+        double personal = plugin.getEffectsProfile().detailScale(player);
+        if (!settings.isEnabled()) {
+            int granted = personal >= 1.0 ? count : roundRandomly(count * personal);
+            sent.add(granted);
+            return granted;
+        }
+        if (personal <= 0.0) return 0;
+
+        PlayerShare share = shares.computeIfAbsent(player.getUniqueId(), id -> new PlayerShare());
+        int wanted = roundRandomly(count * personal * serverScale * share.detail(player, tick, plugin, settings));
+        if (wanted <= 0) return 0;
+
+        int maxPerTick = settings.getMaxPerTick();
+        wanted = Math.min(wanted, settings.getMaxPerPlayerPerTick() - share.spent);
+        if (wanted <= 0) return 0;
+        int before = spentThisTick.getAndAdd(wanted);
+        if (before >= maxPerTick) {
+            spentThisTick.addAndGet(-wanted);
+            return 0;
+        }
+        if (before + wanted > maxPerTick) {
+            int over = before + wanted - maxPerTick;
+            spentThisTick.addAndGet(-over);
+            wanted -= over;
+        }
+        share.spent += wanted;
+        sent.add(wanted);
+        return wanted;
+    }
+
+    /** Drops the per-player state of someone who left. */
+    public void forget(Player player) {
+        shares.remove(player.getUniqueId());
+    }
+
+    public void stop() {
+        if (clockTask != null) {
+            clockTask.cancel();
+            clockTask = null;
+        }
+        shares.clear();
+    }
+
+    public long getRequested() {
+        return requested.sum();
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    /** Current load-based multiplier, 0..1, before any per-player level of detail. */
+    public double getServerScale() {
+        return serverScale;
+    }
+
+    /** Milliseconds per tick as last measured. */
+    public double getMspt() {
+        return mspt;
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    public void resetMetrics() {
+        requested.reset();
+        sent.reset();
+    }
+
+    private void onTick() {
+        long now = System.nanoTime();
+        double interval = (now - lastTickNanos) / 1_000_000.0;
+        lastTickNanos = now;
+
+        double measured = paperAverageTickTime();
+        if (measured < 0) {
+            // The gap between ticks is at least 50 ms on a healthy server and grows once it lags;
+            // smoothed over about a second.
+            measured = mspt + (interval - mspt) * 0.05;
+        }
+        mspt = measured;
+
+        WorldMoodSettings.ParticleBudgetSettings settings = this.settings;
+        double softLimit = settings.getMsptSoftLimit();
+        double minimumScale = settings.getMinimumScale();
+        double loadScale = 1.0;
+        if (measured > softLimit) {
+            double over = (measured - softLimit) / (settings.getMsptHardLimit() - softLimit);
+            loadScale = Math.max(minimumScale, 1.0 - over * (1.0 - minimumScale));
+        }
+        int online = Bukkit.getOnlinePlayers().size();
+        int fullDetailPlayers = settings.getFullDetailPlayers();
+        double crowdScale = online <= fullDetailPlayers ? 1.0 : (double) fullDetailPlayers / online;
+        serverScale = Math.max(minimumScale, loadScale * crowdScale);
+
+        spentThisTick.set(0);
+        tick++;
+    }
+
+    private static double paperAverageTickTime() {
+        if (AVERAGE_TICK_TIME == null) return -1;
+        try {
+            return ((Number) AVERAGE_TICK_TIME.invoke(Bukkit.getServer())).doubleValue();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static Method findAverageTickTime() {
+        try {
+            return Bukkit.getServer().getClass().getMethod("getAverageTickTime");
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static int roundRandomly(double scaled) {
+        int whole = (int) scaled;
+        return ThreadLocalRandom.current().nextDouble() < scaled - whole ? whole + 1 : whole;
+    }
+
+    /**
+     * One player's spend this tick and their level-of-detail factor. The factor is worked out at
+     * most once a second; it reads the light level, and that rarely changes faster.
+     */
+    private static final class PlayerShare {
+        long tick = -1;
+        int spent;
+        long detailTick = Long.MIN_VALUE;
+        double detail = 1.0;
+        Location lastSeen;
+
+        double detail(Player player, long now, WorldMood plugin, WorldMoodSettings.ParticleBudgetSettings settings) {
+            if (now != tick) {
+                tick = now;
+                spent = 0;
+            }
+            if (now - detailTick < 20) return detail;
+
+            Location here = player.getLocation();
+            double factor = 1.0;
+            if (plugin.getLightSampler().read(player).getEyeSkyLight() == 0) {
+                factor = Math.min(factor, settings.getCaveScale());
+            }
+            if (player.isInsideVehicle()) {
+                factor = Math.min(factor, settings.getVehicleScale());
+            }
+            boolean fast = player.isGliding();
+            if (!fast && lastSeen != null && lastSeen.getWorld() == here.getWorld() && detailTick != Long.MIN_VALUE) {
+                // Sprinting is ~0.28 blocks/tick; anything well past that is flying or riding.
+                double perTick = lastSeen.distance(here) / Math.max(1, now - detailTick);
+                fast = perTick > 0.6;
+            }
+            if (fast) {
+                factor = Math.min(factor, settings.getFastMovingScale());
+            }
+            factor *= plugin.getActivityTracker().detailScale(player);
+            lastSeen = here;
+            detailTick = now;
+            detail = factor;
+            return factor;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.rex.worldMood;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Rolls per-player deliveries out over a few ticks instead of all in one.
+ * <p>
+ * Starting or ending a mood touches every online player: titles, several sounds, potion effects,
+ * the boss bar, the sidebar and the chat announcement. Done in one loop that is thousands of packets
+ * and Bukkit calls in a single tick on a busy server. Here each delivery goes onto a per-player FIFO
+ * instead, and every tick a share of the waiting players is drained, sized so the whole burst
+ * clears within {@code announceSpreadTicks}.
+ * <p>
+ * A player's queue is always drained whole and in order, so whatever order deliveries were made in
+ * is the order that player sees them — a mood's start always lands before its end, even when a
+ * {@code /wm skip} arrives mid-rollout. Only the order <i>between</i> players is given up.
+ * <p>
+ * Global-thread only, like the rest of the mood lifecycle; each player's share is then run on
+ * that player's own thread via {@link TaskScheduler#runFor}.
+ */
+public final class PlayerFanout {
+
+    private final WorldMood plugin;
+    // Players with something waiting, oldest first. A player drained and then given new work goes
+    // to the back, behind everyone who was already waiting.
+    private final Map<UUID, Pending> pending = new LinkedHashMap<>();
+    private int spreadTicks;
+    private int perTick;   // players drained per tick; sized by the largest backlog of this burst
+    private TaskScheduler.Task drainTask;
+
+    public PlayerFanout(WorldMood plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+
+    /** Re-reads {@code announceSpreadTicks}. Work already queued keeps draining at the new pace. */
+    public void reload() {
+        spreadTicks = plugin.getSettings().getAnnounceSpreadTicks();
+    }
+
+    /** Queues {@code action} for every player online right now. */
+    public void deliver(Consumer<Player> action) {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            deliver(player, action);
+        }
+    }
+
+    /** Queues {@code action} for one player, behind anything already waiting for them. */
+    public void deliver(Player player, Consumer<Player> action) {
+        Pending queue = pending.get(player.getUniqueId());
+        if (queue == null) {
+            if (spreadTicks <= 1) {
+                // Spreading is off and nothing is waiting for this player: deliver as we always did.
+                List<Consumer<Player>> single = new ArrayList<>(1);
+                single.add(action);
+                run(player, single);
+                return;
+            }
+            queue = new Pending(player);
+            pending.put(player.getUniqueId(), queue);
+        }
+        queue.actions.add(action);
+
+        int share = (pending.size() + spreadTicks - 1) / spreadTicks;
+        if (share > perTick) perTick = share;
+        if (drainTask == null) {
+            drainTask = plugin.getScheduler().runGlobalTimer(task -> drain(), 1L, 1L);
+        }
+    }
+
+    /** Drops whatever is still waiting for a player who has left. Safe from any thread. */
+    public void forget(Player player) {
+        UUID id = player.getUniqueId();
+        plugin.getScheduler().runGlobal(() -> pending.remove(id));
+    }
+
+    /**
+     * Delivers everything still queued, now. Called on disable so a mood ended by the shutdown
+     * still cleans up after itself. Region threads take no new plugin work at that point, so on
+     * Folia the backlog is dropped instead; everything in it is cosmetic or expires on its own.
+     */
+    public void flush() {
+        List<Pending> queued = new ArrayList<>(pending.values());
+        pending.clear();
+        stopDraining();
+        if (!plugin.getScheduler().isRegionized()) {
+            for (Pending queue : queued) {
+                run(queue.player, queue.actions);
+            }
+        }
+    }
+
+    private void drain() {
+        // Taken off the map before any of them runs: on Spigot a delivery runs inline, and one that
+        // queues for or forgets another player would otherwise change the map mid-iteration.
+        List<Pending> due = new ArrayList<>(Math.min(perTick, pending.size()));
+        Iterator<Pending> it = pending.values().iterator();
+        for (int n = 0; n < perTick && it.hasNext(); n++) {
+            due.add(it.next());
+            it.remove();
+        }
+        for (Pending queue : due) {
+            run(queue.player, queue.actions);
+        }
+        if (pending.isEmpty()) {
+            stopDraining();
+        }
+    }
+
+    private void stopDraining() {
+        perTick = 0;
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+    }
+
+    private void run(Player player, List<Consumer<Player>> actions) {
+        plugin.getScheduler().runFor(player, () -> {
+            if (!player.isOnline()) return;
+            for (Consumer<Player> action : actions) {
+                // One broken delivery must not swallow the ones queued behind it.
+                try {
+                    action.accept(player);
+                } catch (RuntimeException e) {
+                    plugin.getLogger().warning("[Fanout] Delivery to " + player.getName() + " failed: " + e);
+                }
+            }
+        });
+    }
+
+    private static final class Pending {
+        final Player player;
+        final List<Consumer<Player>> actions = new ArrayList<>();
+
+        Pending(Player player) {
+            this.player = player;
+        }
+    }
+}
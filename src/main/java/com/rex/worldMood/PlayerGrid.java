@@ -0,0 +1,151 @@
+package com.rex.worldMood;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Where every online player last said they were, bucketed by world and chunk.
+ * <p>
+ * Void Tension's anomalies each looked for players around a point by walking the whole world's
+ * player list with a distance check, and picked their target by streaming every online player
+ * into a fresh list. Now every radius query in the moods reads only the chunk buckets the radius
+ * covers.
+ * <p>
+ * A player's position is only ever read by the thread that owns them: each player
+ * {@link #publish publishes} their own chunk, from MoodManager's per-player pass once per mood
+ * tick (once a second) and straight away when they join, so nobody is missing from the grid until
+ * the next pass. The buckets are concurrent and can be read from any thread; on Folia the
+ * anomalies run on their target's region thread. Positions in them may be up to a second old, so
+ * {@link #nearby} searches one chunk further out than asked and then checks each candidate's live
+ * position, which is close to the caller and so normally on the caller's own region.
+ */
+public final class PlayerGrid {
+
+    // World id -> chunk key -> the players last published in that chunk. Empty buckets are dropped.
+    private final Map<UUID, Map<Long, Set<Player>>> worlds = new ConcurrentHashMap<>();
+    // Player id -> the bucket they are in, so a move takes them out of the old one.
+    private final Map<UUID, Cell> cells = new ConcurrentHashMap<>();
+    private final Map<UUID, Player> players = new ConcurrentHashMap<>();
+    private final Collection<Player> playersView = Collections.unmodifiableCollection(players.values());
+
+    // One reusable position per thread, as in LightSampler.
+    private static final ThreadLocal<Location> SCRATCH = ThreadLocal.withInitial(() -> new Location(null, 0, 0, 0));
+
+    /**
+     * Moves {@code player} into the bucket for where they stand now. Call from the thread that owns
+     * the player; a player who has not changed chunk since their last publish costs one lookup.
+     */
+    public void publish(Player player) {
+        Location at = SCRATCH.get();
+        player.getLocation(at);
+        World world = at.getWorld();
+        if (world == null) return;
+        UUID worldId = world.getUID();
+        long chunk = chunkKey(at.getBlockX() >> 4, at.getBlockZ() >> 4);
+
+        UUID id = player.getUniqueId();
+        players.put(id, player);
+        Cell previous = cells.get(id);
+        if (previous != null && previous.chunk == chunk && previous.world.equals(worldId)) return;
+        // Into the new bucket before out of the old, so a concurrent query never misses them.
+        worlds.computeIfAbsent(worldId, k -> new ConcurrentHashMap<>())
+                .compute(chunk, (k, bucket) -> {
+                    if (bucket == null) bucket = ConcurrentHashMap.newKeySet();
+                    bucket.add(player);
+                    return bucket;
+                });
+        cells.put(id, new Cell(worldId, chunk));
+        if (previous != null) leave(player, previous);
+    }
+
+    /** Takes {@code player} out of the grid; called when they quit. */
+    public void forget(Player player) {
+        UUID id = player.getUniqueId();
+        players.remove(id);
+        Cell cell = cells.remove(id);
+        if (cell != null) leave(player, cell);
+    }
+
+    /**
+     * Forgets everyone; called when a mood ends so the grid holds no stale players. A publish
+     * already on its way from a region thread may still land afterwards, which only puts an online
+     * player back where they stand.
+     */
+    public void clear() {
+        worlds.clear();
+        cells.clear();
+        players.clear();
+    }
+
+    /** Everyone who has published since the grid was last cleared. A live, read-only view. */
+    public Collection<Player> players() {
+        return playersView;
+    }
+
+    /**
+     * Living players within {@code radius} blocks of {@code center}. Only the chunk buckets that
+     * can hold such a player are read; the returned list is the caller's to keep.
+     */
+    public List<Player> nearby(Location center, double radius) {
+        List<Player> nearby = new ArrayList<>();
+        World world = center.getWorld();
+        if (world == null) return nearby;
+        Map<Long, Set<Player>> chunks = worlds.get(world.getUID());
+        if (chunks == null) return nearby;
+
+        double radiusSq = radius * radius;
+        // One extra chunk of reach covers players who moved since they last published.
+        int reach = ((int) Math.ceil(radius) >> 4) + 1;
+        int cx = center.getBlockX() >> 4;
+        int cz = center.getBlockZ() >> 4;
+        Location at = SCRATCH.get();
+        for (int dx = -reach; dx <= reach; dx++) {
+            for (int dz = -reach; dz <= reach; dz++) {
+                Set<Player> bucket = chunks.get(chunkKey(cx + dx, cz + dz));
+                if (bucket == null) continue;
+                for (Player player : bucket) {
+                    if (!player.isOnline() || player.isDead()) continue;
+                    player.getLocation(at);
+                    if (at.getWorld() == world && at.distanceSquared(center) <= radiusSq) {
+                        nearby.add(player);
+                    }
+                }
+            }
+        }
+        return nearby;
+    }
+
+    private void leave(Player player, Cell cell) {
+        Map<Long, Set<Player>> chunks = worlds.get(cell.world);
+        if (chunks == null) return;
+        chunks.computeIfPresent(cell.chunk, (k, bucket) -> {
+            bucket.remove(player);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+
+    private static long chunkKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    /** The bucket a player was last published into. */
+    private static final class Cell {
+        final UUID world;
+        final long chunk;
+
+        Cell(UUID world, long chunk) {
+            this.world = world;
+            this.chunk = chunk;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.rex.worldMood;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+import org.bukkit.scoreboard.DisplaySlot;
+import org.bukkit.scoreboard.Objective;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.ScoreboardManager;
+import org.bukkit.scoreboard.Team;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The mood sidebar, drawn on one scoreboard that lives for the whole plugin lifetime.
+ * <p>
+ * The HUD used to call {@code getNewScoreboard()} for every mood start and throw the board away
+ * afterwards, so a long uptime kept piling up scoreboards in the manager. Here a single board is
+ * created on first use and only its contents change. Every line is a fixed, invisible entry whose
+ * text lives in a team prefix, so changing a line is one team update instead of removing and
+ * re-adding a score, and a line whose text did not change is never touched at all.
+ * <p>
+ * With {@code respectOtherScoreboards}, a player already looking at another plugin's board keeps
+ * it and simply does not get the mood sidebar. Only players on the server's main board are moved.
+ * <p>
+ * Not used on region-threaded servers, which have no scoreboard API.
+ */
+public final class SidebarHud {
+
+    private static final String OBJECTIVE_NAME = "wm_hud";
+    /** ChatColor.values()[0..15] are the colour codes — one unique, invisible entry per line. */
+    static final int MAX_LINES = 15;
+    private static final int MAX_LINE_LENGTH = 40;
+
+    private final WorldMood plugin;
+    private boolean respectOtherBoards;
+
+    private Scoreboard board;
+    private Objective objective;
+    private Team[] teams;
+    private String title;
+    private final String[] shown = new String[MAX_LINES];
+
+    // Players currently looking at the board, and what they were looking at before.
+    private final Map<UUID, Viewer> viewers = new HashMap<>();
+    private boolean active;
+    private int generation;
+
+    public SidebarHud(WorldMood plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+
+    /** Re-reads {@code respectOtherScoreboards}. Players already showing the sidebar keep it. */
+    public void reload() {
+        respectOtherBoards = plugin.getSettings().isRespectOtherScoreboards();
+    }
+
+    /**
+     * Sets the sidebar contents and marks it showing. Returns the new generation, which
+     * {@link #hide(Player, int)} uses to tell a stale hide from a current one.
+     */
+    public int setLines(String newTitle, List<String> lines) {
+        if (!ensureBoard()) return generation;
+
+        if (!newTitle.equals(title)) {
+            objective.setDisplayName(newTitle);
+            title = newTitle;
+        }
+        if (lines.size() > MAX_LINES) {
+            plugin.getLogger().warning("Scoreboard HUD had more lines than can be displayed ("
+                    + lines.size() + "); showing the first " + MAX_LINES + ".");
+        }
+        for (int index = 0; index < MAX_LINES; index++) {
+            String text = index < lines.size() ? trimToLength(lines.get(index), MAX_LINE_LENGTH) : null;
+            if (text == null ? shown[index] == null : text.equals(shown[index])) continue;
+
+            String entry = entry(index);
+            if (text == null) {
+                board.resetScores(entry);
+            } else {
+                teams[index].setPrefix(text);
+                if (shown[index] == null) {
+                    // Fixed scores: a line keeps its slot however many lines come after it.
+                    objective.getScore(entry).setScore(MAX_LINES - index);
+                }
+            }
+            shown[index] = text;
+        }
+        active = true;
+        return ++generation;
+    }
+
+    /** Whether a mood sidebar is currently meant to be on screen. */
+    public boolean isActive() {
+        return active;
+    }
+
+    /** Marks the sidebar hidden; players are taken off it one by one through {@link #hide}. */
+    public int deactivate() {
+        active = false;
+        return ++generation;
+    }
+
+    /** Ids of everyone currently looking at the sidebar. */
+    public Set<UUID> getViewers() {
+        return new HashSet<>(viewers.keySet());
+    }
+
+    /** Puts the sidebar on a player's screen, unless they are on another plugin's board. */
+    public void show(Player player) {
+        if (!active || board == null) return;
+        UUID id = player.getUniqueId();
+        Viewer viewer = viewers.get(id);
+        if (viewer != null) {
+            viewer.generation = generation;
+            return;
+        }
+        Scoreboard current = player.getScoreboard();
+        if (current == board) return;
+        ScoreboardManager manager = Bukkit.getScoreboardManager();
+        if (respectOtherBoards && manager != null && current != manager.getMainScoreboard()) return;
+
+        viewers.put(id, new Viewer(current, generation));
+        player.setScoreboard(board);
+    }
+
+    /**
+     * Gives a player their previous board back. Ignored if they were shown a newer sidebar since
+     * {@code asOf}, e.g. by a join that raced the hide.
+     */
+    public void hide(Player player, int asOf) {
+        Viewer viewer = viewers.get(player.getUniqueId());
+        if (viewer == null || viewer.generation > asOf) return;
+        viewers.remove(player.getUniqueId());
+        if (player.getScoreboard() == board) {
+            player.setScoreboard(viewer.original);
+        }
+    }
+
+    /** Drops a player who has left; their board is reassigned by the server on the next login. */
+    public void forget(Player player) {
+        viewers.remove(player.getUniqueId());
+    }
+
+    private boolean ensureBoard() {
+        if (board != null) return true;
+        ScoreboardManager manager = Bukkit.getScoreboardManager();
+        if (manager == null) {
+            plugin.getLogger().severe("ScoreboardManager is null! Cannot create HUD.");
+            return false;
+        }
+        board = manager.getNewScoreboard();
+        title = ChatColor.AQUA + "" + ChatColor.BOLD + "World Mood";
+        // Via Compat: the Criteria overload is 1.20.1+, so naming it here would break the 1.16.5 build.
+        objective = Compat.registerObjective(board, OBJECTIVE_NAME, title);
+        objective.setDisplaySlot(DisplaySlot.SIDEBAR);
+        teams = new Team[MAX_LINES];
+        for (int index = 0; index < MAX_LINES; index++) {
+            teams[index] = board.registerNewTeam("wm_line_" + index);
+            teams[index].addEntry(entry(index));
+        }
+        return true;
+    }
+
+    private static String entry(int index) {
+        return ChatColor.values()[index].toString() + ChatColor.RESET;
+    }
+
+    private static String trimToLength(String text, int max) {
+        if (text == null) return "";
+        if (text.length() <= max) return text;
+        String trimmed = text.substring(0, max);
+        if (trimmed.endsWith("§")) trimmed = trimmed.substring(0, trimmed.length() - 1);
+        return trimmed;
+    }
+
+    private static final class Viewer {
+        final Scoreboard original;
+        int generation;
+
+        Viewer(Scoreboard original, int generation) {
+            this.original = original;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.rex.worldMood;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Difficulty;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Monster;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Mood spawns, a few per tick instead of all at once.
+ * <p>
+ * A Blood Moon horde surge used to spawn every mob for every online player in one tick, and each
+ * natural spawn could spawn and buff an extra monster right inside the spawn event. Here those
+ * spawns are queued instead and at most {@code spawnsPerTick} are made per tick, shared out
+ * between the players waiting. Where each one goes is only worked out when its turn comes, on the
+ * thread that owns the spot.
+ * <p>
+ * A queued spawn is dropped rather than made if its player has left, its mood has ended, the
+ * world's monster spawn limit is 0 or the difficulty is peaceful, or there are already
+ * {@code spawnQueueMaxNearbyMonsters} monsters (or the world's monster spawn limit, if lower)
+ * within {@value #NEARBY_RADIUS} blocks.
+ * <p>
+ * Global-thread only, like {@link PlayerFanout}; {@link #at} may be called from any thread.
+ */
+public final class SpawnQueue {
+
+    private static final double NEARBY_RADIUS = 32.0;
+
+    private final WorldMood plugin;
+    // Spawns waiting around each player, players in the order they first queued something.
+    private final Map<UUID, Deque<Spawn>> aroundPlayers = new LinkedHashMap<>();
+    // Spawns at fixed places, not tied to anyone.
+    private final Deque<Spawn> atPlaces = new ArrayDeque<>();
+    private int perTick;
+    private int maxNearby;
+    private TaskScheduler.Task drainTask;
+
+    public SpawnQueue(WorldMood plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+
+    /** Re-reads {@code spawnsPerTick} and {@code spawnQueueMaxNearbyMonsters}. */
+    public void reload() {
+        perTick = plugin.getSettings().getSpawnsPerTick();
+        maxNearby = plugin.getSettings().getSpawnQueueMaxNearbyMonsters();
+    }
+
+    /**
+     * Queues one {@code type} spawn around {@code player}. When its turn comes, {@code where} picks
+     * the spot on the player's thread (or returns {@code null} to skip it), and {@code then} gets
+     * the new entity.
+     */
+    public void near(Object owner, Player player, EntityType type, Function<Player, Location> where, Consumer<Entity> then) {
+        aroundPlayers.computeIfAbsent(player.getUniqueId(), k -> new ArrayDeque<>())
+                .add(new Spawn(owner, type, null, where, then));
+        startDraining();
+    }
+
+    /** Queues one {@code type} spawn at {@code location}. Safe from any thread. */
+    public void at(Object owner, Location location, EntityType type, Consumer<Entity> then) {
+        Spawn spawn = new Spawn(owner, type, location.clone(), null, then);
+        plugin.getScheduler().runGlobal(() -> {
+            atPlaces.add(spawn);
+            startDraining();
+        });
+    }
+
+    /** Drops everything {@code owner} queued; called when its mood ends. */
+    public void clear(Object owner) {
+        Iterator<Deque<Spawn>> players = aroundPlayers.values().iterator();
+        while (players.hasNext()) {
+            Deque<Spawn> queue = players.next();
+            queue.removeIf(spawn -> spawn.owner == owner);
+            if (queue.isEmpty()) players.remove();
+        }
+        atPlaces.removeIf(spawn -> spawn.owner == owner);
+    }
+
+    /** Drops what was waiting for a player who has left. Safe from any thread. */
+    public void forget(Player player) {
+        UUID id = player.getUniqueId();
+        plugin.getScheduler().runGlobal(() -> aroundPlayers.remove(id));
+    }
+
+    private void startDraining() {
+        if (drainTask == null) {
+            drainTask = plugin.getScheduler().runGlobalTimer(task -> drain(), 1L, 1L);
+        }
+    }
+
+    private void drain() {
+        int budget = perTick;
+        // Round-robin: every player waiting gets a turn before anyone gets a second one.
+        while (budget > 0 && !aroundPlayers.isEmpty()) {
+            int before = budget;
+            Iterator<Map.Entry<UUID, Deque<Spawn>>> it = aroundPlayers.entrySet().iterator();
+            while (budget > 0 && it.hasNext()) {
+                Map.Entry<UUID, Deque<Spawn>> entry = it.next();
+                // A player who left before forget() landed loses everything they had waiting.
+                Player player = Bukkit.getPlayer(entry.getKey());
+                Spawn spawn = entry.getValue().poll();
+                if (player == null || spawn == null || entry.getValue().isEmpty()) it.remove();
+                if (player == null || spawn == null) continue;
+                budget--;
+                plugin.getScheduler().runFor(player, () -> {
+                    if (!player.isOnline()) return;
+                    Location at = spawn.where.apply(player);
+                    if (at != null) spawn(spawn, at);
+                });
+            }
+            if (budget == before) break;
+        }
+        while (budget > 0 && !atPlaces.isEmpty()) {
+            Spawn spawn = atPlaces.poll();
+            budget--;
+            Location at = spawn.location;
+            plugin.getScheduler().runAt(at, () -> {
+                if (at.getWorld().isChunkLoaded(at.getBlockX() >> 4, at.getBlockZ() >> 4)) {
+                    spawn(spawn, at);
+                }
+            });
+        }
+        if (aroundPlayers.isEmpty() && atPlaces.isEmpty()) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+    }
+
+    /** Makes one spawn, unless the spot is already crowded. Runs on the thread that owns the spot. */
+    private void spawn(Spawn spawn, Location at) {
+        World world = at.getWorld();
+        if (world == null || world.getDifficulty() == Difficulty.PEACEFUL) return;
+        int cap = maxNearby;
+        int worldLimit = world.getMonsterSpawnLimit();
+        if (worldLimit >= 0) cap = Math.min(cap, worldLimit);
+        int nearby = 0;
+        for (Entity entity : world.getNearbyEntities(at, NEARBY_RADIUS, NEARBY_RADIUS, NEARBY_RADIUS)) {
+            if (entity instanceof Monster && ++nearby >= cap) return;
+        }
+        if (nearby >= cap) return;
+        Entity spawned = world.spawnEntity(at, spawn.type);
+        if (spawn.then != null) spawn.then.accept(spawned);
+    }
+
+    private static final class Spawn {
+        final Object owner;
+        final EntityType type;
+        final Location location;
+        final Function<Player, Location> where;
+        final Consumer<Entity> then;
+
+        Spawn(Object owner, EntityType type, Location location, Function<Player, Location> where, Consumer<Entity> then) {
+            this.owner = owner;
+            this.type = type;
+            this.location = location;
+            this.where = where;
+            this.then = then;
+        }
+    }
+}
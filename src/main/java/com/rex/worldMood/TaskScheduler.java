@@ -0,0 +1,107 @@
+package com.rex.worldMood;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import java.util.function.Consumer;
+
+/**
+ * Where WorldMood's work runs.
+ * <p>
+ * On Spigot and Paper there is exactly one thread that may touch the world, and every method here
+ * maps onto the ordinary {@link org.bukkit.scheduler.BukkitScheduler}. On region-threaded servers
+ * (Folia) there is no such thread: each player, entity and chunk belongs to a region that ticks on
+ * its own thread, and touching it from anywhere else throws. Moods therefore never schedule
+ * directly — they say <i>what</i> the work is attached to (a player, an entity, a chunk, or nothing
+ * in particular) and the implementation picks the right thread.
+ * <p>
+ * The {@code run*} methods without a delay are "run here if we may, otherwise hop": when the
+ * calling thread already owns the target they execute inline, so the single-threaded path pays
+ * nothing for the abstraction and keeps exactly the ordering it had before.
+ * <p>
+ * This is an interface rather than a concrete class so the ownership rules can be exercised off a
+ * real server: the tests run the region-hopping code against {@code FakeTaskScheduler}, which hands
+ * work to several executor threads and so flushes out code that assumes everything runs on one.
+ */
+public interface TaskScheduler {
+
+    /** Handle to scheduled work. Cancelling an already-finished task is a no-op. */
+    interface Task {
+        void cancel();
+
+        boolean isCancelled();
+    }
+
+    /** Picks the implementation for the server we are running on. */
+    static TaskScheduler forServer(Plugin plugin) {
+        if (FoliaTaskScheduler.isSupported()) {
+            try {
+                return new FoliaTaskScheduler(plugin);
+            } catch (IllegalStateException e) {
+                plugin.getLogger().warning("[Scheduler] Region-threaded server detected but its scheduler "
+                        + "could not be resolved (" + e.getMessage() + "); falling back to the Bukkit scheduler.");
+            }
+        }
+        return new BukkitTaskScheduler(plugin);
+    }
+
+    /**
+     * True when work is split across region threads. Code that would scan a whole world (which no
+     * single region thread may do) checks this and works player-by-player instead.
+     */
+    boolean isRegionized();
+
+    // ------------------------------------------------------------------
+    // Global work: mood cycle, durations, HUD, anything not tied to a place.
+    // ------------------------------------------------------------------
+
+    Task runGlobal(Runnable task);
+
+    Task runGlobalLater(Runnable task, long delayTicks);
+
+    Task runGlobalTimer(Consumer<Task> task, long delayTicks, long periodTicks);
+
+    // ------------------------------------------------------------------
+    // Entity-bound work. Follows the entity across regions; silently dropped
+    // if the entity is removed (a player logging out) before it runs.
+    // ------------------------------------------------------------------
+
+    Task runFor(Entity entity, Runnable task);
+
+    Task runForLater(Entity entity, Runnable task, long delayTicks);
+
+    // ------------------------------------------------------------------
+    // Region-bound work: anything that reads or writes blocks/biomes.
+    // ------------------------------------------------------------------
+
+    Task runAt(World world, int chunkX, int chunkZ, Runnable task);
+
+    Task runAtLater(World world, int chunkX, int chunkZ, Runnable task, long delayTicks);
+
+    default Task runAt(Location location, Runnable task) {
+        return runAt(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4, task);
+    }
+
+    /**
+     * Moves an entity. Region-threaded servers refuse a synchronous teleport (the destination may
+     * belong to another region), so there it is handed off asynchronously and lands a tick later.
+     */
+    void teleport(Entity entity, Location destination);
+
+    /** Cancels everything this plugin scheduled. Called from onDisable. */
+    void cancelAll();
+
+    /** The task returned when work ran inline and there is nothing left to cancel. */
+    Task DONE = new Task() {
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+}
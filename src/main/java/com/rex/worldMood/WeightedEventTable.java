@@ -0,0 +1,160 @@
+package com.rex.worldMood;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A mood's random events (Blood Moon's frenzies and surges, Void Tension's anomalies), each with a
+ * weight, an optional cooldown and its own run counters.
+ * <p>
+ * Both moods used to pick uniformly from a list of method references, and Blood Moon rebuilt that
+ * list on every check. A table is built once, when the mood loads its config; after that
+ * {@link #pick} allocates nothing: it sums the weights of the events that are off cooldown, rolls
+ * once, and walks the same array again to find the winner.
+ * <p>
+ * Picking is global-thread only. An event's action may run anywhere (Void Tension runs anomalies
+ * on the target's region), so its counters are {@link LongAdder}s, as for atmosphere layers.
+ *
+ * @param <T> what an event does, e.g. {@code Runnable}
+ */
+public final class WeightedEventTable<T> {
+
+    private final Event<T>[] events;
+
+    private WeightedEventTable(List<Event<T>> events) {
+        @SuppressWarnings("unchecked")
+        Event<T>[] array = events.toArray(new Event[0]);
+        this.events = array;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public boolean isEmpty() {
+        return events.length == 0;
+    }
+
+    /**
+     * A random event off cooldown, chosen by weight, or {@code null} if every event is cooling
+     * down. The chosen event's cooldown starts now.
+     */
+    public Event<T> pick(Random random) {
+        long now = System.currentTimeMillis();
+        double total = 0;
+        for (Event<T> event : events) {
+            if (event.isReady(now)) total += event.weight;
+        }
+        if (total <= 0) return null;
+        double roll = random.nextDouble() * total;
+        Event<T> chosen = null;
+        for (Event<T> event : events) {
+            if (!event.isReady(now)) continue;
+            chosen = event;
+            roll -= event.weight;
+            if (roll < 0) break;
+        }
+        // total > 0, so some event was ready; if rounding leaves roll at 0, the last ready one wins.
+        chosen.lastPicked = now;
+        return chosen;
+    }
+
+    /** Every event, in the order they were added; for {@code /wm stats}. */
+    public List<Event<T>> getEvents() {
+        return Collections.unmodifiableList(Arrays.asList(events));
+    }
+
+    /** One event: its action, how it is weighted, and how it has performed. */
+    public static final class Event<T> {
+        private final String name;
+        private final T action;
+        private final double weight;
+        private final long cooldownMillis;
+        private volatile long lastPicked = Long.MIN_VALUE;
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        private Event(String name, T action, double weight, long cooldownMillis) {
+            this.name = name;
+            this.action = action;
+            this.weight = weight;
+            this.cooldownMillis = cooldownMillis;
+        }
+
+        private boolean isReady(long now) {
+            return cooldownMillis <= 0 || lastPicked == Long.MIN_VALUE || now - lastPicked >= cooldownMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public T getAction() {
+            return action;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+
+        /** Records one run that started at {@code startNanos} ({@link System#nanoTime()}). */
+        public void recordRun(long startNanos) {
+            runs.increment();
+            nanos.add(System.nanoTime() - startNanos);
+        }
+
+        public void recordFailure() {
+            failures.increment();
+        }
+
+        public long getRuns() {
+            return runs.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /** Mean time of one run, in microseconds. */
+        public double getAverageMicros() {
+            long count = runs.sum();
+            return count == 0 ? 0.0 : nanos.sum() / 1000.0 / count;
+        }
+    }
+
+    public static final class Builder<T> {
+        private final List<Event<T>> events = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /** Adds an event; a weight of 0 or less leaves it out. */
+        public Builder<T> add(String name, T action, double weight, int cooldownSeconds) {
+            if (weight > 0) {
+                events.add(new Event<>(name, action, weight, Math.max(0, cooldownSeconds) * 1000L));
+            }
+            return this;
+        }
+
+        /**
+         * Adds an event weighted by its config section's {@code weight} (default 1) with its
+         * {@code cooldownSeconds} (default 0). A missing section counts as the defaults.
+         */
+        public Builder<T> add(String name, T action, ConfigurationSection section) {
+            double weight = section == null ? 1.0 : section.getDouble("weight", 1.0);
+            int cooldown = section == null ? 0 : section.getInt("cooldownSeconds", 0);
+            return add(name, action, weight, cooldown);
+        }
+
+        public WeightedEventTable<T> build() {
+            return new WeightedEventTable<>(events);
+        }
+    }
+}
@@ -5,20 +5,65 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 public final class WorldMood extends JavaPlugin {
 
+    private TaskScheduler scheduler;
+    private PlayerFanout playerFanout;
+    private ParticleBudget particleBudget;
+    private AtmosphereRenderer atmosphereRenderer;
+    private AtmosphereDispatcher atmosphereDispatcher;
+    private EffectLedger effectLedger;
+    private ActivityTracker activityTracker;
+    private EffectsProfile effectsProfile;
+    private LightSampler lightSampler;
+    private PlayerGrid playerGrid;
+    private SpawnQueue spawnQueue;
+    private DropEngine dropEngine;
+    private MoodEventRouter eventRouter;
     private MoodManager moodManager;
     private WorldStateGuard worldStateGuard;
+    private volatile WorldMoodSettings settings;
+    private BlockRevertQueue blockRevertQueue;
     private FogController fogController;
 
     @Override
     public void onEnable() {
         saveDefaultConfig();
+        loadSettings();
 
         Compat.logSupportSummary();
 
+        // Everything below schedules through this, so it has to exist first. On region-threaded
+        // servers it routes work to the thread that owns each player/chunk.
+        scheduler = TaskScheduler.forServer(this);
+        if (scheduler.isRegionized()) {
+            getLogger().info("Region-threaded server detected; mood effects run per region.");
+        }
+        playerFanout = new PlayerFanout(this);
+        activityTracker = new ActivityTracker(this);
+        getServer().getPluginManager().registerEvents(activityTracker, this);
+        effectsProfile = new EffectsProfile(this);
+        getServer().getPluginManager().registerEvents(effectsProfile, this);
+        effectsProfile.loadOnline(getServer().getOnlinePlayers()); // a /reload with players on
+        lightSampler = new LightSampler();
+        playerGrid = new PlayerGrid();
+        spawnQueue = new SpawnQueue(this);
+        particleBudget = new ParticleBudget(this);
+        Atmosphere.install(particleBudget);
+        atmosphereRenderer = new AtmosphereRenderer(this);
+        configureAtmosphereDispatch();
+        effectLedger = new EffectLedger(this);
+        getServer().getPluginManager().registerEvents(effectLedger, this);
+        Atmosphere.installLedger(effectLedger);
+
+        dropEngine = new DropEngine();
+        getServer().getPluginManager().registerEvents(dropEngine, this);
+        eventRouter = new MoodEventRouter();
+        getServer().getPluginManager().registerEvents(eventRouter, this);
+
         // Must run before any mood can start: puts back world settings (game rules, borders, and
         // fog biome cells) that a crash left behind.
         worldStateGuard = new WorldStateGuard(this);
         worldStateGuard.restorePending();
+        blockRevertQueue = new BlockRevertQueue(this, worldStateGuard);
 
         // Ships/extracts the coloured-fog datapack (modern jar only) and reports if a restart is
         // needed for its biomes to register.
@@ -33,7 +78,7 @@ public final class WorldMood extends JavaPlugin {
         getCommand("worldmood").setExecutor(commandExecutor);
         getCommand("worldmood").setTabCompleter(commandExecutor);
 
-        if (getConfig().getBoolean("pluginEnabled", true)) {
+        if (settings.isPluginEnabled()) {
             moodManager.startMoodCycle();
             getLogger().info("WorldMood enabled successfully!");
         } else {
@@ -51,25 +96,148 @@ public final class WorldMood extends JavaPlugin {
         if (fogController != null) {
             fogController.end();
         }
+        // Put back blocks still swapped out by anomalies, so a clean stop leaves nothing to replay.
+        if (blockRevertQueue != null) {
+            blockRevertQueue.flush();
+        }
+        // Let the journal thread write what those reverts queued before the plugin goes away.
+        if (worldStateGuard != null) {
+            worldStateGuard.close();
+        }
+        // The mood that just ended queued its goodbyes (effect removal, titles); deliver them now
+        // rather than lose them with the scheduler.
+        if (playerFanout != null) {
+            playerFanout.flush();
+        }
+        if (atmosphereRenderer != null) {
+            atmosphereRenderer.stop();
+        }
+        if (atmosphereDispatcher != null) {
+            Atmosphere.installDispatcher(null);
+            atmosphereDispatcher.shutdown();
+            atmosphereDispatcher = null;
+        }
+        Atmosphere.installLedger(null);
+        if (particleBudget != null) {
+            particleBudget.stop();
+            Atmosphere.install(null);
+        }
+        if (scheduler != null) {
+            scheduler.cancelAll();
+        }
 
         getLogger().info("WorldMood disabled.");
     }
 
+    /**
+     * Re-reads config.yml and applies only what changed. The components re-read their values in
+     * place, and {@link MoodManager#applyReload} keeps the active mood running unless its own
+     * settings require otherwise, so tuning a value mid-mood does not restore and re-apply fog,
+     * buffs and world state.
+     */
     public void reloadPluginConfig() {
+        WorldMoodSettings previous = settings;
         reloadConfig();
-
-        moodManager.stopMoodCycle();
-
-        moodManager.loadMoods();
-
-        if (getConfig().getBoolean("pluginEnabled", true)) {
-            moodManager.startMoodCycle();
+        loadSettings();
+        playerFanout.reload();
+        spawnQueue.reload();
+        activityTracker.reload();
+        effectsProfile.reload();
+        particleBudget.reload();
+        configureAtmosphereDispatch();
+        effectLedger.reload();
+
+        moodManager.applyReload(previous);
+
+        if (settings.isPluginEnabled()) {
             getLogger().info("WorldMood configuration reloaded.");
         } else {
             getLogger().warning("WorldMood is disabled in the reloaded config. Mood cycle not started.");
         }
     }
 
+    /** Compiles config.yml into a fresh {@link WorldMoodSettings} and swaps it in. */
+    private void loadSettings() {
+        WorldMoodSettings loaded = WorldMoodSettings.compile(getConfig());
+        for (String problem : loaded.getProblems()) {
+            getLogger().warning("[Config] " + problem);
+        }
+        settings = loaded;
+    }
+
+    /**
+     * Starts or stops off-thread particle sending to match {@code asyncAtmosphere}, restarting it
+     * only if the thread count changed. Never on region-threaded servers, where effects already
+     * run off the main thread per player.
+     */
+    private void configureAtmosphereDispatch() {
+        boolean wanted = settings.isAsyncAtmosphere() && !scheduler.isRegionized();
+        int threads = settings.getAsyncAtmosphereThreads();
+        if (atmosphereDispatcher != null && (!wanted || !atmosphereDispatcher.isRunning()
+                || atmosphereDispatcher.getThreads() != threads)) {
+            Atmosphere.installDispatcher(null);
+            atmosphereDispatcher.shutdown();
+            atmosphereDispatcher = null;
+        }
+        if (wanted && atmosphereDispatcher == null) {
+            atmosphereDispatcher = new AtmosphereDispatcher(this, threads);
+            Atmosphere.installDispatcher(atmosphereDispatcher);
+        }
+    }
+
+    /** The settings from the last load or reload. Safe from any thread; never changes in place. */
+    public WorldMoodSettings getSettings() {
+        return settings;
+    }
+
+    public TaskScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public PlayerFanout getPlayerFanout() {
+        return playerFanout;
+    }
+
+    public ActivityTracker getActivityTracker() {
+        return activityTracker;
+    }
+
+    public EffectsProfile getEffectsProfile() {
+        return effectsProfile;
+    }
+
+    public LightSampler getLightSampler() {
+        return lightSampler;
+    }
+
+    public BlockRevertQueue getBlockRevertQueue() {
+        return blockRevertQueue;
+    }
+
+    public SpawnQueue getSpawnQueue() {
+        return spawnQueue;
+    }
+
+    public PlayerGrid getPlayerGrid() {
+        return playerGrid;
+    }
+
+    public DropEngine getDropEngine() {
+        return dropEngine;
+    }
+
+    public MoodEventRouter getEventRouter() {
+        return eventRouter;
+    }
+
+    public ParticleBudget getParticleBudget() {
+        return particleBudget;
+    }
+
+    public AtmosphereRenderer getAtmosphereRenderer() {
+        return atmosphereRenderer;
+    }
+
     public MoodManager getMoodManager() {
         return moodManager;
     }
@@ -0,0 +1,484 @@
+package com.rex.worldMood;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The plugin-wide settings from config.yml, read once into plain fields.
+ * <p>
+ * MoodManager used to look settings up in the YAML tree every time it started a mood, welcomed a
+ * player or drew the sidebar, and every mood concatenated its own paths to read its basics. Now
+ * {@link #compile} reads them all on load and on {@code /worldmood reload}, checks them, and
+ * reports anything out of range once, at load time. The plugin swaps in the new snapshot in one
+ * volatile write ({@link WorldMood#getSettings()}), so a reader on any thread sees either the old
+ * settings or the new ones, never a mix.
+ * <p>
+ * Nested sections that belong to one component are compiled into their own read-only holder
+ * ({@link ParticleBudgetSettings}, {@link ActivitySettings}) that the component takes whole on
+ * reload. A mood's specific keys are copied into the snapshot once, as a detached section every
+ * read of that mood shares (see {@link MoodSettings#getSection()}).
+ */
+public final class WorldMoodSettings {
+
+    private final boolean pluginEnabled;
+    private final boolean randomizeMoods;
+    private final long moodFrequencyTicks;
+    private final boolean broadcastMoodChanges;
+    private final boolean useBossBar;
+    private final boolean perPlayerBossBars;
+    private final boolean useScoreboardHud;
+    private final long hudDisplayTicks;
+    private final boolean respectOtherScoreboards;
+    private final int announceSpreadTicks;
+    private final int joinsProcessedPerTick;
+    private final double reducedEffectsScale;
+    private final boolean asyncAtmosphere;
+    private final int asyncAtmosphereThreads;
+    private final int pulseRefreshTicks;
+    private final int spawnsPerTick;
+    private final int spawnQueueMaxNearbyMonsters;
+    private final ParticleBudgetSettings particleBudget;
+    private final ActivitySettings activity;
+    private final Map<String, MoodSettings> moods;
+    private final List<String> moodKeys;
+    private final int defaultMoodDuration;
+    private final List<String> problems;
+
+    private WorldMoodSettings(FileConfiguration config) {
+        List<String> found = new ArrayList<>();
+        pluginEnabled = config.getBoolean("pluginEnabled", true);
+        randomizeMoods = config.getBoolean("randomizeMoods", true);
+        moodFrequencyTicks = config.getLong("moodFrequencyMinutes", 30) * 60 * 20;
+        broadcastMoodChanges = config.getBoolean("broadcastMoodChanges", true);
+        useBossBar = config.getBoolean("useBossBar", true);
+        perPlayerBossBars = config.getBoolean("perPlayerBossBars", false);
+        useScoreboardHud = config.getBoolean("useScoreboardHud", true);
+        long hudSeconds = config.getLong("hudDisplaySeconds", 15);
+        if (hudSeconds < 0) {
+            found.add("hudDisplaySeconds is negative; the sidebar will not be shown.");
+        }
+        hudDisplayTicks = Math.max(0, hudSeconds) * 20L;
+        respectOtherScoreboards = config.getBoolean("respectOtherScoreboards", true);
+        announceSpreadTicks = atLeast(config, "announceSpreadTicks", 10, 1, found);
+        joinsProcessedPerTick = atLeast(config, "joinsProcessedPerTick", 20, 1, found);
+        reducedEffectsScale = fraction(config, "reducedEffectsScale", 0.35, found);
+        asyncAtmosphere = config.getBoolean("asyncAtmosphere", false);
+        asyncAtmosphereThreads = atLeast(config, "asyncAtmosphereThreads", 1, 1, found);
+        pulseRefreshTicks = atLeast(config, "pulseRefreshTicks", 25, 0, found);
+        spawnsPerTick = atLeast(config, "spawnsPerTick", 6, 1, found);
+        spawnQueueMaxNearbyMonsters = atLeast(config, "spawnQueueMaxNearbyMonsters", 40, 0, found);
+        particleBudget = new ParticleBudgetSettings(config, found);
+        activity = new ActivitySettings(config, found);
+
+        defaultMoodDuration = atLeast(config, "defaultMoodDuration", 300, 1, found);
+        Map<String, MoodSettings> moodMap = new HashMap<>();
+        List<String> keys = new ArrayList<>();
+        ConfigurationSection moodsSection = config.getConfigurationSection("moods");
+        if (moodsSection != null) {
+            for (String key : moodsSection.getKeys(false)) {
+                ConfigurationSection section = moodsSection.getConfigurationSection(key);
+                if (section == null) {
+                    found.add("moods." + key + " is not a section; ignoring it.");
+                    continue;
+                }
+                moodMap.put(key.toLowerCase(), new MoodSettings(key, section, defaultMoodDuration, found));
+                keys.add(key);
+            }
+        } else {
+            found.add("The 'moods' section is missing; every mood is disabled.");
+        }
+        moods = Collections.unmodifiableMap(moodMap);
+        keys.sort(String.CASE_INSENSITIVE_ORDER);
+        moodKeys = Collections.unmodifiableList(keys);
+        problems = Collections.unmodifiableList(found);
+    }
+
+    /** Reads and checks {@code config}. Nothing in the result refers back to it. */
+    public static WorldMoodSettings compile(FileConfiguration config) {
+        return new WorldMoodSettings(config);
+    }
+
+    private static int atLeast(FileConfiguration config, String path, int def, int min, List<String> found) {
+        int value = config.getInt(path, def);
+        if (value < min) {
+            found.add(path + " is " + value + "; using " + min + ".");
+            return min;
+        }
+        return value;
+    }
+
+    private static double atLeast(FileConfiguration config, String path, double def, double min, List<String> found) {
+        double value = config.getDouble(path, def);
+        if (value < min) {
+            found.add(path + " is " + value + "; using " + min + ".");
+            return min;
+        }
+        return value;
+    }
+
+    private static double fraction(FileConfiguration config, String path, double def, List<String> found) {
+        double value = config.getDouble(path, def);
+        if (value < 0.0 || value > 1.0) {
+            double clamped = Math.max(0.0, Math.min(1.0, value));
+            found.add(path + " is " + value + "; it must be between 0.0 and 1.0, using " + clamped + ".");
+            return clamped;
+        }
+        return value;
+    }
+
+    /** What was wrong with the config, one line per problem; empty when it is all fine. */
+    public List<String> getProblems() {
+        return problems;
+    }
+
+    /** Every key under {@code moods:} as written in config.yml, enabled or not, in alphabetical order. */
+    public List<String> getMoodKeys() {
+        return moodKeys;
+    }
+
+    /** The settings of the mood with config key {@code key}; a missing mood comes back disabled. */
+    public MoodSettings mood(String key) {
+        MoodSettings settings = moods.get(key.toLowerCase());
+        return settings != null ? settings : new MoodSettings(defaultMoodDuration);
+    }
+
+    public boolean isPluginEnabled() {
+        return pluginEnabled;
+    }
+
+    public boolean isRandomizeMoods() {
+        return randomizeMoods;
+    }
+
+    /** {@code moodFrequencyMinutes} in ticks; 0 or less means no random cycle. */
+    public long getMoodFrequencyTicks() {
+        return moodFrequencyTicks;
+    }
+
+    public boolean isBroadcastMoodChanges() {
+        return broadcastMoodChanges;
+    }
+
+    public boolean isUseBossBar() {
+        return useBossBar;
+    }
+
+    public boolean isPerPlayerBossBars() {
+        return perPlayerBossBars;
+    }
+
+    public boolean isUseScoreboardHud() {
+        return useScoreboardHud;
+    }
+
+    /** {@code hudDisplaySeconds} in ticks; 0 means the sidebar is not shown at all. */
+    public long getHudDisplayTicks() {
+        return hudDisplayTicks;
+    }
+
+    public boolean isRespectOtherScoreboards() {
+        return respectOtherScoreboards;
+    }
+
+    public int getAnnounceSpreadTicks() {
+        return announceSpreadTicks;
+    }
+
+    public int getJoinsProcessedPerTick() {
+        return joinsProcessedPerTick;
+    }
+
+    public double getReducedEffectsScale() {
+        return reducedEffectsScale;
+    }
+
+    public boolean isAsyncAtmosphere() {
+        return asyncAtmosphere;
+    }
+
+    public int getAsyncAtmosphereThreads() {
+        return asyncAtmosphereThreads;
+    }
+
+    public int getPulseRefreshTicks() {
+        return pulseRefreshTicks;
+    }
+
+    public int getSpawnsPerTick() {
+        return spawnsPerTick;
+    }
+
+    public int getSpawnQueueMaxNearbyMonsters() {
+        return spawnQueueMaxNearbyMonsters;
+    }
+
+    /** The {@code particleBudget} section. */
+    public ParticleBudgetSettings getParticleBudget() {
+        return particleBudget;
+    }
+
+    /** The {@code activity} section. */
+    public ActivitySettings getActivity() {
+        return activity;
+    }
+
+    /** The {@code particleBudget} section, for {@link ParticleBudget}; a missing section means defaults. */
+    public static final class ParticleBudgetSettings {
+        private final boolean enabled;
+        private final int maxPerTick;
+        private final int maxPerPlayerPerTick;
+        private final int fullDetailPlayers;
+        private final double msptSoftLimit;
+        private final double msptHardLimit;
+        private final double minimumScale;
+        private final double caveScale;
+        private final double vehicleScale;
+        private final double fastMovingScale;
+
+        private ParticleBudgetSettings(FileConfiguration config, List<String> found) {
+            enabled = config.getBoolean("particleBudget.enabled", true);
+            maxPerTick = atLeast(config, "particleBudget.maxPerTick", 2500, 1, found);
+            maxPerPlayerPerTick = atLeast(config, "particleBudget.maxPerPlayerPerTick", 60, 1, found);
+            fullDetailPlayers = atLeast(config, "particleBudget.fullDetailPlayers", 25, 1, found);
+            msptSoftLimit = atLeast(config, "particleBudget.msptSoftLimit", 40.0, 1.0, found);
+            msptHardLimit = atLeast(config, "particleBudget.msptHardLimit", 50.0, msptSoftLimit + 1, found);
+            minimumScale = fraction(config, "particleBudget.minimumScale", 0.15, found);
+            caveScale = fraction(config, "particleBudget.caveScale", 0.35, found);
+            vehicleScale = fraction(config, "particleBudget.vehicleScale", 0.5, found);
+            fastMovingScale = fraction(config, "particleBudget.fastMovingScale", 0.4, found);
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public int getMaxPerTick() {
+            return maxPerTick;
+        }
+
+        public int getMaxPerPlayerPerTick() {
+            return maxPerPlayerPerTick;
+        }
+
+        public int getFullDetailPlayers() {
+            return fullDetailPlayers;
+        }
+
+        public double getMsptSoftLimit() {
+            return msptSoftLimit;
+        }
+
+        /** Always at least a millisecond past {@link #getMsptSoftLimit()}. */
+        public double getMsptHardLimit() {
+            return msptHardLimit;
+        }
+
+        public double getMinimumScale() {
+            return minimumScale;
+        }
+
+        public double getCaveScale() {
+            return caveScale;
+        }
+
+        public double getVehicleScale() {
+            return vehicleScale;
+        }
+
+        public double getFastMovingScale() {
+            return fastMovingScale;
+        }
+    }
+
+    /** The {@code activity} section, for {@link ActivityTracker}; a missing section means defaults. */
+    public static final class ActivitySettings {
+        private final boolean enabled;
+        private final long idleMillis;
+        private final long afkMillis;
+        private final double idleScale;
+
+        private ActivitySettings(FileConfiguration config, List<String> found) {
+            enabled = config.getBoolean("activity.enabled", true);
+            int idleSeconds = atLeast(config, "activity.idleSeconds", 60, 1, found);
+            int afkSeconds = atLeast(config, "activity.afkSeconds", 300, idleSeconds, found);
+            idleMillis = idleSeconds * 1000L;
+            afkMillis = afkSeconds * 1000L;
+            idleScale = fraction(config, "activity.idleScale", 0.5, found);
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /** {@code idleSeconds} in milliseconds. */
+        public long getIdleMillis() {
+            return idleMillis;
+        }
+
+        /** {@code afkSeconds} in milliseconds; never shorter than {@link #getIdleMillis()}. */
+        public long getAfkMillis() {
+            return afkMillis;
+        }
+
+        public double getIdleScale() {
+            return idleScale;
+        }
+    }
+
+    /**
+     * One mood's entry under {@code moods:}: the settings every mood has, plus a copy of its section.
+     * The copy is taken once, on load, lists and all, so nothing in it changes when config.yml is
+     * edited or reloaded.
+     */
+    public static final class MoodSettings {
+        private final boolean enabled;
+        private final int weight;
+        private final int duration;
+        private final String rarityTag;
+        private final String displayName;
+        // Path -> value for every leaf of the mood's section, for changedSince; null when it has no section.
+        private final Map<String, Object> values;
+        private final ConfigurationSection section;
+
+        private MoodSettings(String key, ConfigurationSection section, int defaultDuration, List<String> found) {
+            this.enabled = section.getBoolean("enabled", false);
+            int configuredWeight = section.getInt("weight", 1);
+            if (configuredWeight < 0) {
+                found.add("moods." + key + ".weight is negative; the mood will never be picked at random.");
+            }
+            this.weight = Math.max(0, configuredWeight);
+            int configuredDuration = section.getInt("duration", defaultDuration);
+            if (configuredDuration <= 0) {
+                found.add("moods." + key + ".duration is " + configuredDuration + "; using 1 second.");
+            }
+            this.duration = Math.max(1, configuredDuration);
+            this.rarityTag = section.getString("rarityTag", "");
+            this.displayName = section.getString("displayName", key);
+            this.values = leaves(section);
+            this.section = detached(values);
+        }
+
+        private MoodSettings(int defaultDuration) {
+            this.enabled = false;
+            this.weight = 1;
+            this.duration = defaultDuration;
+            this.rarityTag = "";
+            this.displayName = "";
+            this.values = null;
+            this.section = null;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        /** In seconds. */
+        public int getDuration() {
+            return duration;
+        }
+
+        public String getRarityTag() {
+            return rarityTag;
+        }
+
+        /** {@code displayName}, or the mood's config key when it has none. */
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * The mood's own section, for its specific keys; {@code null} if it has none. Detached from
+         * config.yml and built once per snapshot, so the caller may keep it, but it is shared by
+         * every caller and every thread: read it, never set anything in it.
+         */
+        public ConfigurationSection getSection() {
+            return section;
+        }
+
+        /**
+         * The paths under this mood's section (e.g. {@code fogRecolor},
+         * {@code bloodMoonEvents.enabled}) whose value differs from {@code previous}, counting
+         * keys that were added or removed. Empty if nothing changed.
+         */
+        public Set<String> changedSince(MoodSettings previous) {
+            Map<String, Object> now = values != null ? values : Collections.emptyMap();
+            Map<String, Object> before = previous.values != null ? previous.values : Collections.emptyMap();
+            Set<String> changed = new HashSet<>();
+            for (Map.Entry<String, Object> entry : now.entrySet()) {
+                if (!Objects.equals(entry.getValue(), before.get(entry.getKey()))) {
+                    changed.add(entry.getKey());
+                }
+            }
+            for (String path : before.keySet()) {
+                if (!now.containsKey(path)) changed.add(path);
+            }
+            return changed;
+        }
+
+        private static Map<String, Object> leaves(ConfigurationSection section) {
+            Map<String, Object> leaves = new HashMap<>();
+            for (Map.Entry<String, Object> entry : section.getValues(true).entrySet()) {
+                Object value = entry.getValue();
+                if (value instanceof ConfigurationSection) {
+                    // Kept so an empty section still reads back as a section rather than as missing.
+                    if (((ConfigurationSection) value).getKeys(false).isEmpty()) {
+                        leaves.put(entry.getKey(), EmptySection.INSTANCE);
+                    }
+                } else {
+                    leaves.put(entry.getKey(), copy(value));
+                }
+            }
+            return Collections.unmodifiableMap(leaves);
+        }
+
+        private static ConfigurationSection detached(Map<String, Object> values) {
+            MemoryConfiguration section = new MemoryConfiguration();
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                if (entry.getValue() instanceof EmptySection) {
+                    section.createSection(entry.getKey());
+                } else {
+                    section.set(entry.getKey(), entry.getValue());
+                }
+            }
+            return section;
+        }
+
+        /** {@code value} with every list and map in it copied and made read-only. */
+        private static Object copy(Object value) {
+            if (value instanceof List) {
+                List<Object> list = new ArrayList<>();
+                for (Object element : (List<?>) value) list.add(copy(element));
+                return Collections.unmodifiableList(list);
+            }
+            if (value instanceof Map) {
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) map.put(entry.getKey(), copy(entry.getValue()));
+                return Collections.unmodifiableMap(map);
+            }
+            if (value instanceof ConfigurationSection) {
+                return copy(((ConfigurationSection) value).getValues(false));
+            }
+            return value;
+        }
+    }
+
+    /** Stands in for a section with no keys in {@link MoodSettings}'s value map. */
+    private enum EmptySection {
+        INSTANCE
+    }
+}
@@ -2,15 +2,20 @@ package com.rex.worldMood;
 
 import org.bukkit.Bukkit;
 import org.bukkit.GameRule;
+import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.WorldBorder;
 import org.bukkit.block.Biome;
+import org.bukkit.block.Block;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collection;
@@ -20,48 +25,69 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Crash-safety net for <b>persistent</b> world state.
  * <p>
  * Some moods change settings that live in the world's own save data and therefore outlive the
- * plugin: {@code doMobSpawning} (CalmSkies), the world border (BloodMoon, VoidTension), and the
- * per-cell biomes used for coloured fog ({@link FogController}). Restoring those only in
+ * plugin: {@code doMobSpawning} (CalmSkies), the world border (BloodMoon, VoidTension), the
+ * per-cell biomes used for coloured fog ({@link FogController}), and blocks swapped out for a few
+ * seconds ({@link BlockRevertQueue}). Restoring those only in
  * {@code Mood.remove()} is not enough — if the server crashes, is killed, or throws partway through
  * removal, the change becomes permanent and invisible. A server could be left with mob spawning
  * switched off forever, or a permanently red-fogged world, long after WorldMood was uninstalled.
  * <p>
  * So every such change is written to disk <i>before</i> it is applied, and cleared once it has been
  * undone. On startup {@link #restorePending()} puts back anything an unclean shutdown left behind.
+ * Block swaps come from region threads on Folia, in bursts, so they have a journal of their own
+ * that no region thread ever waits on (see {@link #journalSwaps}); everything else is synchronized.
  */
 public class WorldStateGuard {
 
     private static final String FILE_NAME = "pending-world-state.yml";
+    private static final String BLOCK_JOURNAL_NAME = "pending-block-swaps.log";
 
     private final WorldMood plugin;
     private final File file;
     private final YamlConfiguration data;
+    private final File blockJournal;
+    private final ExecutorService journalWriter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "WorldMood-BlockJournal");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Journal lines and callbacks waiting for the next write. Guarded by journalLock, never by this.
+    private final Object journalLock = new Object();
+    private final List<String> journalLines = new ArrayList<>();
+    private final List<Runnable> journalCallbacks = new ArrayList<>();
+    private boolean journalWriteQueued;
+    private int outstandingSwaps; // journal thread only
 
     public WorldStateGuard(WorldMood plugin) {
         this.plugin = plugin;
         this.file = new File(plugin.getDataFolder(), FILE_NAME);
         this.data = YamlConfiguration.loadConfiguration(file);
+        this.blockJournal = new File(plugin.getDataFolder(), BLOCK_JOURNAL_NAME);
     }
 
     /** Records a boolean game rule's original value. Call immediately BEFORE changing it. */
-    public void recordGameRule(World world, GameRule<Boolean> rule, boolean originalValue) {
+    public synchronized void recordGameRule(World world, GameRule<Boolean> rule, boolean originalValue) {
         data.set("gamerules." + world.getUID() + "." + rule.getName(), originalValue);
         save();
     }
 
     /** Clears the record once the rule has been restored normally. */
-    public void clearGameRule(World world, GameRule<Boolean> rule) {
+    public synchronized void clearGameRule(World world, GameRule<Boolean> rule) {
         data.set("gamerules." + world.getUID() + "." + rule.getName(), null);
         save();
     }
 
     /** Snapshots the world border as it is right now. Call immediately BEFORE changing it. */
-    public void recordBorder(World world) {
+    public synchronized void recordBorder(World world) {
         WorldBorder border = world.getWorldBorder();
         String path = "borders." + world.getUID() + ".";
         data.set(path + "centerX", border.getCenter().getX());
@@ -75,7 +101,7 @@ public class WorldStateGuard {
     }
 
     /** Clears the record once the border has been restored normally. */
-    public void clearBorder(World world) {
+    public synchronized void clearBorder(World world) {
         data.set("borders." + world.getUID(), null);
         save();
     }
@@ -90,7 +116,7 @@ public class WorldStateGuard {
     private static final int BYTES_PER_CELL = 12;
 
     /** Records the complete set of tinted cells for a world. Call BEFORE swapping newly-added cells. */
-    public void saveFog(World world, Collection<BiomeFog.Cell> cells) {
+    public synchronized void saveFog(World world, Collection<BiomeFog.Cell> cells) {
         if (cells == null || cells.isEmpty()) {
             clearFogWorld(world);
             return;
@@ -114,26 +140,122 @@ public class WorldStateGuard {
     }
 
     /** Clears the fog record for one world once its cells have been restored normally. */
-    public void clearFogWorld(World world) {
+    public synchronized void clearFogWorld(World world) {
         data.set("fog." + world.getUID(), null);
         save();
     }
 
     /** Clears every fog record (used when a mood ends and all cells are restored). */
-    public void clearFog() {
+    public synchronized void clearFog() {
         if (data.getConfigurationSection("fog") != null) {
             data.set("fog", null);
             save();
         }
     }
 
+    // ------------------------------------------------------------------
+    // Temporarily swapped blocks (BlockRevertQueue). They arrive from region
+    // threads in bursts, so instead of a YAML section rewritten and saved on
+    // every swap they go to an append-only journal: one line per block placed,
+    // "S world x y z PLACED original-block-data", and one per block put back,
+    // "R world x y z". One journal thread appends whatever has queued up since
+    // its last write in a single write, and empties the file once nothing in
+    // it is outstanding.
+    // ------------------------------------------------------------------
+
+    /**
+     * Appends {@code swaps} to the block journal and runs {@code then}, on the journal thread, once
+     * they are on disk; place the blocks from there. Returns straight away, so a region thread
+     * never waits on the disk, and swaps from every region that arrive together share one write.
+     */
+    public void journalSwaps(World world, Collection<BlockRevertQueue.Swap> swaps, Runnable then) {
+        List<String> lines = new ArrayList<>(swaps.size());
+        for (BlockRevertQueue.Swap swap : swaps) {
+            lines.add("S " + world.getUID() + " " + swap.x + " " + swap.y + " " + swap.z + " "
+                    + swap.placed.name() + " " + swap.original.getAsString());
+        }
+        queueJournal(lines, then);
+    }
+
+    /** Notes that {@code swaps} have been put back. Nothing waits for this write. */
+    public void journalReverted(World world, Collection<BlockRevertQueue.Swap> swaps) {
+        List<String> lines = new ArrayList<>(swaps.size());
+        for (BlockRevertQueue.Swap swap : swaps) {
+            lines.add("R " + world.getUID() + " " + swap.x + " " + swap.y + " " + swap.z);
+        }
+        queueJournal(lines, null);
+    }
+
+    /** Writes whatever is still queued for the block journal and stops its thread. Called on disable. */
+    public void close() {
+        journalWriter.shutdown();
+        try {
+            if (!journalWriter.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out writing " + BLOCK_JOURNAL_NAME + "; the next startup will replay it.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void queueJournal(List<String> lines, Runnable then) {
+        synchronized (journalLock) {
+            journalLines.addAll(lines);
+            if (then != null) journalCallbacks.add(then);
+            if (journalWriteQueued) return;
+            journalWriteQueued = true;
+        }
+        try {
+            journalWriter.execute(this::writeJournal);
+        } catch (RejectedExecutionException e) {
+            // Closed: the plugin is shutting down and nothing queued now will be placed.
+        }
+    }
+
+    private void writeJournal() {
+        List<String> lines;
+        List<Runnable> callbacks;
+        synchronized (journalLock) {
+            lines = new ArrayList<>(journalLines);
+            callbacks = new ArrayList<>(journalCallbacks);
+            journalLines.clear();
+            journalCallbacks.clear();
+            journalWriteQueued = false;
+        }
+        for (String line : lines) {
+            outstandingSwaps += line.startsWith("S ") ? 1 : -1;
+        }
+        try {
+            if (outstandingSwaps <= 0) {
+                // Everything journalled has been put back: start the next burst from an empty file.
+                outstandingSwaps = 0;
+                Files.deleteIfExists(blockJournal.toPath());
+            } else {
+                File folder = plugin.getDataFolder();
+                if (!folder.exists() && !folder.mkdirs()) throw new IOException("could not create " + folder);
+                Files.write(blockJournal.toPath(), lines, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Could not write " + BLOCK_JOURNAL_NAME + " — swapped blocks are NOT "
+                    + "protected against a crash: " + e.getMessage());
+        }
+        for (Runnable callback : callbacks) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                plugin.getLogger().warning("A block swap failed after it was journalled: " + e);
+            }
+        }
+    }
+
     /**
      * Restores anything left behind by an unclean shutdown, then wipes the record.
      * Safe (and cheap) to call when nothing is pending.
      *
      * @return how many settings were put back
      */
-    public int restorePending() {
+    public synchronized int restorePending() {
         int restored = 0;
 
         ConfigurationSection rules = data.getConfigurationSection("gamerules");
@@ -178,6 +300,7 @@ public class WorldStateGuard {
         }
 
         restored += restoreFog();
+        restored += restoreBlocks();
 
         if (restored > 0) {
             data.set("gamerules", null);
@@ -240,6 +363,76 @@ public class WorldStateGuard {
         return restored;
     }
 
+    /**
+     * Puts back every swapped block an unclean shutdown left behind, unless something else has
+     * replaced it since, then empties the journal. Lines that cannot be read are dropped, and so
+     * are blocks in a world that is not loaded, with a warning, rather than kept for every startup
+     * to come. Returns the number of blocks restored.
+     */
+    private int restoreBlocks() {
+        if (!blockJournal.exists()) return 0;
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(blockJournal.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Could not read " + BLOCK_JOURNAL_NAME + "; keeping it for the next start: " + e.getMessage());
+            return 0;
+        }
+
+        // "world x y z" -> the swap still outstanding there, in the order the blocks were placed.
+        Map<String, String[]> pending = new LinkedHashMap<>();
+        int unreadable = 0;
+        for (String line : lines) {
+            String[] parts = line.split(" ", 7);
+            if (parts[0].equals("S") && parts.length == 7) {
+                pending.put(parts[1] + " " + parts[2] + " " + parts[3] + " " + parts[4], parts);
+            } else if (parts[0].equals("R") && parts.length == 5) {
+                pending.remove(parts[1] + " " + parts[2] + " " + parts[3] + " " + parts[4]);
+            } else if (!line.isEmpty()) {
+                unreadable++;
+            }
+        }
+
+        Map<String, Integer> restoredPerWorld = new LinkedHashMap<>();
+        Map<String, Integer> missingPerWorld = new LinkedHashMap<>();
+        for (String[] parts : pending.values()) {
+            World world = worldFor(parts[1]);
+            if (world == null) {
+                missingPerWorld.merge(parts[1], 1, Integer::sum);
+                continue;
+            }
+            try {
+                Block block = world.getBlockAt(Integer.parseInt(parts[2]), Integer.parseInt(parts[3]),
+                        Integer.parseInt(parts[4]));
+                if (block.getType() != Material.getMaterial(parts[5])) continue;
+                block.setBlockData(Bukkit.createBlockData(parts[6]), true);
+                restoredPerWorld.merge(world.getName(), 1, Integer::sum);
+            } catch (IllegalArgumentException e) {
+                // Covers NumberFormatException too: a corrupt line, or block data this version can't parse.
+                unreadable++;
+            }
+        }
+
+        try {
+            Files.deleteIfExists(blockJournal.toPath());
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not empty " + BLOCK_JOURNAL_NAME + ": " + e.getMessage());
+        }
+
+        if (unreadable > 0) {
+            plugin.getLogger().warning("Dropped " + unreadable + " unreadable line(s) from " + BLOCK_JOURNAL_NAME + ".");
+        }
+        missingPerWorld.forEach((worldId, count) -> plugin.getLogger().warning("Dropped " + count
+                + " swapped block(s) in world " + worldId + ", which is not loaded; they stay as they are."));
+        int restored = 0;
+        for (Map.Entry<String, Integer> entry : restoredPerWorld.entrySet()) {
+            plugin.getLogger().warning("Restored " + entry.getValue() + " swapped blocks in world '"
+                    + entry.getKey() + "' after an unclean shutdown.");
+            restored += entry.getValue();
+        }
+        return restored;
+    }
+
     private World worldFor(String uid) {
         try {
             return Bukkit.getWorld(UUID.fromString(uid));
@@ -1,13 +1,20 @@
 package com.rex.worldMood.commands;
 
+import com.rex.worldMood.ActivityTracker;
+import com.rex.worldMood.AtmosphereRenderer;
+import com.rex.worldMood.EffectsProfile;
+import com.rex.worldMood.ParticleBudget;
+import com.rex.worldMood.WeightedEventTable;
 import com.rex.worldMood.WorldMood;
+import com.rex.worldMood.WorldMoodSettings;
 import com.rex.worldMood.moods.Mood;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
-import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
 import org.bukkit.util.StringUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -24,7 +31,8 @@ public class WorldMoodCommand implements CommandExecutor, TabCompleter {
     private final WorldMood plugin;
     private static final String NO_PERM = ChatColor.RED + "You do not have permission to use this command.";
     private static final String PREFIX = ChatColor.DARK_AQUA + "[WorldMood] " + ChatColor.AQUA;
-    private static final List<String> SUBCOMMANDS = Arrays.asList("reload", "start", "skip", "list", "stop", "info");
+    private static final List<String> SUBCOMMANDS = Arrays.asList("reload", "start", "skip", "list", "stop", "info", "stats", "effects");
+    private static final List<String> EFFECT_LEVELS = Arrays.asList("full", "reduced", "minimal");
 
     public WorldMoodCommand(WorldMood plugin) {
         this.plugin = plugin;
@@ -32,6 +40,12 @@ public class WorldMoodCommand implements CommandExecutor, TabCompleter {
 
     @Override
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
+        if (args.length > 0 && args[0].equalsIgnoreCase("effects")) {
+            // A player's own setting, open to everyone with worldmood.effects. It lives in their
+            // persistent data, so it runs on their thread rather than the global one.
+            effects(sender, label, args);
+            return true;
+        }
         if (!sender.hasPermission("worldmood.admin")) {
             sender.sendMessage(NO_PERM);
             return true;
@@ -42,13 +56,20 @@ public class WorldMoodCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
+        // Mood state lives on the global thread. On Spigot/Paper that is the thread we are already
+        // on and this runs inline; on Folia a player's command arrives on their region thread.
+        plugin.getScheduler().runGlobal(() -> execute(sender, label, args));
+        return true;
+    }
+
+    private void execute(CommandSender sender, String label, String[] args) {
         String subCommand = args[0].toLowerCase();
 
         switch (subCommand) {
             case "reload":
                 if (args.length > 1) {
                     sender.sendMessage(PREFIX + ChatColor.RED + "Usage: /" + label + " reload");
-                    return true;
+                    return;
                 }
                 plugin.reloadPluginConfig();
                 sender.sendMessage(PREFIX + "Configuration reloaded successfully!");
@@ -65,7 +86,7 @@ public class WorldMoodCommand implements CommandExecutor, TabCompleter {
                     } else {
                         sender.sendMessage(PREFIX + ChatColor.GRAY + "Enabled keys: " + String.join(", ", enabledKeysForStart));
                     }
-                    return true;
+                    return;
                 }
                 String moodKeyToStart = args[1].toLowerCase();
                 if (plugin.getMoodManager().startSpecificMood(moodKeyToStart)) {
@@ -80,13 +101,13 @@ public class WorldMoodCommand implements CommandExecutor, TabCompleter {
             case "stop":
                 if (args.length > 1) {
                     sender.sendMessage(PREFIX + ChatColor.RED + "Usage: /" + label + " " + subCommand);
-                    return true;
+                    return;
                 }
                 Mood currentMoodToStop = plugin.getMoodManager().getCurrentMood();
                 if (currentMoodToStop != null) {
                     sender.sendMessage(PREFIX + "Stopping current mood: " + ChatColor.WHITE + currentMoodToStop.getName() + ChatColor.AQUA + "...");
                     plugin.getMoodManager().stopCurrentMood();
-                    if (subCommand.equals("skip") && plugin.getConfig().getBoolean("randomizeMoods", true)) {
+                    if (subCommand.equals("skip") && plugin.getSettings().isRandomizeMoods()) {
                         // Report what actually happened — this used to print "attempting..." and
                         // discard the result, so a failed roll looked like a success.
                         if (plugin.getMoodManager().startRandomMood()) {
@@ -109,7 +130,7 @@ public class WorldMoodCommand implements CommandExecutor, TabCompleter {
             case "list":
                 if (args.length > 1) {
                     sender.sendMessage(PREFIX + ChatColor.RED + "Usage: /" + label + " " + subCommand);
-                    return true;
+                    return;
                 }
                 sender.sendMessage(ChatColor.DARK_AQUA + "--- WorldMood Status & Moods ---");
                 Mood activeMood = plugin.getMoodManager().getCurrentMood();
@@ -138,7 +159,7 @@ public class WorldMoodCommand implements CommandExecutor, TabCompleter {
                     sender.sendMessage(ChatColor.GRAY + "  (No moods are enabled in the configuration)");
                 } else {
                     for (Mood mood : enabledMoods) {
-                        String rarityTag = plugin.getConfig().getString("moods." + mood.getConfigKey() + ".rarityTag", "");
+                        String rarityTag = plugin.getSettings().mood(mood.getConfigKey()).getRarityTag();
                         rarityTag = rarityTag.isEmpty() ? "" : ChatColor.GOLD + " [" + rarityTag + "]";
                         sender.sendMessage(ChatColor.WHITE + "- " + mood.getName() +
                                 ChatColor.GRAY + " (key: " + mood.getConfigKey() +
@@ -148,18 +169,13 @@ public class WorldMoodCommand implements CommandExecutor, TabCompleter {
                 }
 
                 sender.sendMessage(PREFIX + ChatColor.AQUA + "Configured but Disabled Moods:");
-                ConfigurationSection moodsSection = plugin.getConfig().getConfigurationSection("moods");
+                WorldMoodSettings settings = plugin.getSettings();
                 List<String> disabledMoodMessages = new ArrayList<>();
-                if (moodsSection != null) {
-                    List<String> enabledKeysList = enabledMoods.stream().map(Mood::getConfigKey).collect(Collectors.toList());
-                    List<String> allConfiguredMoodKeys = new ArrayList<>(moodsSection.getKeys(false));
-                    allConfiguredMoodKeys.sort(String.CASE_INSENSITIVE_ORDER);
-
-                    for (String key : allConfiguredMoodKeys) {
-                        if (!enabledKeysList.contains(key.toLowerCase())) {
-                            String moodName = moodsSection.getString(key + ".displayName", key);
-                            disabledMoodMessages.add(ChatColor.DARK_GRAY + "- " + moodName + " (" + key + ")");
-                        }
+                List<String> enabledKeysList = enabledMoods.stream().map(Mood::getConfigKey).collect(Collectors.toList());
+                for (String key : settings.getMoodKeys()) {
+                    if (!enabledKeysList.contains(key.toLowerCase())) {
+                        String moodName = settings.mood(key).getDisplayName();
+                        disabledMoodMessages.add(ChatColor.DARK_GRAY + "- " + moodName + " (" + key + ")");
                     }
                 }
                 if (disabledMoodMessages.isEmpty()) {
@@ -169,12 +185,98 @@ public class WorldMoodCommand implements CommandExecutor, TabCompleter {
                 }
                 break;
 
+            case "stats":
+                if (args.length > 2 || (args.length == 2 && !args[1].equalsIgnoreCase("reset"))) {
+                    sender.sendMessage(PREFIX + ChatColor.RED + "Usage: /" + label + " stats [reset]");
+                    return;
+                }
+                ParticleBudget budget = plugin.getParticleBudget();
+                if (args.length == 2) {
+                    budget.resetMetrics();
+                    sender.sendMessage(PREFIX + "Particle counters reset.");
+                    return;
+                }
+                long requested = budget.getRequested();
+                long sent = budget.getSent();
+                sender.sendMessage(ChatColor.DARK_AQUA + "--- WorldMood Particle Budget ---");
+                sender.sendMessage(ChatColor.GRAY + "  Budgeting: " + ChatColor.WHITE + (budget.isEnabled() ? "on" : "off"));
+                sender.sendMessage(ChatColor.GRAY + "  Requested: " + ChatColor.WHITE + requested
+                        + ChatColor.GRAY + "  Sent: " + ChatColor.WHITE + sent
+                        + ChatColor.GRAY + " (" + (requested == 0 ? 100 : Math.round(sent * 100.0 / requested)) + "%)");
+                sender.sendMessage(ChatColor.GRAY + "  Server scale: " + ChatColor.WHITE + String.format("%.2f", budget.getServerScale())
+                        + ChatColor.GRAY + "  MSPT: " + ChatColor.WHITE + String.format("%.1f", budget.getMspt()));
+                int[] activity = plugin.getActivityTracker().census(Bukkit.getOnlinePlayers());
+                sender.sendMessage(ChatColor.GRAY + "  Players: " + ChatColor.WHITE + activity[ActivityTracker.Activity.ACTIVE.ordinal()]
+                        + ChatColor.GRAY + " active, " + ChatColor.WHITE + activity[ActivityTracker.Activity.IDLE.ordinal()]
+                        + ChatColor.GRAY + " idle, " + ChatColor.WHITE + activity[ActivityTracker.Activity.AFK.ordinal()]
+                        + ChatColor.GRAY + " AFK");
+                List<AtmosphereRenderer.Layer> layers = plugin.getAtmosphereRenderer().getLayers();
+                if (!layers.isEmpty()) {
+                    sender.sendMessage(ChatColor.GRAY + "  Atmosphere layers:");
+                    for (AtmosphereRenderer.Layer layer : layers) {
+                        sender.sendMessage(ChatColor.GRAY + "    - " + ChatColor.WHITE + layer.getName()
+                                + ChatColor.GRAY + " every " + layer.getPeriodTicks() + "t, "
+                                + layer.getRuns() + " runs, " + String.format("%.1f", layer.getAverageMicros()) + "\u00b5s avg"
+                                + (layer.getFailures() > 0 ? ChatColor.RED + ", " + layer.getFailures() + " failed" : ""));
+                    }
+                }
+                Mood current = plugin.getMoodManager().getCurrentMood();
+                WeightedEventTable<?> events = current == null ? null : current.getEventTable();
+                if (events != null && !events.isEmpty()) {
+                    sender.sendMessage(ChatColor.GRAY + "  " + current.getName() + " events:");
+                    for (WeightedEventTable.Event<?> event : events.getEvents()) {
+                        sender.sendMessage(ChatColor.GRAY + "    - " + ChatColor.WHITE + event.getName()
+                                + ChatColor.GRAY + " weight " + event.getWeight() + ", "
+                                + event.getRuns() + " runs, " + String.format("%.1f", event.getAverageMicros()) + "\u00b5s avg"
+                                + (event.getFailures() > 0 ? ChatColor.RED + ", " + event.getFailures() + " failed" : ""));
+                    }
+                }
+                break;
+
             default:
                 sender.sendMessage(PREFIX + ChatColor.RED + "Unknown subcommand: " + args[0]);
                 sendHelp(sender, label);
                 break;
         }
-        return true;
+    }
+
+    private void effects(CommandSender sender, String label, String[] args) {
+        if (!sender.hasPermission("worldmood.effects")) {
+            sender.sendMessage(NO_PERM);
+            return;
+        }
+        if (!(sender instanceof Player)) {
+            sender.sendMessage(PREFIX + ChatColor.RED + "Only players can choose their effects.");
+            return;
+        }
+        Player player = (Player) sender;
+        EffectsProfile profile = plugin.getEffectsProfile();
+        if (args.length == 1) {
+            sender.sendMessage(PREFIX + "Your effects: " + ChatColor.WHITE + profile.get(player).key()
+                    + ChatColor.GRAY + " (full, reduced or minimal)");
+            return;
+        }
+        EffectsProfile.Level level = args.length == 2 ? EffectsProfile.Level.parse(args[1]) : null;
+        if (level == null) {
+            sender.sendMessage(PREFIX + ChatColor.RED + "Usage: /" + label + " effects [full|reduced|minimal]");
+            return;
+        }
+        plugin.getScheduler().runFor(player, () -> {
+            profile.set(player, level);
+            switch (level) {
+                case MINIMAL:
+                    player.sendMessage(PREFIX + "Effects set to " + ChatColor.WHITE + "minimal" + ChatColor.AQUA
+                            + ": no ambient particles, screen effects or fog around you.");
+                    break;
+                case REDUCED:
+                    player.sendMessage(PREFIX + "Effects set to " + ChatColor.WHITE + "reduced" + ChatColor.AQUA
+                            + ": a lighter haze and no screen effects.");
+                    break;
+                default:
+                    player.sendMessage(PREFIX + "Effects set to " + ChatColor.WHITE + "full" + ChatColor.AQUA + ".");
+                    break;
+            }
+        });
     }
 
     private void sendHelp(CommandSender sender, String label) {
@@ -185,18 +287,30 @@ public class WorldMoodCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(ChatColor.AQUA + "/" + label + " stop" + ChatColor.GRAY + " - Stops the current mood entirely (no new mood triggered).");
         sender.sendMessage(ChatColor.AQUA + "/" + label + " list" + ChatColor.GRAY + " - Lists current status and all configured moods.");
         sender.sendMessage(ChatColor.AQUA + "/" + label + " info" + ChatColor.GRAY + " - Alias for 'list'.");
+        sender.sendMessage(ChatColor.AQUA + "/" + label + " stats [reset]" + ChatColor.GRAY + " - Particle budget and atmosphere layer costs.");
+        sender.sendMessage(ChatColor.AQUA + "/" + label + " effects [full|reduced|minimal]" + ChatColor.GRAY + " - How many ambient effects you see.");
     }
 
     @Nullable
     @Override
     public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command, @NotNull String alias, @NotNull String[] args) {
+        final List<String> completions = new ArrayList<>();
         if (!sender.hasPermission("worldmood.admin")) {
-            return Collections.emptyList();
+            if (!sender.hasPermission("worldmood.effects")) {
+                return Collections.emptyList();
+            }
+            if (args.length == 1) {
+                StringUtil.copyPartialMatches(args[0], Collections.singletonList("effects"), completions);
+            } else if (args.length == 2 && args[0].equalsIgnoreCase("effects")) {
+                StringUtil.copyPartialMatches(args[1], EFFECT_LEVELS, completions);
+            }
+            return completions;
         }
 
-        final List<String> completions = new ArrayList<>();
         if (args.length == 1) {
             StringUtil.copyPartialMatches(args[0], SUBCOMMANDS, completions);
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("effects")) {
+            StringUtil.copyPartialMatches(args[1], EFFECT_LEVELS, completions);
         } else if (args.length == 2 && args[0].equalsIgnoreCase("start")) {
             // For "start", suggest keys of moods that are currently enabled
             List<String> moodKeys = plugin.getMoodManager().getEnabledMoods()
@@ -2,6 +2,10 @@ package com.rex.worldMood.moods;
 
 import com.rex.worldMood.Atmosphere;
 import com.rex.worldMood.Compat;
+import com.rex.worldMood.MoodEventRouter;
+import com.rex.worldMood.SpawnQueue;
+import com.rex.worldMood.TaskScheduler;
+import com.rex.worldMood.WeightedEventTable;
 import com.rex.worldMood.WorldMood;
 import org.bukkit.*;
 import org.bukkit.attribute.Attribute;
@@ -9,23 +13,25 @@ import org.bukkit.attribute.AttributeInstance;
 import org.bukkit.block.Block;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.*;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
 import org.bukkit.event.entity.CreatureSpawnEvent;
 import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.SoundCategory;
 
 import java.util.*;
 
-public class BloodMoon extends Mood implements Listener {
+public class BloodMoon extends Mood {
+
+    /** Monster spawns Blood Moon buffs, in the overworld and the nether. */
+    private static final MoodEventRouter.SpawnFilter BUFFED_SPAWNS = MoodEventRouter.SpawnFilter.of(
+            EnumSet.of(CreatureSpawnEvent.SpawnReason.NATURAL, CreatureSpawnEvent.SpawnReason.REINFORCEMENTS,
+                    CreatureSpawnEvent.SpawnReason.PATROL, CreatureSpawnEvent.SpawnReason.RAID,
+                    CreatureSpawnEvent.SpawnReason.DROWNED, CreatureSpawnEvent.SpawnReason.SPAWNER,
+                    CreatureSpawnEvent.SpawnReason.SLIME_SPLIT, CreatureSpawnEvent.SpawnReason.SILVERFISH_BLOCK),
+            EnumSet.of(World.Environment.NORMAL, World.Environment.NETHER), Monster.class);
 
     private double healthMultiplier;
     private double damageMultiplier;
@@ -60,12 +66,18 @@ public class BloodMoon extends Mood implements Listener {
     private int bmHordeMobsToSpawn;
     private EntityType bmHordeSpawnType;
 
-    private BukkitTask bloodMoonEventTask = null;
+    private TaskScheduler.Task bloodMoonEventTask = null;
+    private WeightedEventTable<Runnable> eventTable;
     private final Random random = new Random();
 
     private boolean ambientHazeEnabled;
     private static final Color HAZE_RED = Color.fromRGB(150, 12, 16);
     private static final Color HAZE_DARK_RED = Color.fromRGB(88, 6, 10);
+    // Built once per activation from Atmosphere's interned palette; tick() only reuses them.
+    private Particle.DustOptions hazeRed;
+    private Particle.DustOptions hazeDarkRed;
+    private Particle.DustOptions buffedDust;
+    private Particle.DustOptions lightningDust;
 
     private boolean fogRecolorEnabled;
 
@@ -138,6 +150,15 @@ public class BloodMoon extends Mood implements Listener {
             bmEventsEnabled = false;
             plugin.getLogger().warning("[BloodMoon] Main configuration section missing. Using default values and disabling Blood Moon events.");
         }
+
+        ConfigurationSection eventsConfig = moodConfig == null ? null : moodConfig.getConfigurationSection("bloodMoonEvents");
+        WeightedEventTable.Builder<Runnable> events = WeightedEventTable.builder();
+        if (bmEventsEnabled && eventsConfig != null) {
+            if (bmFrenzyEnabled) events.add("bloodFrenzy", this::executeBloodFrenzy, eventsConfig.getConfigurationSection("bloodFrenzy"));
+            if (bmLightningEnabled) events.add("crimsonLightning", this::executeCrimsonLightning, eventsConfig.getConfigurationSection("crimsonLightning"));
+            if (bmHordeEnabled) events.add("hordeSurge", this::executeHordeSurge, eventsConfig.getConfigurationSection("hordeSurge"));
+        }
+        eventTable = events.build();
     }
 
     @Override
@@ -149,6 +170,25 @@ public class BloodMoon extends Mood implements Listener {
     }
 
 
+    /** Sets up again only what a changed switch feeds: the haze layers, the fog or the event checker. */
+    @Override
+    public void onSettingsReloaded(Set<String> changed) {
+        if (changed.contains("bloodHaze")) {
+            plugin.getAtmosphereRenderer().clear(this);
+            addLayers();
+        }
+        if (changed.contains("fogRecolor")) {
+            if (fogRecolorEnabled) {
+                plugin.getFogController().begin("worldmood:blood_moon"); // ends the running session first
+            } else {
+                plugin.getFogController().end();
+            }
+        }
+        if (changed.contains("bloodMoonEvents.enabled") || changed.contains("bloodMoonEvents.checkIntervalSeconds")) {
+            startEventChecker();
+        }
+    }
+
     @Override
     public List<String> getEffects() {
         // "Blood Red Sky" was listed here and removed: the red screen tint comes from the world
@@ -172,7 +212,13 @@ public class BloodMoon extends Mood implements Listener {
 
     @Override
     public void apply() {
-        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        hazeRed = Atmosphere.dust(HAZE_RED, 1.7f);
+        hazeDarkRed = Atmosphere.dust(HAZE_DARK_RED, 2.4f);
+        buffedDust = Atmosphere.dust(Color.fromRGB(150, 0, 0), 1.2f);
+        lightningDust = Atmosphere.dust(Color.RED, 1.5f);
+        addLayers();
+        onSpawns(BUFFED_SPAWNS, this::onCreatureSpawn);
+        onDeaths(Monster.class, this::onEntityDeath);
         plugin.getLogger().info("Blood Moon Active: Hostile mobs will be enhanced, and the sky will turn red.");
         originalBorders.clear();
 
@@ -203,36 +249,37 @@ public class BloodMoon extends Mood implements Listener {
             plugin.getFogController().begin("worldmood:blood_moon");
         }
 
-        for (Player p : Bukkit.getOnlinePlayers()) {
+        fanOut(p -> {
             p.playSound(p.getLocation(), Sound.ENTITY_ENDER_DRAGON_GROWL, SoundCategory.AMBIENT, 0.7f, 0.6f);
             p.playSound(p.getLocation(), Sound.ENTITY_WITHER_SPAWN, SoundCategory.HOSTILE, 0.5f, 0.7f);
             p.sendTitle(ChatColor.DARK_RED + "" + ChatColor.BOLD + "Blood Moon", ChatColor.RED + "The night itself bleeds...", 10, 70, 20);
-        }
+        });
 
-        // Start the Blood Moon Event scheduler
+        startEventChecker();
+    }
+
+    /** Starts the Blood Moon event checker, replacing any that is already running. */
+    private void startEventChecker() {
+        if (bloodMoonEventTask != null && !bloodMoonEventTask.isCancelled()) {
+            bloodMoonEventTask.cancel();
+        }
+        bloodMoonEventTask = null;
         if (bmEventsEnabled && bmEventCheckIntervalTicks > 0) {
-            if (bloodMoonEventTask != null && !bloodMoonEventTask.isCancelled()) {
-                bloodMoonEventTask.cancel();
-            }
-            bloodMoonEventTask = new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (plugin.getMoodManager().getCurrentMood() != BloodMoon.this) {
-                        this.cancel();
-                        return;
-                    }
-                    if (random.nextDouble() < bmOverallEventChance) {
-                        triggerRandomBloodMoonEvent();
-                    }
+            bloodMoonEventTask = plugin.getScheduler().runGlobalTimer(task -> {
+                if (plugin.getMoodManager().getCurrentMood() != BloodMoon.this) {
+                    task.cancel();
+                    return;
                 }
-            }.runTaskTimer(plugin, bmEventCheckIntervalTicks, bmEventCheckIntervalTicks);
+                if (random.nextDouble() < bmOverallEventChance) {
+                    triggerRandomBloodMoonEvent();
+                }
+            }, bmEventCheckIntervalTicks, bmEventCheckIntervalTicks);
             plugin.getLogger().info("[BloodMoon] Event checker started (Chance: " + (bmOverallEventChance*100) + "% every " + (bmEventCheckIntervalTicks/20.0) + "s).");
         }
     }
 
     @Override
     public void remove() {
-        HandlerList.unregisterAll(this);
         if (bloodMoonEventTask != null && !bloodMoonEventTask.isCancelled()) {
             bloodMoonEventTask.cancel();
             bloodMoonEventTask = null;
@@ -256,119 +303,113 @@ public class BloodMoon extends Mood implements Listener {
             }
         });
         originalBorders.clear();
-        int removedCount = 0;
-        for (World world : Bukkit.getWorlds()) {
-            if (world.getEnvironment() == World.Environment.NORMAL || world.getEnvironment() == World.Environment.NETHER) {
-                for (LivingEntity entity : world.getLivingEntities()) {
-                    if (entity instanceof Monster && !entity.isDead()) {
-                        Monster monster = (Monster) entity;
-                        if (monster.getPersistentDataContainer().has(BLOODMOON_BUFFED_KEY, PersistentDataType.BYTE)) {
-                            removeMobBuffs(monster); removedCount++;
-                        }
-                    }
+        int[] removedCount = {0};
+        forEachLivingEntity(BloodMoon::isBuffableWorld, entity -> {
+            if (entity instanceof Monster && !entity.isDead()) {
+                Monster monster = (Monster) entity;
+                if (monster.getPersistentDataContainer().has(BLOODMOON_BUFFED_KEY, PersistentDataType.BYTE)) {
+                    removeMobBuffs(monster); removedCount[0]++;
                 }
             }
-        }
-        if (removedCount > 0) plugin.getLogger().info("Removed Blood Moon buffs from " + removedCount + " entities.");
-        for (Player p : Bukkit.getOnlinePlayers()) {
+        });
+        // On region-threaded servers the pass above is still running in the players' regions.
+        if (removedCount[0] > 0) plugin.getLogger().info("Removed Blood Moon buffs from " + removedCount[0] + " entities.");
+        fanOut(p -> {
             p.playSound(p.getLocation(), Sound.BLOCK_BEACON_DEACTIVATE, SoundCategory.AMBIENT, 0.8f, 1.2f);
             p.sendTitle(ChatColor.AQUA + "The Air Clears", ChatColor.GRAY + "The blood moon fades...", 10, 60, 20);
-        }
+        });
     }
 
-    @Override
-    public void tick(long ticksRemaining) {
-        // Runs once per second (MoodManager ticks moods at 20-tick intervals).
-        Particle.DustOptions buffedDust = new Particle.DustOptions(Color.fromRGB(150, 0, 0), 1.2f);
-        for (Player player : Bukkit.getOnlinePlayers()) {
+    /** Blood Moon's ambient visuals, drawn by the shared atmosphere loop. */
+    private void addLayers() {
+        Set<World.Environment> buffable = EnumSet.of(World.Environment.NORMAL, World.Environment.NETHER);
+        if (ambientHazeEnabled) {
+            // low ominous drone under it all, a few times a minute
+            layer("drone", 100, null, true, player -> Atmosphere.ambient(player, Sound.AMBIENT_CAVE, 0.55f, 0.35f));
+        }
+        // red particles clinging to buffed mobs
+        layer("buffed-glow", 20, buffable, true, player -> {
             World world = player.getWorld();
-            if (world.getEnvironment() != World.Environment.NORMAL && world.getEnvironment() != World.Environment.NETHER) continue;
-
-            // red particles clinging to buffed mobs
             for (Entity entity : player.getNearbyEntities(30, 15, 30)) {
                 if (entity instanceof Monster && !entity.isDead()) {
                     Monster monster = (Monster) entity;
                     if (monster.getPersistentDataContainer().has(BLOODMOON_BUFFED_KEY, PersistentDataType.BYTE)) {
-                        Location particleLoc = monster.getEyeLocation().subtract(0, 0.2, 0);
-                        world.spawnParticle(Compat.DUST, particleLoc, 3, 0.4, 0.4, 0.4, 0, buffedDust);
+                        Location eyes = Atmosphere.eyes(monster);
+                        world.spawnParticle(Compat.DUST, eyes.getX(), eyes.getY() - 0.2, eyes.getZ(), 3, 0.4, 0.4, 0.4, 0, buffedDust);
                         if (Math.random() < 0.05) {
-                            world.spawnParticle(Compat.SMOKE, monster.getLocation().add(0, 0.5, 0), 1, 0.2, 0.2, 0.2, 0.01);
+                            double feet = eyes.getY() - monster.getEyeHeight();
+                            world.spawnParticle(Compat.SMOKE, eyes.getX(), feet + 0.5, eyes.getZ(), 1, 0.2, 0.2, 0.2, 0.01);
                         }
                     }
                 }
             }
-
-            // drifting blood haze that fills the player's view (client-side, transient)
-            if (ambientHazeEnabled) {
-                Atmosphere.dustHaze(player, HAZE_RED, 1.7f, 36, 7.5);
-                Atmosphere.dustHaze(player, HAZE_DARK_RED, 2.4f, 12, 4.0);
-            }
+        });
+        // drifting blood haze that fills the player's view (client-side, transient)
+        if (ambientHazeEnabled) {
+            layer("haze", 20, buffable, true, player -> {
+                Atmosphere.dustHaze(player, hazeRed, 36, 7.5);
+                Atmosphere.dustHaze(player, hazeDarkRed, 12, 4.0);
+            });
         }
+    }
 
-        // low ominous drone under it all, a few times a minute
-        if (ambientHazeEnabled && secondsElapsed % 5 == 0) {
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                Atmosphere.ambient(player, Sound.AMBIENT_CAVE, 0.55f, 0.35f);
-            }
-        }
+    private static boolean isBuffableWorld(World world) {
+        return world.getEnvironment() == World.Environment.NORMAL || world.getEnvironment() == World.Environment.NETHER;
     }
 
     private void triggerRandomBloodMoonEvent() {
-        List<Runnable> possibleEvents = new ArrayList<>();
-        if (bmFrenzyEnabled) possibleEvents.add(this::executeBloodFrenzy);
-        if (bmLightningEnabled) possibleEvents.add(this::executeCrimsonLightning);
-        if (bmHordeEnabled) possibleEvents.add(this::executeHordeSurge);
-
-        if (possibleEvents.isEmpty()) {
-            // plugin.getLogger().info("[BloodMoon] No blood moon events are enabled to trigger.");
-            return;
+        // null when no event is enabled, or every enabled one is cooling down
+        WeightedEventTable.Event<Runnable> event = eventTable.pick(random);
+        if (event == null) return;
+        long start = System.nanoTime();
+        try {
+            event.getAction().run();
+        } catch (RuntimeException e) {
+            event.recordFailure();
+            plugin.getLogger().warning("[BloodMoon] Event " + event.getName() + " failed: " + e);
+        } finally {
+            event.recordRun(start);
         }
-        possibleEvents.get(random.nextInt(possibleEvents.size())).run();
+    }
+
+    @Override
+    public WeightedEventTable<?> getEventTable() {
+        return eventTable;
     }
 
     private void executeBloodFrenzy() {
         plugin.getLogger().info("[BloodMoon Event] Blood Frenzy triggered!");
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            player.playSound(player.getLocation(), Sound.ENTITY_ENDER_DRAGON_GROWL, SoundCategory.HOSTILE, 0.8f, 0.5f);
-            if (Compat.WOLF_HOWL != null) player.playSound(player.getLocation(), Compat.WOLF_HOWL, SoundCategory.HOSTILE, 1.0f, 0.7f);
-        }
         Bukkit.broadcastMessage(ChatColor.DARK_RED + "[BloodMoon] " + ChatColor.RED + "A wave of bloodlust empowers the beasts of the night!");
 
         PotionEffect speedFrenzy = new PotionEffect(Compat.SPEED, bmFrenzyDurationTicks, bmFrenzySpeedAmplifier, false, true, true);
 
-        for (World world : Bukkit.getWorlds()) {
-            if (world.getEnvironment() == World.Environment.NORMAL || world.getEnvironment() == World.Environment.NETHER) {
-                for (LivingEntity entity : world.getLivingEntities()) {
-                    if (entity instanceof Monster && !entity.isDead()
-                            && entity.getPersistentDataContainer().has(BLOODMOON_BUFFED_KEY, PersistentDataType.BYTE)) {
-                        Monster monster = (Monster) entity;
-                        boolean nearPlayer = false;
-                        for (Player player : Bukkit.getOnlinePlayers()) {
-                            if (player.getWorld().equals(monster.getWorld()) && player.getLocation().distanceSquared(monster.getLocation()) < 64 * 64) {
-                                nearPlayer = true;
-                                break;
-                            }
-                        }
-                        if (nearPlayer) {
-                            monster.addPotionEffect(speedFrenzy, true);
-                            monster.getWorld().spawnParticle(Compat.DAMAGE_INDICATOR, monster.getEyeLocation(), 5, 0.3, 0.3, 0.3, 0.1);
-                        }
-                    }
+        // Only buffed mobs within 64 blocks of a player frenzy, so walk outward from the players
+        // instead of over every entity in every world. A mob near two players is simply refreshed.
+        forEachPlayer(player -> {
+            player.playSound(player.getLocation(), Sound.ENTITY_ENDER_DRAGON_GROWL, SoundCategory.HOSTILE, 0.8f, 0.5f);
+            if (Compat.WOLF_HOWL != null) player.playSound(player.getLocation(), Compat.WOLF_HOWL, SoundCategory.HOSTILE, 1.0f, 0.7f);
+            if (!isBuffableWorld(player.getWorld())) return;
+            Location at = player.getLocation();
+            for (Entity entity : player.getNearbyEntities(64, 64, 64)) {
+                if (entity instanceof Monster && !entity.isDead()
+                        && entity.getPersistentDataContainer().has(BLOODMOON_BUFFED_KEY, PersistentDataType.BYTE)
+                        && at.distanceSquared(entity.getLocation()) < 64 * 64) {
+                    Monster monster = (Monster) entity;
+                    monster.addPotionEffect(speedFrenzy, true);
+                    monster.getWorld().spawnParticle(Compat.DAMAGE_INDICATOR, monster.getEyeLocation(), 5, 0.3, 0.3, 0.3, 0.1);
                 }
             }
-        }
+        });
     }
 
     private void executeCrimsonLightning() {
         plugin.getLogger().info("[BloodMoon Event] Crimson Lightning crackles!");
         Bukkit.broadcastMessage(ChatColor.DARK_RED + "[BloodMoon] " + ChatColor.RED + "The sky bleeds crimson lightning!");
 
-        Particle.DustOptions redDust = new Particle.DustOptions(Color.RED, 1.5f);
-
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.getGameMode() == GameMode.SPECTATOR) continue;
+        forEachPlayer(player -> {
+            if (player.getGameMode() == GameMode.SPECTATOR) return;
             World world = player.getWorld();
-            if (world.getEnvironment() != World.Environment.NORMAL && world.getEnvironment() != World.Environment.THE_END) continue; // Overworld & End
+            if (world.getEnvironment() != World.Environment.NORMAL && world.getEnvironment() != World.Environment.THE_END) return; // Overworld & End
 
             for (int i = 0; i < bmLightningStrikesPerPlayer; i++) {
                 Location playerLoc = player.getLocation();
@@ -379,40 +420,41 @@ public class BloodMoon extends Mood implements Listener {
 
                 if (strikeLoc.getBlock().isPassable() && strikeLoc.clone().add(0,1,0).getBlock().isPassable()) {
                     world.strikeLightningEffect(strikeLoc); // Visual only lightning
-                    world.spawnParticle(Compat.DUST, strikeLoc, 50, 0.5, 0.5, 0.5, 0, redDust);
+                    world.spawnParticle(Compat.DUST, strikeLoc, 50, 0.5, 0.5, 0.5, 0, lightningDust);
                     world.spawnParticle(Compat.LAVA, strikeLoc, 10, 0.3, 0.3, 0.3, 0);
                     if (player.getLocation().distanceSquared(strikeLoc) < 5*5 && random.nextDouble() < 0.3) {
                         player.addPotionEffect(new PotionEffect(Compat.SLOWNESS, 60, 0), true);
                     }
                 }
             }
-        }
+        });
     }
 
     private void executeHordeSurge() {
         plugin.getLogger().info("[BloodMoon Event] A Horde Surge begins!");
         Bukkit.broadcastMessage(ChatColor.DARK_RED + "[BloodMoon] " + ChatColor.RED + "More horrors crawl from the shadows!");
 
+        // Queued rather than spawned here: a few per tick, skipped where mobs are already dense.
+        SpawnQueue spawnQueue = plugin.getSpawnQueue();
         for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.getGameMode() == GameMode.SPECTATOR || player.getGameMode() == GameMode.CREATIVE) continue;
-            World world = player.getWorld();
-            if (world.getEnvironment() != World.Environment.NORMAL && world.getEnvironment() != World.Environment.NETHER) continue;
-
             for (int i = 0; i < bmHordeMobsToSpawn; i++) {
-                Location playerLoc = player.getLocation();
-                double offsetX = (random.nextDouble() - 0.5) * 20;
-                double offsetZ = (random.nextDouble() - 0.5) * 20;
-                Location spawnBase = playerLoc.clone().add(offsetX, 0, offsetZ);
+                spawnQueue.near(this, player, bmHordeSpawnType, this::findHordeSpawnLocation, this::buffSpawned);
+            }
+        }
+    }
 
-                Location spawnLoc = findSafeSpawnLocation(spawnBase, 5);
+    /** Where one horde mob goes around {@code player}, or {@code null} if they should get none. */
+    private Location findHordeSpawnLocation(Player player) {
+        if (player.getGameMode() == GameMode.SPECTATOR || player.getGameMode() == GameMode.CREATIVE) return null;
+        if (!isBuffableWorld(player.getWorld())) return null;
+        double offsetX = (random.nextDouble() - 0.5) * 20;
+        double offsetZ = (random.nextDouble() - 0.5) * 20;
+        return findSafeSpawnLocation(player.getLocation().add(offsetX, 0, offsetZ), 5);
+    }
 
-                if (spawnLoc != null) {
-                    Entity spawned = world.spawnEntity(spawnLoc, bmHordeSpawnType);
-                    if (spawned instanceof Monster) {
-                        buffMob((Monster) spawned);
-                    }
-                }
-            }
+    private void buffSpawned(Entity spawned) {
+        if (spawned instanceof Monster) {
+            buffMob((Monster) spawned);
         }
     }
 
@@ -437,56 +479,30 @@ public class BloodMoon extends Mood implements Listener {
         }
         return null;
     }
-    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
-    public void onCreatureSpawn(CreatureSpawnEvent event) {
-        if (!(event.getEntity() instanceof Monster)) return;
+    /** A buffable monster spawn (see {@link #BUFFED_SPAWNS}). */
+    private void onCreatureSpawn(CreatureSpawnEvent event) {
         Monster monster = (Monster) event.getEntity();
-        World.Environment env = monster.getWorld().getEnvironment();
-        if (env != World.Environment.NORMAL && env != World.Environment.NETHER) return;
-
-        boolean shouldBuff;
-        switch (event.getSpawnReason()) {
-            case NATURAL:
-            case REINFORCEMENTS:
-            case PATROL:
-            case RAID:
-            case DROWNED:
-            case SPAWNER:
-            case SLIME_SPLIT:
-            case SILVERFISH_BLOCK:
-                shouldBuff = true;
-                break;
-            default:
-                shouldBuff = false;
-                break;
-        }
-        if (shouldBuff) {
-            buffMob(monster);
-
-            if (event.getSpawnReason() == CreatureSpawnEvent.SpawnReason.NATURAL && spawnRateMultiplier > 1.0 && Math.random() < (spawnRateMultiplier - 1.0)) {
-                Location loc = monster.getLocation();
-                for (int i = 0; i < 3; i++) {
-                    Location potentialLoc = loc.clone().add(Math.random() * 6 - 3, 0, Math.random() * 6 - 3);
-                    if (potentialLoc.getBlock().isPassable() && potentialLoc.clone().add(0,1,0).getBlock().isPassable() && potentialLoc.clone().add(0,-1,0).getBlock().getType().isSolid()) {
-                        Monster extra = (Monster) monster.getWorld().spawnEntity(potentialLoc, monster.getType());
-                        buffMob(extra);
-                        break;
-                    }
+        buffMob(monster);
+
+        if (event.getSpawnReason() == CreatureSpawnEvent.SpawnReason.NATURAL && spawnRateMultiplier > 1.0 && Math.random() < (spawnRateMultiplier - 1.0)) {
+            Location loc = monster.getLocation();
+            for (int i = 0; i < 3; i++) {
+                Location potentialLoc = loc.clone().add(Math.random() * 6 - 3, 0, Math.random() * 6 - 3);
+                if (potentialLoc.getBlock().isPassable() && potentialLoc.clone().add(0,1,0).getBlock().isPassable() && potentialLoc.clone().add(0,-1,0).getBlock().getType().isSolid()) {
+                    // Spawned a tick or so later by the spawn queue, not inside this event.
+                    plugin.getSpawnQueue().at(this, potentialLoc, monster.getType(), this::buffSpawned);
+                    break;
                 }
             }
         }
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onEntityDeath(EntityDeathEvent event) {
-        if (event.getEntity() instanceof Monster) {
-            Monster monster = (Monster) event.getEntity();
-            PersistentDataContainer data = monster.getPersistentDataContainer();
-            if (data.has(BLOODMOON_BUFFED_KEY, PersistentDataType.BYTE)) {
-                data.remove(BLOODMOON_HEALTH_KEY);
-                data.remove(BLOODMOON_DAMAGE_KEY);
-                data.remove(BLOODMOON_BUFFED_KEY);
-            }
+    private void onEntityDeath(EntityDeathEvent event) {
+        PersistentDataContainer data = event.getEntity().getPersistentDataContainer();
+        if (data.has(BLOODMOON_BUFFED_KEY, PersistentDataType.BYTE)) {
+            data.remove(BLOODMOON_HEALTH_KEY);
+            data.remove(BLOODMOON_DAMAGE_KEY);
+            data.remove(BLOODMOON_BUFFED_KEY);
         }
     }
 
@@ -1,38 +1,42 @@
 package com.rex.worldMood.moods;
 
 import com.rex.worldMood.Compat;
+import com.rex.worldMood.MoodEventRouter;
 import com.rex.worldMood.WorldMood;
 import org.bukkit.Bukkit;
 import org.bukkit.GameRule;
-import org.bukkit.Particle;
 import org.bukkit.Sound;
 import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Monster;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
 import org.bukkit.event.entity.CreatureSpawnEvent;
 import org.bukkit.potion.PotionEffect;
-import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.ChatColor;
 import org.bukkit.SoundCategory;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
-public class CalmSkies extends Mood implements Listener {
+public class CalmSkies extends Mood {
+
+    /** Spawns of hostile mobs that Calm Skies keeps out of the overworld. */
+    private static final MoodEventRouter.SpawnFilter BLOCKED_SPAWNS = MoodEventRouter.SpawnFilter.of(
+            EnumSet.of(CreatureSpawnEvent.SpawnReason.NATURAL, CreatureSpawnEvent.SpawnReason.REINFORCEMENTS,
+                    CreatureSpawnEvent.SpawnReason.PATROL, CreatureSpawnEvent.SpawnReason.RAID,
+                    CreatureSpawnEvent.SpawnReason.DROWNED, CreatureSpawnEvent.SpawnReason.JOCKEY,
+                    CreatureSpawnEvent.SpawnReason.MOUNT),
+            EnumSet.of(World.Environment.NORMAL), Monster.class);
+
     private final Map<UUID, Boolean> originalMobSpawningRules = new HashMap<>();
     private boolean configDisableMobSpawning;
     private int regenAmplifier;
-    private BukkitTask ambientParticleTask;
 
     private static final int REGEN_DURATION_TICKS = 120 * 20;
 
@@ -70,6 +74,15 @@ public class CalmSkies extends Mood implements Listener {
         return "A peaceful aura settles over the world. Hostile creatures hesitate to appear, and players feel invigorated.";
     }
 
+    /** World state set up once in apply(): the game rule, and the aura, which remove() matches by amplifier. */
+    private static final Set<String> APPLY_TIME_KEYS = new HashSet<>(Arrays.asList(
+            "disableMobSpawning", "passiveRegenAmplifier"));
+
+    @Override
+    public Set<String> getApplyTimeKeys() {
+        return APPLY_TIME_KEYS;
+    }
+
     @Override
     public List<String> getEffects() {
         return Arrays.asList(
@@ -81,7 +94,9 @@ public class CalmSkies extends Mood implements Listener {
 
     @Override
     public void apply() {
-        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        if (configDisableMobSpawning) {
+            onSpawns(BLOCKED_SPAWNS, event -> event.setCancelled(true));
+        }
         originalMobSpawningRules.clear();
 
         for (World world : Bukkit.getWorlds()) {
@@ -110,41 +125,25 @@ public class CalmSkies extends Mood implements Listener {
                 true
         );
 
-        for (Player player : Bukkit.getOnlinePlayers()) {
+        final boolean quiet = isRestarting();
+        fanOut(player -> {
             player.removePotionEffect(Compat.REGENERATION);
             player.addPotionEffect(timedRegenEffect);
+            if (quiet) return;
             player.playSound(player.getLocation(), Sound.BLOCK_BEACON_ACTIVATE, SoundCategory.PLAYERS, 0.6f, 1.5f);
             player.sendMessage(ChatColor.GREEN + "A calming, regenerative aura washes over you...");
-        }
+        });
 
-        // Tracked so remove() can cancel it deterministically. Relying on the task noticing that
-        // the mood changed left it alive for up to 2s, and a quick restart could stack duplicates.
-        if (ambientParticleTask != null) ambientParticleTask.cancel();
-        ambientParticleTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (plugin.getMoodManager().getCurrentMood() != CalmSkies.this) {
-                    this.cancel();
-                    return;
-                }
-                for (Player p : Bukkit.getOnlinePlayers()) {
-                    if (p.getWorld().getEnvironment() == World.Environment.NORMAL && p.getLocation().getBlock().getLightFromSky() > 10) {
-                        p.getWorld().spawnParticle(Compat.HAPPY_VILLAGER, p.getEyeLocation(), 1, 0.5, 0.5, 0.5, 0);
-                    }
-                }
+        // A green sparkle now and then for players under open sky.
+        layer("sparkles", 40, EnumSet.of(World.Environment.NORMAL), true, p -> {
+            if (plugin.getLightSampler().read(p).getFeetSkyLight() > 10) {
+                p.getWorld().spawnParticle(Compat.HAPPY_VILLAGER, p.getEyeLocation(), 1, 0.5, 0.5, 0.5, 0);
             }
-        }.runTaskTimer(plugin, 20L, 40L);
+        });
     }
 
     @Override
     public void remove() {
-        HandlerList.unregisterAll(this);
-
-        if (ambientParticleTask != null) {
-            ambientParticleTask.cancel();
-            ambientParticleTask = null;
-        }
-
         originalMobSpawningRules.forEach((worldUID, originalValue) -> {
             World world = Bukkit.getWorld(worldUID);
             if (world != null && world.getEnvironment() == World.Environment.NORMAL) {
@@ -157,15 +156,16 @@ public class CalmSkies extends Mood implements Listener {
         });
         originalMobSpawningRules.clear();
 
-        for (Player player : Bukkit.getOnlinePlayers()) {
+        final boolean quiet = isRestarting();
+        fanOut(player -> {
             if (player.hasPotionEffect(Compat.REGENERATION)) {
                 PotionEffect currentRegen = player.getPotionEffect(Compat.REGENERATION);
                 if (currentRegen != null && currentRegen.getAmplifier() == regenAmplifier) {
                     player.removePotionEffect(Compat.REGENERATION);
                 }
             }
-            player.playSound(player.getLocation(), Sound.BLOCK_BEACON_DEACTIVATE, SoundCategory.PLAYERS, 0.6f, 1.5f);
-        }
+            if (!quiet) player.playSound(player.getLocation(), Sound.BLOCK_BEACON_DEACTIVATE, SoundCategory.PLAYERS, 0.6f, 1.5f);
+        });
     }
 
     @Override
@@ -176,27 +176,4 @@ public class CalmSkies extends Mood implements Listener {
     @Override
     public void onPlayerQuit(Player player) {
     }
-
-    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
-    public void onCreatureSpawn(CreatureSpawnEvent event) {
-        if (!configDisableMobSpawning) return;
-
-        if (event.getEntity() instanceof Monster &&
-                event.getEntity().getWorld().getEnvironment() == World.Environment.NORMAL) {
-            switch (event.getSpawnReason()) {
-                case NATURAL:
-                case REINFORCEMENTS:
-                case PATROL:
-                case RAID:
-                case DROWNED:
-                case JOCKEY:
-                case MOUNT:
-                    event.setCancelled(true);
-                    // plugin.getLogger().fine("[CalmSkies] Blocked hostile spawn: " + event.getEntityType() + " Reason: " + event.getSpawnReason());
-                    break;
-                default:
-                    break;
-            }
-        }
-    }
-}
\ No newline at end of file
+}
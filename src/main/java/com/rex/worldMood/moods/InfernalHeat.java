@@ -3,11 +3,9 @@ package com.rex.worldMood.moods;
 import com.rex.worldMood.Compat;
 import com.rex.worldMood.WorldMood;
 import org.bukkit.*;
-import org.bukkit.block.Block;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.potion.PotionEffectType;
@@ -17,13 +15,25 @@ import org.bukkit.SoundCategory;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class InfernalHeat extends Mood implements Listener {
+public class InfernalHeat extends Mood {
+
+    /**
+     * Seconds a cached answer is trusted even when nothing it watches has changed, to catch what no
+     * event reports: a block placed over someone's head, armour swapped by another plugin.
+     */
+    private static final int RECHECK_SECONDS = 10;
 
     private boolean configBurnInSunlight;
     private String configRequiredProtection;
     private final Random random = new Random();
+    // Per-player sun exposure and protection, so a player standing still in the same gear costs a
+    // key comparison per second instead of block lookups and eight enchantment reads.
+    private final Map<UUID, HeatState> states = new ConcurrentHashMap<>();
 
     public InfernalHeat(WorldMood plugin) {
         super(plugin, "infernal_heat");
@@ -88,20 +98,24 @@ public class InfernalHeat extends Mood implements Listener {
 
     @Override
     public void apply() {
-        for(Player p : Bukkit.getOnlinePlayers()) {
+        // Anything that can change what a player wears, or their fire resistance. Cheap enough to
+        // react to broadly (one flag write); the next tick does the actual re-check.
+        onLoadoutChanges(Compat.FIRE_RESISTANCE, this::invalidateProtection);
+        fanOut(p -> {
             if (p.getWorld().getEnvironment() == World.Environment.NORMAL) {
                 p.playSound(p.getLocation(), Sound.BLOCK_LAVA_EXTINGUISH, SoundCategory.AMBIENT, 0.7f, 1.2f);
             }
-        }
+        });
     }
 
     @Override
     public void remove() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
+        states.clear();
+        fanOut(player -> {
             if (player.getWorld().getEnvironment() == World.Environment.NORMAL && player.getFireTicks() > 0) {
                 player.setFireTicks(0);
             }
-        }
+        });
     }
 
     @Override
@@ -109,12 +123,13 @@ public class InfernalHeat extends Mood implements Listener {
         if (!configBurnInSunlight) return;
 
         // Runs once per second (MoodManager ticks moods at 20-tick intervals).
-        for (Player player : Bukkit.getOnlinePlayers()) {
+        forEachPlayer(player -> {
             if (player.getWorld().getEnvironment() != World.Environment.NORMAL) {
-                continue;
+                return;
             }
 
-            if (isPlayerExposedToSun(player) && !isPlayerProtected(player)) {
+            HeatState state = states.computeIfAbsent(player.getUniqueId(), id -> new HeatState());
+            if (isExposed(player, state) && !isProtected(player, state)) {
                 if (player.getFireTicks() < 20) {
                     player.setFireTicks(40);
                 }
@@ -123,7 +138,58 @@ public class InfernalHeat extends Mood implements Listener {
                 }
                 player.getWorld().spawnParticle(Compat.FLAME, player.getEyeLocation().subtract(0, 0.2, 0), 2, 0.1, 0.2, 0.1, 0.01);
             }
+        });
+    }
+
+    /**
+     * {@link #isPlayerExposedToSun}, recomputed only when its inputs changed: the block the player's
+     * eyes and feet are in, the world's sun band and weather, and the player's own state.
+     */
+    private boolean isExposed(Player player, HeatState state) {
+        Location at = player.getLocation(state.at);
+        World world = at.getWorld();
+        long time = world.getTime();
+        int flags = (time >= 500 && time < 12500 ? 1 : 0)
+                | (world.hasStorm() || world.isThundering() ? 2 : 0)
+                | (player.isDead() ? 4 : 0)
+                | (player.isInWater() ? 8 : 0)
+                | (player.isInsideVehicle() ? 16 : 0)
+                | (player.getGameMode().ordinal() << 5);
+        long feet = blockKey(at.getBlockX(), at.getBlockY(), at.getBlockZ());
+        int eyeY = Location.locToBlock(at.getY() + player.getEyeHeight());
+        if (world == state.world && feet == state.feet && eyeY == state.eyeY && flags == state.flags
+                && ++state.exposureAge < RECHECK_SECONDS) {
+            return state.exposed;
+        }
+        state.world = world;
+        state.feet = feet;
+        state.eyeY = eyeY;
+        state.flags = flags;
+        state.exposureAge = 0;
+        state.exposed = isPlayerExposedToSun(player);
+        return state.exposed;
+    }
+
+    /** {@link #isPlayerProtected}, recomputed only after an armour, inventory or potion change. */
+    private boolean isProtected(Player player, HeatState state) {
+        if (!state.protectionStale && ++state.protectionAge < RECHECK_SECONDS) {
+            return state.protectedNow;
         }
+        state.protectionStale = false;
+        state.protectionAge = 0;
+        state.protectedNow = isPlayerProtected(player);
+        return state.protectedNow;
+    }
+
+    private void invalidateProtection(UUID id) {
+        HeatState state = states.get(id);
+        if (state != null) {
+            state.protectionStale = true;
+        }
+    }
+
+    private static long blockKey(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
     }
 
     private boolean isPlayerExposedToSun(Player player) {
@@ -135,9 +201,7 @@ public class InfernalHeat extends Mood implements Listener {
 
         if (!isHighSun || world.hasStorm() || world.isThundering()) return false;
 
-        Block blockAtHead = player.getEyeLocation().getBlock();
-
-        return blockAtHead.getLightFromSky() >= 15 &&
+        return plugin.getLightSampler().read(player).getEyeSkyLight() >= 15 &&
                 !player.isInWater() &&
                 !player.isInsideVehicle() &&
                 !isInLava(player);
@@ -197,5 +261,20 @@ public class InfernalHeat extends Mood implements Listener {
 
     @Override
     public void onPlayerQuit(Player player) {
+        states.remove(player.getUniqueId());
+    }
+
+    /** One player's cached answers. Only touched on that player's own thread, bar the stale flag. */
+    private static final class HeatState {
+        final Location at = new Location(null, 0, 0, 0);
+        World world;
+        long feet;
+        int eyeY;
+        int flags = -1;
+        int exposureAge;
+        boolean exposed;
+        volatile boolean protectionStale = true;
+        int protectionAge;
+        boolean protectedNow;
     }
 }
\ No newline at end of file
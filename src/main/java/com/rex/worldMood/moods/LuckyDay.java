@@ -1,23 +1,16 @@
 package com.rex.worldMood.moods;
 
 import com.rex.worldMood.Compat;
+import com.rex.worldMood.DropEngine;
 import com.rex.worldMood.WorldMood;
 import org.bukkit.*;
-import org.bukkit.block.Block;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Villager;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
-import org.bukkit.event.block.BlockBreakEvent;
-import org.bukkit.event.block.BlockExpEvent;
-import org.bukkit.event.entity.EntityDeathEvent;
-import org.bukkit.event.inventory.FurnaceExtractEvent;
-import org.bukkit.event.inventory.InventoryCloseEvent;
-import org.bukkit.event.player.PlayerExpChangeEvent;
 import org.bukkit.event.player.PlayerInteractEntityEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
@@ -36,6 +29,7 @@ public class LuckyDay extends Mood implements Listener {
     private double mobKillTreasureChance;
     private List<Material> validTreasureItems = new ArrayList<>();
     private final Random random = new Random();
+    private DropEngine.Rules dropRules;
 
     private static final int LUCK_DURATION_TICKS = 5 * 60 * 20;
     private static final int LUCK_AMPLIFIER = 0;
@@ -94,6 +88,11 @@ public class LuckyDay extends Mood implements Listener {
             plugin.getLogger().info("[LuckyDay] Loaded " + validTreasureItems.size() + " treasure items: " +
                     validTreasureItems.stream().map(Enum::name).collect(Collectors.joining(", ")));
         }
+
+        dropRules = DropEngine.Rules.builder()
+                .treasure(validTreasureItems, miningTreasureChance, mobKillTreasureChance, this::playTreasureEffects)
+                .xpMultiplier(XP_MULTIPLIER)
+                .build();
     }
 
     @Override
@@ -106,6 +105,12 @@ public class LuckyDay extends Mood implements Listener {
         return "A wave of extraordinary fortune washes over the land! Keep an eye out for unexpected treasures, trade wisely, and feel invigorated.";
     }
 
+    /** The drop rules were rebuilt from the new chances; swap them in without ending the mood. */
+    @Override
+    public void onSettingsReloaded(Set<String> changed) {
+        plugin.getDropEngine().activate(this, dropRules);
+    }
+
     @Override
     public List<String> getEffects() {
         return Arrays.asList(
@@ -121,6 +126,7 @@ public class LuckyDay extends Mood implements Listener {
     @Override
     public void apply() {
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        plugin.getDropEngine().activate(this, dropRules);
 
         PotionEffect luckEffect = new PotionEffect(
                 Compat.LUCK,
@@ -131,174 +137,84 @@ public class LuckyDay extends Mood implements Listener {
                 true
         );
 
-        for(Player p : plugin.getServer().getOnlinePlayers()){
+        fanOut(p -> {
             p.removePotionEffect(Compat.LUCK);
             p.addPotionEffect(luckEffect);
 
             p.playSound(p.getLocation(), Sound.ENTITY_PLAYER_LEVELUP, SoundCategory.PLAYERS, 1.0f, 1.5f);
             p.sendTitle(ChatColor.GOLD + "" + ChatColor.BOLD + "Lucky Day!", ChatColor.YELLOW + "You feel extraordinarily fortunate...", 10, 70, 20);
             p.sendMessage(ChatColor.GOLD + "A wave of good fortune washes over you for the next 5 minutes!");
-        }
+        });
     }
 
     @Override
     public void remove() {
         HandlerList.unregisterAll(this);
+        plugin.getDropEngine().deactivate(this);
 
-        for (Player player : Bukkit.getOnlinePlayers()) {
+        fanOut(player -> {
             if (player.hasPotionEffect(Compat.LUCK)) {
                 PotionEffect currentLuck = player.getPotionEffect(Compat.LUCK);
                 if (currentLuck != null && currentLuck.getAmplifier() == LUCK_AMPLIFIER && currentLuck.getDuration() <= LUCK_DURATION_TICKS + 20) {
                     player.removePotionEffect(Compat.LUCK);
                 }
             }
-        }
+        });
 
-        for (Player player : Bukkit.getOnlinePlayers()) {
+        fanOut(player -> {
             if (player.getOpenInventory().getTopInventory() != null &&
                     player.getOpenInventory().getTopInventory().getHolder() instanceof Merchant) {
                 Merchant merchant = (Merchant) player.getOpenInventory().getTopInventory().getHolder();
-                resetTrades(merchant, player.getOpenInventory().getTitle());
+                resetTrades(merchant);
             }
-        }
+        });
         plugin.getLogger().info("[LuckyDay] Lucky Day ended. Effects (Luck, Trade Discounts) removed or reverted.");
     }
 
-    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
-    public void onBlockBreak(BlockBreakEvent event) {
-        Player player = event.getPlayer();
-        if (player.getGameMode() == GameMode.CREATIVE || player.getGameMode() == GameMode.SPECTATOR) return;
-
-        Block block = event.getBlock();
-        if (event.getExpToDrop() > 0 || !block.getDrops(player.getInventory().getItemInMainHand()).isEmpty()) {
-            if (!validTreasureItems.isEmpty() && random.nextDouble() < miningTreasureChance) {
-                dropTreasure(block);
-            }
-        }
-    }
-
-    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
-    public void onEntityDeath(EntityDeathEvent event) {
-        LivingEntity entity = event.getEntity();
-        Player killer = entity.getKiller();
-        if (killer == null) return;
-
-        if (!validTreasureItems.isEmpty() && random.nextDouble() < mobKillTreasureChance) {
-            dropTreasure(entity);
-        }
-    }
-
-    // XP Event Handlers
-    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
-    public void onExpChange(PlayerExpChangeEvent event) {
-        int originalAmount = event.getAmount();
-        if (originalAmount <= 0) return;
-        int newAmount = (int) Math.max(1, Math.round(originalAmount * XP_MULTIPLIER));
-        event.setAmount(newAmount);
-    }
-
-    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
-    public void onBlockExp(BlockExpEvent event) {
-        int originalAmount = event.getExpToDrop();
-        if (originalAmount <= 0) return;
-        int newAmount = (int) Math.max(1, Math.round(originalAmount * XP_MULTIPLIER));
-        event.setExpToDrop(newAmount);
-    }
-
-    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
-    public void onFurnaceExtract(FurnaceExtractEvent event) {
-        int originalAmount = event.getExpToDrop();
-        if (originalAmount <= 0) return;
-        int newAmount = (int) Math.max(1, Math.round(originalAmount * XP_MULTIPLIER));
-        event.setExpToDrop(newAmount);
-    }
-
     // Villager Trade Discount Handlers
+
+    /**
+     * Discounts a villager's trades as its trading screen opens.
+     * <p>
+     * The vanilla villager zeroes every trade's special price when trading stops, so the discount
+     * is put back on each opening. {@link Villager#getRecipes()} hands out views of the villager's
+     * own trades, so the discount is written straight onto them: no trade is copied, the trade
+     * list is never replaced, and a trade that already carries its discount is left untouched.
+     * Closing the window needs no work from us, since the villager's own reset takes it off.
+     */
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onPlayerInteractEntity(PlayerInteractEntityEvent event) {
         if (!(event.getRightClicked() instanceof Villager)) return;
         if (event.getHand() != EquipmentSlot.HAND && event.getHand() != EquipmentSlot.OFF_HAND) return;
 
-        Villager villager = (Villager) event.getRightClicked();
-        List<MerchantRecipe> currentRecipes = villager.getRecipes();
-        List<MerchantRecipe> newRecipes = new ArrayList<>();
-        boolean updated = false;
-
-        for (MerchantRecipe recipe : currentRecipes) {
-            MerchantRecipe newRecipe = new MerchantRecipe(recipe.getResult(), recipe.getUses(), recipe.getMaxUses(), recipe.hasExperienceReward(), recipe.getVillagerExperience(), recipe.getPriceMultiplier());
-            newRecipe.setIngredients(recipe.getIngredients());
-
-            if (!recipe.getIngredients().isEmpty()) {
-                ItemStack firstIngredient = recipe.getIngredients().get(0);
-                int originalPrice = firstIngredient.getAmount();
-                int discountedPrice = (int) Math.max(1, Math.round(originalPrice * TRADE_DISCOUNT_MULTIPLIER));
-
-                int specialPriceAdjustment = discountedPrice - originalPrice;
-
-                if (Compat.getSpecialPrice(recipe) != specialPriceAdjustment) {
-                    Compat.setSpecialPrice(newRecipe, specialPriceAdjustment);
-                    updated = true;
-                } else {
-                    Compat.setSpecialPrice(newRecipe, Compat.getSpecialPrice(recipe));
-                }
+        for (MerchantRecipe recipe : ((Villager) event.getRightClicked()).getRecipes()) {
+            int specialPrice = discountedSpecialPrice(recipe);
+            if (Compat.getSpecialPrice(recipe) != specialPrice) {
+                Compat.setSpecialPrice(recipe, specialPrice);
             }
-            newRecipes.add(newRecipe);
-        }
-
-        if (updated) {
-            villager.setRecipes(newRecipes);
         }
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onInventoryClose(InventoryCloseEvent event) {
-        if (event.getInventory().getHolder() instanceof Merchant) {
-            Merchant merchant = (Merchant) event.getInventory().getHolder();
-            resetTrades(merchant, event.getView().getTitle());
-        }
+    /** The special price that takes {@link #TRADE_DISCOUNT_MULTIPLIER} off {@code recipe}'s first ingredient. */
+    private static int discountedSpecialPrice(MerchantRecipe recipe) {
+        List<ItemStack> ingredients = recipe.getIngredients();
+        if (ingredients.isEmpty()) return Compat.getSpecialPrice(recipe);
+        int originalPrice = ingredients.get(0).getAmount();
+        int discountedPrice = (int) Math.max(1, Math.round(originalPrice * TRADE_DISCOUNT_MULTIPLIER));
+        return discountedPrice - originalPrice;
     }
 
-    private void resetTrades(Merchant merchant, String inventoryTitle) {
-        if (merchant instanceof Villager) {
-            Villager villager = (Villager) merchant;
-            List<MerchantRecipe> currentRecipes = villager.getRecipes();
-            List<MerchantRecipe> newRecipes = new ArrayList<>();
-            boolean updated = false;
-
-            for (MerchantRecipe recipe : currentRecipes) {
-                MerchantRecipe newRecipe = new MerchantRecipe(recipe.getResult(), recipe.getUses(), recipe.getMaxUses(), recipe.hasExperienceReward(), recipe.getVillagerExperience(), recipe.getPriceMultiplier());
-                newRecipe.setIngredients(recipe.getIngredients());
-
-                if (Compat.getSpecialPrice(recipe) != 0) {
-                    Compat.setSpecialPrice(newRecipe, 0);
-                    updated = true;
-                } else {
-                    Compat.setSpecialPrice(newRecipe, Compat.getSpecialPrice(recipe));
-                }
-                newRecipes.add(newRecipe);
-            }
-
-            if (updated) {
-                villager.setRecipes(newRecipes);
+    /** Takes the discount back off a villager whose trading screen is still open when the mood ends. */
+    private void resetTrades(Merchant merchant) {
+        if (!(merchant instanceof Villager)) return;
+        for (MerchantRecipe recipe : ((Villager) merchant).getRecipes()) {
+            if (Compat.getSpecialPrice(recipe) != 0) {
+                Compat.setSpecialPrice(recipe, 0);
             }
         }
     }
 
-    private void dropTreasure(Block block) {
-        if (validTreasureItems.isEmpty()) return;
-        Material treasureMaterial = validTreasureItems.get(random.nextInt(validTreasureItems.size()));
-        block.getWorld().dropItemNaturally(block.getLocation().add(0.5, 0.5, 0.5), new ItemStack(treasureMaterial, 1));
-        playTreasureEffects(block.getLocation().add(0.5, 0.5, 0.5), treasureMaterial.name());
-    }
-
-    private void dropTreasure(LivingEntity entity) {
-        if (validTreasureItems.isEmpty()) return;
-        Material treasureMaterial = validTreasureItems.get(random.nextInt(validTreasureItems.size()));
-        entity.getWorld().dropItemNaturally(entity.getEyeLocation(), new ItemStack(treasureMaterial, 1));
-        playTreasureEffects(entity.getEyeLocation(), treasureMaterial.name());
-    }
-
-    private void playTreasureEffects(Location location, String itemName) {
+    private void playTreasureEffects(Location location) {
         World world = location.getWorld();
         if (world == null) return;
 
@@ -1,11 +1,27 @@
 package com.rex.worldMood.moods;
 
+import com.rex.worldMood.MoodEventRouter;
+import com.rex.worldMood.TaskScheduler;
+import com.rex.worldMood.WeightedEventTable;
 import com.rex.worldMood.WorldMood;
+import com.rex.worldMood.WorldMoodSettings;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
+import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.potion.PotionEffectType;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Abstract base class for all World Moods.
@@ -17,18 +33,18 @@ public abstract class Mood {
     protected boolean enabled;
     protected int weight;
     protected int duration;
+    // Set by MoodManager while it restarts this mood for a reload; see isRestarting().
+    private volatile boolean restarting;
 
     public Mood(WorldMood plugin, String configKey) {
         this.plugin = plugin;
         this.configKey = configKey;
     }
     protected void loadConfigValues() {
-        FileConfiguration config = plugin.getConfig();
-        String path = "moods." + this.configKey;
-
-        this.enabled = config.getBoolean(path + ".enabled", false);
-        this.weight = config.getInt(path + ".weight", 1);
-        this.duration = config.getInt(path + ".duration", plugin.getConfig().getInt("defaultMoodDuration", 300));
+        WorldMoodSettings.MoodSettings settings = plugin.getSettings().mood(configKey);
+        this.enabled = settings.isEnabled();
+        this.weight = settings.getWeight();
+        this.duration = settings.getDuration();
     }
     public String getConfigKey() {
         return configKey;
@@ -81,19 +97,169 @@ public abstract class Mood {
     public void tick(long ticksRemaining) {
     }
 
+    /** This mood's random events and their counters, or {@code null} if it has none. */
+    public WeightedEventTable<?> getEventTable() {
+        return null;
+    }
+
+    /** Re-reads this mood's settings in place. MoodManager calls this on reload, on the global thread. */
+    public final void reloadSettings() {
+        loadConfigValues();
+    }
+
+    /**
+     * Paths under this mood's section for world state that {@link #apply()} changes and
+     * {@link #remove()} puts back, such as game rules. If one changes while the mood is active, a
+     * reload restarts the mood with {@link #isRestarting()} set; any other change is re-read and
+     * handed to {@link #onSettingsReloaded(Set)}.
+     */
+    public Set<String> getApplyTimeKeys() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Called after {@link #reloadSettings()} while this mood is active, with the paths that
+     * changed, to hand on new values. Parts that apply() set up from a changed value (atmosphere
+     * layers, fog, a timer) are set up again here on their own, without restarting the mood.
+     */
+    public void onSettingsReloaded(Set<String> changed) {
+    }
+
+    /**
+     * Whether this {@link #apply()} or {@link #remove()} is part of a restart for a reload. The
+     * mood never really ended for the players, so titles, sounds and messages are skipped.
+     */
+    protected final boolean isRestarting() {
+        return restarting;
+    }
+
+    /** MoodManager sets this around a reload-driven restart; see {@link #isRestarting()}. */
+    public final void setRestarting(boolean restarting) {
+        this.restarting = restarting;
+    }
+
     public void onPlayerJoin(Player player) {
     }
 
     public void onPlayerQuit(Player player) {
     }
 
-    protected ConfigurationSection getMoodConfigSection() {
-        FileConfiguration config = plugin.getConfig();
-        String path = "moods." + configKey;
-        if (config.isConfigurationSection(path)) {
-            return config.getConfigurationSection(path);
+    /**
+     * Runs {@code action} once for every online player, on the thread that owns that player.
+     * <p>
+     * On Spigot/Paper that is simply the calling (main) thread, so this is a plain loop. On a
+     * region-threaded server each player's share is handed to their region, which is the only
+     * place it is allowed to touch them, their surroundings or their client.
+     */
+    protected void forEachPlayer(Consumer<Player> action) {
+        TaskScheduler scheduler = plugin.getScheduler();
+        if (!scheduler.isRegionized()) {
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                action.accept(player);
+            }
+            return;
         }
-        return null;
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            scheduler.runFor(player, () -> action.accept(player));
+        }
+    }
+
+    /**
+     * Like {@link #forEachPlayer}, but for the one-off deliveries of {@link #apply()} and
+     * {@link #remove()} (titles, sounds, potion effects). These go through the plugin's
+     * {@link com.rex.worldMood.PlayerFanout}, which spreads them over a few ticks on busy servers
+     * while keeping each player's deliveries in order. Per-tick effects keep using forEachPlayer.
+     */
+    protected void fanOut(Consumer<Player> action) {
+        plugin.getPlayerFanout().deliver(action);
+    }
+
+    /**
+     * Declares an ambient visual for this activation: {@code render} runs for each player in one
+     * of {@code worlds} ({@code null} for any) every {@code periodTicks}, from the shared
+     * {@link com.rex.worldMood.AtmosphereRenderer}. Spectators are skipped. Call from
+     * {@link #apply()}; the layers are dropped automatically when the mood ends.
+     */
+    protected void layer(String name, int periodTicks, Set<World.Environment> worlds, Consumer<Player> render) {
+        layer(name, periodTicks, worlds, false, render);
+    }
+
+    /** {@link #layer(String, int, Set, Consumer)}, optionally drawn for spectators too. */
+    protected void layer(String name, int periodTicks, Set<World.Environment> worlds, boolean spectators,
+                         Consumer<Player> render) {
+        plugin.getAtmosphereRenderer().add(this, configKey + "/" + name, periodTicks, worlds, spectators, render);
+    }
+
+    /**
+     * Receives the spawns that pass {@code filter} for this activation, from the shared
+     * {@link MoodEventRouter}. Call from {@link #apply()}; dropped automatically when the mood ends.
+     */
+    protected void onSpawns(MoodEventRouter.SpawnFilter filter, Consumer<CreatureSpawnEvent> handler) {
+        plugin.getEventRouter().routeSpawns(this, filter, handler);
+    }
+
+    /** Receives the deaths of every {@code category} entity for this activation, like {@link #onSpawns}. */
+    protected void onDeaths(Class<? extends LivingEntity> category, Consumer<EntityDeathEvent> handler) {
+        plugin.getEventRouter().routeDeaths(this, category, handler);
+    }
+
+    /**
+     * Receives the id of every player whose armour, inventory or {@code potion} effect may have
+     * changed, for this activation, like {@link #onSpawns}.
+     */
+    protected void onLoadoutChanges(PotionEffectType potion, Consumer<UUID> handler) {
+        plugin.getEventRouter().routeLoadoutChanges(this, potion, handler);
+    }
+
+    /**
+     * Whether {@code player} is AFK. Purely cosmetic per-player effects can skip them; they get
+     * their ambient layers back the moment they return (see {@link com.rex.worldMood.ActivityTracker}).
+     */
+    protected boolean isAfk(Player player) {
+        return plugin.getActivityTracker().isAfk(player);
+    }
+
+    /**
+     * Living players within {@code radius} blocks of {@code center}, looked up in the shared
+     * {@link com.rex.worldMood.PlayerGrid} rather than by walking the world's player list.
+     */
+    protected List<Player> nearbyPlayers(Location center, double radius) {
+        return plugin.getPlayerGrid().nearby(center, radius);
+    }
+
+    /** How far around each player a world-wide entity pass reaches on region-threaded servers. */
+    private static final double REGIONAL_ENTITY_REACH = 96.0;
+
+    /**
+     * Visits every living entity in the worlds accepted by {@code worlds}.
+     * <p>
+     * No region thread may walk a whole world, so on region-threaded servers the pass instead covers
+     * the surroundings of each player, from that player's region. Everything a player can see or
+     * fight is covered; an entity near two players can be visited twice, so {@code action} must be
+     * idempotent (the mood buff/tag passes all are — they check their PDC marker first).
+     */
+    protected void forEachLivingEntity(Predicate<World> worlds, Consumer<LivingEntity> action) {
+        if (!plugin.getScheduler().isRegionized()) {
+            for (World world : Bukkit.getWorlds()) {
+                if (!worlds.test(world)) continue;
+                for (LivingEntity entity : world.getLivingEntities()) {
+                    action.accept(entity);
+                }
+            }
+            return;
+        }
+        forEachPlayer(player -> {
+            if (!worlds.test(player.getWorld())) return;
+            for (Entity entity : player.getNearbyEntities(REGIONAL_ENTITY_REACH, REGIONAL_ENTITY_REACH, REGIONAL_ENTITY_REACH)) {
+                if (entity instanceof LivingEntity) {
+                    action.accept((LivingEntity) entity);
+                }
+            }
+        });
+    }
+
+    protected ConfigurationSection getMoodConfigSection() {
+        return plugin.getSettings().mood(configKey).getSection();
     }
 
     public boolean requiresNight() {
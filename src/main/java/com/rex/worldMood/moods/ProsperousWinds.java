@@ -1,32 +1,21 @@
 package com.rex.worldMood.moods;
 
 import com.rex.worldMood.Compat;
+import com.rex.worldMood.DropEngine;
 import com.rex.worldMood.WorldMood;
 import org.bukkit.*;
-import org.bukkit.block.Block;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.enchantments.Enchantment;
-import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
-import org.bukkit.event.block.BlockBreakEvent;
-import org.bukkit.event.block.BlockExpEvent;
-import org.bukkit.event.entity.EntityDeathEvent;
-import org.bukkit.event.inventory.FurnaceExtractEvent;
-import org.bukkit.event.player.PlayerExpChangeEvent;
-import org.bukkit.inventory.ItemStack;
 import org.bukkit.SoundCategory;
 
 import java.util.*;
 
-public class ProsperousWinds extends Mood implements Listener {
+public class ProsperousWinds extends Mood {
 
     private double oreDoubleDropChance;
     private double mobExtraLootChance;
     private final Random random = new Random();
+    private DropEngine.Rules dropRules;
 
     private boolean configEnableWindEffects;
     private boolean configEnableOreDoubling;
@@ -89,6 +78,14 @@ public class ProsperousWinds extends Mood implements Listener {
             configEnableOreDoubling = true;
             plugin.getLogger().warning("[ProsperousWinds] Configuration section missing. Using default values.");
         }
+
+        DropEngine.Builder rules = DropEngine.Rules.builder()
+                .extraMobLoot(mobExtraLootChance, PARTIAL_LOOT_DUPE_CHANCE, this::playLootEffects)
+                .xpMultiplier(XP_MULTIPLIER);
+        if (configEnableOreDoubling) {
+            rules.doubleDrops(ORE_MATERIALS, oreDoubleDropChance, this::playOreEffects);
+        }
+        dropRules = rules.build();
     }
 
     @Override
@@ -101,6 +98,19 @@ public class ProsperousWinds extends Mood implements Listener {
         return "Good fortune blows through the land, revealing richer veins and greater spoils from fallen foes amidst swirling breezes.";
     }
 
+    /**
+     * The drop rules were rebuilt from the new chances; swap them in without ending the mood. The
+     * wind layers are declared again if they were switched on or off.
+     */
+    @Override
+    public void onSettingsReloaded(Set<String> changed) {
+        plugin.getDropEngine().activate(this, dropRules);
+        if (changed.contains("enableWindEffects")) {
+            plugin.getAtmosphereRenderer().clear(this);
+            if (configEnableWindEffects) addLayers();
+        }
+    }
+
     @Override
     public List<String> getEffects() {
         List<String> effects = new ArrayList<>();
@@ -118,129 +128,55 @@ public class ProsperousWinds extends Mood implements Listener {
 
     @Override
     public void apply() {
-        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        plugin.getDropEngine().activate(this, dropRules);
         if (configEnableWindEffects) {
-            for(Player p : plugin.getServer().getOnlinePlayers()){
+            fanOut(p -> {
                 p.playSound(p.getLocation(), ALT_WIND_SOUND, SoundCategory.AMBIENT, 0.2f, 0.5f + random.nextFloat() * 0.3f);
                 p.playSound(p.getLocation(), Sound.WEATHER_RAIN, SoundCategory.AMBIENT, 0.05f, 1.8f + random.nextFloat() * 0.2f);
-            }
+            });
+            addLayers();
         }
     }
 
     @Override
     public void remove() {
-        HandlerList.unregisterAll(this);
+        plugin.getDropEngine().deactivate(this);
     }
 
-    @Override
-    public void tick(long ticksRemaining) {
-        if (!configEnableWindEffects || secondsElapsed % WIND_EFFECT_INTERVAL_SECONDS != 0) {
-            return;
-        }
-
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.getWorld().getEnvironment() != World.Environment.NORMAL) continue;
-
-            if (random.nextDouble() < WIND_EFFECT_CHANCE_PER_PLAYER) {
-                Location loc = player.getLocation();
-                World world = player.getWorld();
-
-                float pitch = 0.5f + random.nextFloat() * 0.4f;
-                float volume = 0.1f + random.nextFloat() * 0.2f;
-                world.playSound(loc, ALT_WIND_SOUND, SoundCategory.AMBIENT, volume, pitch);
-                if (random.nextBoolean()) {
-                    world.playSound(loc, Sound.WEATHER_RAIN, SoundCategory.AMBIENT, volume * 0.1f, pitch + 0.8f);
-                }
-
-                int particleCount = 2 + random.nextInt(4);
-                double offsetX = 2 + random.nextDouble() * 3;
-                double offsetY = 0.3 + random.nextDouble() * 1.0;
-                double offsetZ = 2 + random.nextDouble() * 3;
-                Location particleLoc = player.getEyeLocation().add(random.nextGaussian() * 3, random.nextDouble() * 2, random.nextGaussian() * 3);
-                Particle particleType = random.nextBoolean() ? Compat.CLOUD : Compat.SPORE_BLOSSOM_AIR;
-                world.spawnParticle(particleType, particleLoc, particleCount, offsetX, offsetY, offsetZ, 0.005);
+    /** Gusts of wind: a rustle and a puff of cloud now and then for players in the overworld. */
+    private void addLayers() {
+        layer("wind", WIND_EFFECT_INTERVAL_SECONDS * 20, EnumSet.of(World.Environment.NORMAL), true, player -> {
+            if (random.nextDouble() >= WIND_EFFECT_CHANCE_PER_PLAYER) return;
+            Location loc = player.getLocation();
+            World world = player.getWorld();
+
+            float pitch = 0.5f + random.nextFloat() * 0.4f;
+            float volume = 0.1f + random.nextFloat() * 0.2f;
+            world.playSound(loc, ALT_WIND_SOUND, SoundCategory.AMBIENT, volume, pitch);
+            if (random.nextBoolean()) {
+                world.playSound(loc, Sound.WEATHER_RAIN, SoundCategory.AMBIENT, volume * 0.1f, pitch + 0.8f);
             }
-        }
-    }
-
-    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
-    public void onBlockBreak(BlockBreakEvent event) {
-        Player player = event.getPlayer();
-        Block block = event.getBlock();
-        ItemStack tool = player.getInventory().getItemInMainHand();
-
-        if (!configEnableOreDoubling || !ORE_MATERIALS.contains(block.getType()) || random.nextDouble() >= oreDoubleDropChance) {
-            return;
-        }
-        if (player.getGameMode() == GameMode.CREATIVE || player.getGameMode() == GameMode.SPECTATOR) {
-            return;
-        }
-
-        if (tool != null && tool.containsEnchantment(Enchantment.SILK_TOUCH)) {
-            block.getWorld().dropItemNaturally(block.getLocation().add(0.5, 0.5, 0.5), new ItemStack(block.getType(), 1));
-        } else {
-            Collection<ItemStack> defaultDrops = block.getDrops(tool);
-            if (!defaultDrops.isEmpty()) {
-                for (ItemStack drop : defaultDrops) {
-                    if (drop.getType() != Material.AIR) {
-                        block.getWorld().dropItemNaturally(block.getLocation().add(0.5, 0.5, 0.5), drop.clone());
-                    }
-                }
-            }
-        }
-        block.getWorld().spawnParticle(Compat.COMPOSTER, block.getLocation().add(0.5, 0.7, 0.5), 10, 0.3, 0.3, 0.3, 0.05);
-        block.getWorld().playSound(block.getLocation(), Compat.AMETHYST_CHIME, SoundCategory.BLOCKS, 0.9f, 1.6f + random.nextFloat() * 0.2f);
-    }
-
-    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
-    public void onEntityDeath(EntityDeathEvent event) {
-        LivingEntity entity = event.getEntity();
-        Player killer = entity.getKiller();
-
-        if (killer != null && random.nextDouble() < mobExtraLootChance) {
-            List<ItemStack> originalDrops = event.getDrops();
-            List<ItemStack> extraDrops = new ArrayList<>();
-
-            if (originalDrops.isEmpty()) return;
-
-            for (ItemStack originalDrop : originalDrops) {
-                if (random.nextDouble() < PARTIAL_LOOT_DUPE_CHANCE) {
-                    extraDrops.add(originalDrop.clone());
-                }
-            }
-
-            if (!extraDrops.isEmpty()) {
-                for(ItemStack extraDrop : extraDrops) {
-                    entity.getWorld().dropItemNaturally(entity.getLocation(), extraDrop);
-                }
-                entity.getWorld().spawnParticle(Compat.HAPPY_VILLAGER, entity.getEyeLocation(), 10, 0.4, 0.4, 0.4, 0.05);
-                entity.getWorld().playSound(entity.getLocation(), Sound.ENTITY_CHICKEN_EGG, SoundCategory.NEUTRAL, 1.0f, 1.0f + random.nextFloat() * 0.3f);
-            }
-        }
-    }
 
-    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
-    public void onExpChange(PlayerExpChangeEvent event) {
-        int originalAmount = event.getAmount();
-        if (originalAmount <= 0) return;
-        int newAmount = (int) Math.max(1, Math.round(originalAmount * XP_MULTIPLIER));
-        event.setAmount(newAmount);
+            int particleCount = 2 + random.nextInt(4);
+            double offsetX = 2 + random.nextDouble() * 3;
+            double offsetY = 0.3 + random.nextDouble() * 1.0;
+            double offsetZ = 2 + random.nextDouble() * 3;
+            Location particleLoc = player.getEyeLocation().add(random.nextGaussian() * 3, random.nextDouble() * 2, random.nextGaussian() * 3);
+            Particle particleType = random.nextBoolean() ? Compat.CLOUD : Compat.SPORE_BLOSSOM_AIR;
+            Compat.spawn(world, particleType, particleLoc, particleCount, offsetX, offsetY, offsetZ, 0.005);
+        });
     }
 
-    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
-    public void onBlockExp(BlockExpEvent event) {
-        int originalAmount = event.getExpToDrop();
-        if (originalAmount <= 0) return;
-        int newAmount = (int) Math.max(1, Math.round(originalAmount * XP_MULTIPLIER));
-        event.setExpToDrop(newAmount);
+    private void playOreEffects(Location centre) {
+        World world = centre.getWorld();
+        world.spawnParticle(Compat.COMPOSTER, centre.clone().add(0, 0.2, 0), 10, 0.3, 0.3, 0.3, 0.05);
+        world.playSound(centre, Compat.AMETHYST_CHIME, SoundCategory.BLOCKS, 0.9f, 1.6f + random.nextFloat() * 0.2f);
     }
 
-    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
-    public void onFurnaceExtract(FurnaceExtractEvent event) {
-        int originalAmount = event.getExpToDrop();
-        if (originalAmount <= 0) return;
-        int newAmount = (int) Math.max(1, Math.round(originalAmount * XP_MULTIPLIER));
-        event.setExpToDrop(newAmount);
+    private void playLootEffects(Location eyes) {
+        World world = eyes.getWorld();
+        world.spawnParticle(Compat.HAPPY_VILLAGER, eyes, 10, 0.4, 0.4, 0.4, 0.05);
+        world.playSound(eyes, Sound.ENTITY_CHICKEN_EGG, SoundCategory.NEUTRAL, 1.0f, 1.0f + random.nextFloat() * 0.3f);
     }
 
     @Override
@@ -4,7 +4,6 @@ import com.rex.worldMood.Atmosphere;
 import com.rex.worldMood.Compat;
 import com.rex.worldMood.WorldMood;
 import org.bukkit.*;
-import org.bukkit.block.Block;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.potion.PotionEffect;
@@ -12,8 +11,10 @@ import org.bukkit.potion.PotionEffectType;
 import org.bukkit.SoundCategory;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 public class ShadowVeil extends Mood {
 
@@ -27,6 +28,18 @@ public class ShadowVeil extends Mood {
 
     private static final Color HAZE_SHADOW = Color.fromRGB(38, 18, 54);   // deep creeping violet
     private static final Color HAZE_VIOLET = Color.fromRGB(74, 30, 96);
+    private static final Color CAVE_SHADOW_FROM = Color.fromRGB(25, 25, 35);
+    private static final Color CAVE_SHADOW_TO = Color.fromRGB(5, 5, 10);
+    /** Cave wisps vary in size; a handful of interned sizes looks the same as a fresh random one. */
+    private static final float[] CAVE_SHADOW_SIZES = {0.8f, 0.9f, 1.0f, 1.1f, 1.2f};
+
+    // Built once per activation from Atmosphere's interned palette; tick() only reuses them.
+    private Particle.DustOptions hazeShadow;
+    private Particle.DustOptions hazeViolet;
+    private PotionEffect darkPulse;
+    private Object[] caveShadows;   // Particle.DustTransition, or all null before 1.17
+    private PotionEffect caveDarkness;
+    private PotionEffect caveBlind;
 
     /** In seconds — tick() is invoked once per second. */
     private static final int SPOOKY_EFFECT_INTERVAL_SECONDS = 2;
@@ -81,6 +94,22 @@ public class ShadowVeil extends Mood {
         return "Reality flickers as shadows deepen and writhe, causing brief moments of blindness or invisibility amidst unsettling whispers.";
     }
 
+    /** Declares the haze layers again, or restarts the fog, if their switch changed. */
+    @Override
+    public void onSettingsReloaded(Set<String> changed) {
+        if (changed.contains("shadowHaze")) {
+            plugin.getAtmosphereRenderer().clear(this);
+            addLayers();
+        }
+        if (changed.contains("fogRecolor")) {
+            if (fogRecolorEnabled) {
+                plugin.getFogController().begin("worldmood:shadow_veil"); // ends the running session first
+            } else {
+                plugin.getFogController().end();
+            }
+        }
+    }
+
     @Override
     public List<String> getEffects() {
         String caveDarknessEffect = "Enhanced Effects in Darkness";
@@ -97,12 +126,26 @@ public class ShadowVeil extends Mood {
 
     @Override
     public void apply() {
-        for(Player p : Bukkit.getOnlinePlayers()) {
+        hazeShadow = Atmosphere.dust(HAZE_SHADOW, 2.0f);
+        hazeViolet = Atmosphere.dust(HAZE_VIOLET, 1.5f);
+        // real Darkness on 1.19+, else short blindness
+        darkPulse = darknessPotionEffectType != null
+                ? Atmosphere.effect(darknessPotionEffectType, 90, 0)
+                : Atmosphere.effect(Compat.BLINDNESS, 30, 0);
+        caveShadows = new Object[CAVE_SHADOW_SIZES.length];
+        for (int i = 0; i < CAVE_SHADOW_SIZES.length; i++) {
+            caveShadows[i] = Atmosphere.transition(CAVE_SHADOW_FROM, CAVE_SHADOW_TO, CAVE_SHADOW_SIZES[i]);
+        }
+        caveDarkness = darknessPotionEffectType != null
+                ? new PotionEffect(darknessPotionEffectType, CAVE_DARKNESS_DURATION, 0, true, false, false) : null;
+        caveBlind = new PotionEffect(Compat.BLINDNESS, CAVE_DARKNESS_DURATION / 2, 0, true, false, false);
+        addLayers();
+        fanOut(p -> {
             if (p.getWorld().getEnvironment() == World.Environment.NORMAL || p.getWorld().getEnvironment() == World.Environment.NETHER) {
                 p.playSound(p.getLocation(), Sound.ENTITY_ENDERMAN_STARE, SoundCategory.AMBIENT, 0.6f, 0.7f);
                 p.playSound(p.getLocation(), Sound.AMBIENT_CAVE, SoundCategory.AMBIENT, 0.4f, 0.5f);
             }
-        }
+        });
         // Recolour the fog a dark violet around each player (crash-safe; no-ops on legacy).
         if (fogRecolorEnabled) {
             plugin.getFogController().begin("worldmood:shadow_veil");
@@ -113,7 +156,7 @@ public class ShadowVeil extends Mood {
     public void remove() {
         // Restore the recoloured fog biomes (safe to call even if fog was never applied).
         plugin.getFogController().end();
-        for (Player player : Bukkit.getOnlinePlayers()) {
+        fanOut(player -> {
             PotionEffect blindness = player.getPotionEffect(Compat.BLINDNESS);
             if (blindness != null && blindness.getDuration() <= blindnessDurationTicks + 20 && blindness.getAmplifier() == 0) {
                 player.removePotionEffect(Compat.BLINDNESS);
@@ -128,34 +171,18 @@ public class ShadowVeil extends Mood {
                     player.removePotionEffect(darknessPotionEffectType);
                 }
             }
-        }
+        });
     }
 
     @Override
     public void tick(long ticksRemaining) {
         // tick() runs once per second, so secondsElapsed is directly comparable to the config value.
 
-        // creeping violet haze + drifting ash + periodic true-darkness pulses (client-side, transient)
-        if (ambientHazeEnabled) {
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                if (player.getGameMode() == GameMode.SPECTATOR) continue;
-                World.Environment env = player.getWorld().getEnvironment();
-                if (env != World.Environment.NORMAL && env != World.Environment.NETHER) continue;
-                Atmosphere.dustHaze(player, HAZE_SHADOW, 2.0f, 26, 7.0);
-                Atmosphere.dustHaze(player, HAZE_VIOLET, 1.5f, 10, 4.5);
-                Atmosphere.fallingMotes(player, Compat.ASH, 5, 6.0);
-                // a slow pulse of oppressive dark every ~8s (real Darkness on 1.19+, else short blindness)
-                if (secondsElapsed % 8 == 0) {
-                    Atmosphere.pulse(player, darknessPotionEffectType != null ? darknessPotionEffectType : Compat.BLINDNESS,
-                            darknessPotionEffectType != null ? 90 : 30, 0);
-                }
-            }
-        }
-
         if (effectIntervalSeconds > 0 && secondsElapsed % effectIntervalSeconds == 0) {
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                if (player.isDead() || player.getGameMode() == GameMode.CREATIVE || player.getGameMode() == GameMode.SPECTATOR) continue;
-                if (player.getWorld().getEnvironment() != World.Environment.NORMAL && player.getWorld().getEnvironment() != World.Environment.NETHER) continue;
+            forEachPlayer(player -> {
+                if (player.isDead() || player.getGameMode() == GameMode.CREATIVE || player.getGameMode() == GameMode.SPECTATOR) return;
+                if (player.getWorld().getEnvironment() != World.Environment.NORMAL && player.getWorld().getEnvironment() != World.Environment.NETHER) return;
+                if (isAfk(player)) return; // a jump scare nobody is there to see
 
                 if (random.nextDouble() < effectChance) {
                     boolean applyBlindness = random.nextBoolean();
@@ -171,65 +198,76 @@ public class ShadowVeil extends Mood {
                         player.playSound(player.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, SoundCategory.PLAYERS, 0.4f, 1.6f);
                     }
                 }
-            }
+            });
         }
+    }
 
-        if (secondsElapsed % SPOOKY_EFFECT_INTERVAL_SECONDS == 0) {
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                if (player.isDead() || player.getGameMode() == GameMode.SPECTATOR) continue;
-                if (player.getWorld().getEnvironment() != World.Environment.NORMAL && player.getWorld().getEnvironment() != World.Environment.NETHER) continue;
-
-                World world = player.getWorld();
-                Location loc = player.getLocation();
-
-                if (random.nextDouble() < SPOOKY_SOUND_CHANCE) {
-                    Sound soundToPlay;
-                    float pitch = 0.5f + random.nextFloat() * 0.3f;
-                    float volume = 0.25f + random.nextFloat() * 0.25f;
-                    int soundChoice = random.nextInt(5);
-
-                    switch(soundChoice) {
-                        case 0: soundToPlay = Sound.AMBIENT_CAVE; break;
-                        case 1: soundToPlay = Sound.ENTITY_ENDERMAN_AMBIENT; volume *= 0.7f; break;
-                        case 2:
-                            if (darknessPotionEffectType != null && Compat.WARDEN_AMBIENT != null) {
-                                soundToPlay = Compat.WARDEN_AMBIENT; volume *= 0.15f; pitch *= 0.7f;
-                            } else {
-                                soundToPlay = Sound.AMBIENT_BASALT_DELTAS_MOOD;
-                            }
-                            break;
-                        case 3: soundToPlay = Sound.BLOCK_RESPAWN_ANCHOR_DEPLETE; volume *= 0.5f; pitch = 0.5f + random.nextFloat() * 0.2f; break;
-                        case 4: default: soundToPlay = Sound.AMBIENT_SOUL_SAND_VALLEY_MOOD; volume *= 0.4f; break;
-                    }
-                    world.playSound(loc, soundToPlay, SoundCategory.AMBIENT, volume, pitch);
+    /** Shadow Veil's ambient visuals and sounds, drawn by the shared atmosphere loop. */
+    private void addLayers() {
+        Set<World.Environment> veiled = EnumSet.of(World.Environment.NORMAL, World.Environment.NETHER);
+        // creeping violet haze + drifting ash + periodic true-darkness pulses (client-side, transient)
+        if (ambientHazeEnabled) {
+            layer("haze", 20, veiled, player -> {
+                Atmosphere.dustHaze(player, hazeShadow, 26, 7.0);
+                Atmosphere.dustHaze(player, hazeViolet, 10, 4.5);
+                Atmosphere.fallingMotes(player, Compat.ASH, 5, 6.0);
+            });
+            // a slow pulse of oppressive dark every ~8s (real Darkness on 1.19+, else short blindness)
+            layer("dark-pulse", 8 * 20, veiled, player -> Atmosphere.pulse(player, darkPulse));
+        }
+
+        // distant sounds, and shadow wisps / sudden dark in unlit places
+        layer("whispers", SPOOKY_EFFECT_INTERVAL_SECONDS * 20, veiled, player -> {
+            if (player.isDead()) return;
+
+            World world = player.getWorld();
+            Location loc = player.getLocation();
+
+            if (random.nextDouble() < SPOOKY_SOUND_CHANCE) {
+                Sound soundToPlay;
+                float pitch = 0.5f + random.nextFloat() * 0.3f;
+                float volume = 0.25f + random.nextFloat() * 0.25f;
+                int soundChoice = random.nextInt(5);
+
+                switch(soundChoice) {
+                    case 0: soundToPlay = Sound.AMBIENT_CAVE; break;
+                    case 1: soundToPlay = Sound.ENTITY_ENDERMAN_AMBIENT; volume *= 0.7f; break;
+                    case 2:
+                        if (darknessPotionEffectType != null && Compat.WARDEN_AMBIENT != null) {
+                            soundToPlay = Compat.WARDEN_AMBIENT; volume *= 0.15f; pitch *= 0.7f;
+                        } else {
+                            soundToPlay = Sound.AMBIENT_BASALT_DELTAS_MOOD;
+                        }
+                        break;
+                    case 3: soundToPlay = Sound.BLOCK_RESPAWN_ANCHOR_DEPLETE; volume *= 0.5f; pitch = 0.5f + random.nextFloat() * 0.2f; break;
+                    case 4: default: soundToPlay = Sound.AMBIENT_SOUL_SAND_VALLEY_MOOD; volume *= 0.4f; break;
                 }
+                world.playSound(loc, soundToPlay, SoundCategory.AMBIENT, volume, pitch);
+            }
 
-                Block blockAtPlayer = loc.getBlock();
-                if (blockAtPlayer.getLightLevel() < 6) {
-                    int particleCount = 1 + random.nextInt(2);
-                    double spread = 0.7;
-                    // Particle.DustTransition is 1.17+, so it is built reflectively and comes back
-                    // null on older servers; those simply always take the ASH branch below.
-                    Object dustTransition = Compat.dustTransition(
-                            Color.fromRGB(25, 25, 35), Color.fromRGB(5, 5, 10), 0.8f + random.nextFloat() * 0.4f);
-                    if (random.nextBoolean() && dustTransition != null && Compat.DUST_COLOR_TRANSITION != null) {
-                        Compat.spawn(world, Compat.DUST_COLOR_TRANSITION, loc.add(random.nextGaussian()*0.5, 1 + random.nextDouble()*0.5, random.nextGaussian()*0.5), particleCount, spread, spread, spread, 0, dustTransition);
-                    } else {
-                        Compat.spawn(world, Compat.ASH, loc.add(random.nextGaussian()*0.5, 0.8 + random.nextDouble()*0.5, random.nextGaussian()*0.5), particleCount, spread*0.8, spread*0.5, spread*0.8, 0.01);
-                    }
+            if (plugin.getLightSampler().read(player).getFeetLight() < 6) {
+                int particleCount = 1 + random.nextInt(2);
+                double spread = 0.7;
+                // Particle.DustTransition is 1.17+, so it is built reflectively and comes back
+                // null on older servers; those simply always take the ASH branch below.
+                Object dustTransition = caveShadows[random.nextInt(caveShadows.length)];
+                if (random.nextBoolean() && dustTransition != null && Compat.DUST_COLOR_TRANSITION != null) {
+                    Compat.spawn(world, Compat.DUST_COLOR_TRANSITION, loc.add(random.nextGaussian()*0.5, 1 + random.nextDouble()*0.5, random.nextGaussian()*0.5), particleCount, spread, spread, spread, 0, dustTransition);
+                } else {
+                    Compat.spawn(world, Compat.ASH, loc.add(random.nextGaussian()*0.5, 0.8 + random.nextDouble()*0.5, random.nextGaussian()*0.5), particleCount, spread*0.8, spread*0.5, spread*0.8, 0.01);
+                }
 
-                    if (darknessPotionEffectType != null && random.nextDouble() < CAVE_DARKNESS_CHANCE) {
-                        PotionEffect darknessEffect = new PotionEffect(darknessPotionEffectType, CAVE_DARKNESS_DURATION, 0, true, false, false);
-                        player.addPotionEffect(darknessEffect, true);
-                        world.playSound(loc, sculkShriekSound, SoundCategory.AMBIENT, 0.6f, 0.7f + random.nextFloat() * 0.2f);
-                    } else if (darknessPotionEffectType == null && random.nextDouble() < CAVE_DARKNESS_CHANCE / 2) {
-                        PotionEffect shortBlind = new PotionEffect(Compat.BLINDNESS, CAVE_DARKNESS_DURATION / 2, 0, true, false, false);
-                        player.addPotionEffect(shortBlind, true);
-                        world.playSound(loc, Sound.BLOCK_STONE_BUTTON_CLICK_ON, SoundCategory.AMBIENT, 0.5f, 0.6f);
-                    }
+                // players who asked for no screen effects only get the particles above
+                if (!plugin.getEffectsProfile().allowsPulses(player)) return;
+                if (darknessPotionEffectType != null && random.nextDouble() < CAVE_DARKNESS_CHANCE) {
+                    player.addPotionEffect(caveDarkness, true);
+                    world.playSound(loc, sculkShriekSound, SoundCategory.AMBIENT, 0.6f, 0.7f + random.nextFloat() * 0.2f);
+                } else if (darknessPotionEffectType == null && random.nextDouble() < CAVE_DARKNESS_CHANCE / 2) {
+                    player.addPotionEffect(caveBlind, true);
+                    world.playSound(loc, Sound.BLOCK_STONE_BUTTON_CLICK_ON, SoundCategory.AMBIENT, 0.5f, 0.6f);
                 }
             }
-        }
+        });
     }
 
     @Override
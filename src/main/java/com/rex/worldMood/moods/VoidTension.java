@@ -2,6 +2,9 @@ package com.rex.worldMood.moods;
 
 import com.rex.worldMood.Atmosphere;
 import com.rex.worldMood.Compat;
+import com.rex.worldMood.EntityNames;
+import com.rex.worldMood.MoodEventRouter;
+import com.rex.worldMood.WeightedEventTable;
 import com.rex.worldMood.WorldMood;
 import org.bukkit.*;
 import org.bukkit.attribute.Attribute;
@@ -11,26 +14,30 @@ import org.bukkit.block.Container;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.*;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.HandlerList;
-import org.bukkit.event.Listener;
 import org.bukkit.event.entity.CreatureSpawnEvent;
 import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
 import org.bukkit.SoundCategory;
 
 import java.util.*;
-import java.util.function.Supplier;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
-public class VoidTension extends Mood implements Listener {
+public class VoidTension extends Mood {
+
+    private static final EntityNames.Tags VOID_NAMES = EntityNames.tags(ChatColor.DARK_PURPLE + "Void Touched " + ChatColor.LIGHT_PURPLE);
+
+    /** Every non-player spawn gets the void name; these are the ones that may also turn strong. */
+    private static final MoodEventRouter.SpawnFilter TOUCHED_SPAWNS = MoodEventRouter.SpawnFilter.of(null, null, LivingEntity.class);
+    private static final Set<CreatureSpawnEvent.SpawnReason> STRONG_REASONS = EnumSet.of(
+            CreatureSpawnEvent.SpawnReason.NATURAL, CreatureSpawnEvent.SpawnReason.SPAWNER,
+            CreatureSpawnEvent.SpawnReason.REINFORCEMENTS, CreatureSpawnEvent.SpawnReason.PATROL,
+            CreatureSpawnEvent.SpawnReason.RAID, CreatureSpawnEvent.SpawnReason.DROWNED,
+            CreatureSpawnEvent.SpawnReason.JOCKEY, CreatureSpawnEvent.SpawnReason.MOUNT,
+            CreatureSpawnEvent.SpawnReason.SLIME_SPLIT, CreatureSpawnEvent.SpawnReason.SILVERFISH_BLOCK);
 
     private boolean configEnableAnomalies;
     private double configAnomalyChancePerTickPerPlayer;
@@ -39,7 +46,6 @@ public class VoidTension extends Mood implements Listener {
     private boolean screenWarpEnabled;
     private boolean fogRecolorEnabled;
     private final Random random = new Random();
-    private BukkitTask hazeTask;
 
     private static final Color HAZE_VOID = Color.fromRGB(84, 22, 120);      // void purple
     private static final Color HAZE_VOID_DEEP = Color.fromRGB(140, 40, 170);
@@ -47,6 +53,12 @@ public class VoidTension extends Mood implements Listener {
     // washes toward blue in daylight, but per-player dust keeps its exact colour in any light.
     private static final Color HAZE_MIST = Color.fromRGB(150, 45, 205);
     private static final Color HAZE_MIST_DEEP = Color.fromRGB(96, 24, 156);
+    // Built once per activation from Atmosphere's interned palette; the haze task only reuses them.
+    private Particle.DustOptions hazeMist;
+    private Particle.DustOptions hazeMistDeep;
+    private Particle.DustOptions leechDust;
+    private PotionEffect warpPulse;
+    private PotionEffect darkPulse;
     private boolean anomalyAntiGravityPulseEnabled; private int anomalyAntiGravityPulseDurationTicks;
     private boolean anomalyVoidGraspEnabled; private int anomalyVoidGraspDurationTicks;
     private boolean anomalyRealityTearEnabled; private int anomalyRealityTearDurationTicks;
@@ -71,7 +83,10 @@ public class VoidTension extends Mood implements Listener {
     private static Material SCULK_MATERIAL = null;
     private static boolean versionSpecificsInitialized = false;
 
-    private final List<Supplier<Boolean>> anomalyExecutors = new ArrayList<>();
+    private WeightedEventTable<Predicate<Player>> anomalies = WeightedEventTable.<Predicate<Player>>builder().build();
+    // Unstable Ground's block types, and the crumble particle data for each; resolved once.
+    private Material[] unstableGroundTypes;
+    private BlockData[] unstableGroundParticles;
     private static final double DEFAULT_ANOMALY_CHANCE_PER_TICK_PER_PLAYER = 0.0002;
     private static final int DEFAULT_SHORT_DURATION_SECONDS = 6;
     private static final int DEFAULT_MEDIUM_DURATION_SECONDS = 10;
@@ -205,18 +220,35 @@ public class VoidTension extends Mood implements Listener {
     }
 
     private void populateAnomalyExecutors() {
-        this.anomalyExecutors.clear();
+        ConfigurationSection moodConfig = getMoodConfigSection();
+        ConfigurationSection anomaliesConfig = moodConfig == null ? null : moodConfig.getConfigurationSection("individualAnomalies");
+        WeightedEventTable.Builder<Predicate<Player>> table = WeightedEventTable.builder();
+
+        if (anomalyAntiGravityPulseEnabled) table.add("antiGravityPulse", this::executeAntiGravityPulse, section(anomaliesConfig, "antiGravityPulse"));
+        if (anomalyVoidGraspEnabled) table.add("voidGrasp", this::executeVoidGrasp, section(anomaliesConfig, "voidGrasp"));
+        if (anomalyRealityTearEnabled) table.add("realityTear", this::executeRealityTear, section(anomaliesConfig, "realityTear"));
+        if (anomalySpatialWarpEnabled) table.add("spatialWarp", this::executeSpatialWarp, section(anomaliesConfig, "spatialWarp"));
+        if (anomalyVoidShriekEnabled) table.add("voidShriek", this::executeVoidShriek, section(anomaliesConfig, "voidShriek"));
+        if (anomalyUnstableEnergyEnabled) table.add("unstableEnergy", this::executeUnstableEnergy, section(anomaliesConfig, "unstableEnergy"));
+        if (anomalyChronoStutterEnabled) table.add("chronoStutter", this::executeChronoStutter, section(anomaliesConfig, "chronoStutter"));
+        if (anomalyWhisperingMadnessEnabled) table.add("whisperingMadness", this::executeWhisperingMadness, section(anomaliesConfig, "whisperingMadness"));
+        if (anomalyUnstableGroundEnabled) table.add("unstableGround", this::executeUnstableGround, section(anomaliesConfig, "unstableGround"));
+        if (anomalyVoidLeechEnabled) table.add("voidLeech", this::executeVoidLeech, section(anomaliesConfig, "voidLeech"));
+        anomalies = table.build();
+
+        List<Material> unstableTypes = new ArrayList<>(Arrays.asList(Material.CRYING_OBSIDIAN, Material.MAGMA_BLOCK));
+        Material amethyst = Material.getMaterial("AMETHYST_BLOCK"); // 1.17+
+        if (amethyst != null) unstableTypes.add(amethyst);
+        if (SCULK_MATERIAL != null) unstableTypes.add(SCULK_MATERIAL);
+        unstableGroundTypes = unstableTypes.toArray(new Material[0]);
+        unstableGroundParticles = new BlockData[unstableGroundTypes.length];
+        for (int i = 0; i < unstableGroundTypes.length; i++) {
+            unstableGroundParticles[i] = unstableGroundTypes[i].createBlockData();
+        }
+    }
 
-        if (anomalyAntiGravityPulseEnabled) anomalyExecutors.add(this::executeAntiGravityPulse);
-        if (anomalyVoidGraspEnabled) anomalyExecutors.add(this::executeVoidGrasp);
-        if (anomalyRealityTearEnabled) anomalyExecutors.add(this::executeRealityTear);
-        if (anomalySpatialWarpEnabled) anomalyExecutors.add(this::executeSpatialWarp);
-        if (anomalyVoidShriekEnabled) anomalyExecutors.add(this::executeVoidShriek);
-        if (anomalyUnstableEnergyEnabled) anomalyExecutors.add(this::executeUnstableEnergy);
-        if (anomalyChronoStutterEnabled) anomalyExecutors.add(this::executeChronoStutter);
-        if (anomalyWhisperingMadnessEnabled) anomalyExecutors.add(this::executeWhisperingMadness);
-        if (anomalyUnstableGroundEnabled) anomalyExecutors.add(this::executeUnstableGround);
-        if (anomalyVoidLeechEnabled) anomalyExecutors.add(this::executeVoidLeech);
+    private static ConfigurationSection section(ConfigurationSection parent, String name) {
+        return parent == null ? null : parent.getConfigurationSection(name);
     }
 
     @Override
@@ -227,10 +259,26 @@ public class VoidTension extends Mood implements Listener {
         return "The fabric of reality strains. Anomalies abound, creatures adopt a void-touched visage, move with unnatural speed, and flicker through space.";
     }
 
+    /** Declares the haze and warp layers again, or restarts the fog, if their switches changed. */
+    @Override
+    public void onSettingsReloaded(Set<String> changed) {
+        if (changed.contains("voidHaze") || changed.contains("screenWarp")) {
+            plugin.getAtmosphereRenderer().clear(this);
+            if (ambientHazeEnabled) addLayers();
+        }
+        if (changed.contains("fogRecolor")) {
+            if (fogRecolorEnabled) {
+                plugin.getFogController().begin("worldmood:void_tension"); // ends the running session first
+            } else {
+                plugin.getFogController().end();
+            }
+        }
+    }
+
     @Override
     public List<String> getEffects() {
         List<String> effects = new ArrayList<>();
-        effects.add(configEnableAnomalies && !anomalyExecutors.isEmpty() ? "Frequent Configurable Anomalies" : (configEnableAnomalies ? "Anomalies Enabled (None Active/Configured)" : "Anomalies Disabled"));
+        effects.add(configEnableAnomalies && !anomalies.isEmpty() ? "Frequent Configurable Anomalies" : (configEnableAnomalies ? "Anomalies Enabled (None Active/Configured)" : "Anomalies Disabled"));
         effects.add(String.format("Hostile Mobs: +%.0f%% Spawn Chance (Stronger)", configStrongMobSpawnChance * 100));
         effects.add("All Creatures: 'Void Touched' & Faster");
         effects.add("Hostile Mobs: Random Teleportation");
@@ -243,113 +291,92 @@ public class VoidTension extends Mood implements Listener {
 
     @Override
     public void apply() {
-        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        hazeMist = Atmosphere.dust(HAZE_MIST, 1.6f);
+        hazeMistDeep = Atmosphere.dust(HAZE_MIST_DEEP, 1.0f);
+        leechDust = Atmosphere.dust(Color.fromRGB(100, 0, 120), 1.3f);
+        warpPulse = Atmosphere.effect(Compat.NAUSEA, 60, 0);
+        darkPulse = Atmosphere.effect(Compat.DARKNESS, 100, 0);
+        onSpawns(TOUCHED_SPAWNS, this::onCreatureSpawn);
+        onDeaths(LivingEntity.class, this::onEntityDeath);
 
         // NOTE: Void Tension deliberately no longer touches the world border. It used to max the
         // border's warning distance for a faint "warped sky" tint, but that renders a RED screen-edge
         // vignette — which clashes badly with the new purple fog and made the mood look red, not
         // purple. The real biome fog now provides the sky recolour, so the border hack is gone.
-        for (World world : Bukkit.getWorlds()) {
-            if (world.getEnvironment() == World.Environment.NORMAL || world.getEnvironment() == World.Environment.NETHER || world.getEnvironment() == World.Environment.THE_END) {
-                for (LivingEntity entity : world.getLivingEntities()) {
-                    if (entity instanceof Player || entity.isDead()) continue;
-                    PersistentDataContainer data = entity.getPersistentDataContainer();
-                    if (!data.has(VOID_NAMED_KEY, PersistentDataType.BYTE)) {
-                        applyVoidName(entity); data.set(VOID_NAMED_KEY, PersistentDataType.BYTE, (byte)1);
-                    }
-                    if (entity instanceof Monster) {
-                        if (!data.has(VOID_GENERIC_SPEED_KEY, PersistentDataType.DOUBLE)) { applySpeedBuff((Monster) entity); }
-                    }
-                }
+        forEachLivingEntity(this::isValidAnomalyWorld, entity -> {
+            if (entity instanceof Player || entity.isDead()) return;
+            PersistentDataContainer data = entity.getPersistentDataContainer();
+            if (!data.has(VOID_NAMED_KEY, PersistentDataType.BYTE)) {
+                applyVoidName(entity); data.set(VOID_NAMED_KEY, PersistentDataType.BYTE, (byte)1);
             }
-        }
+            if (entity instanceof Monster) {
+                if (!data.has(VOID_GENERIC_SPEED_KEY, PersistentDataType.DOUBLE)) { applySpeedBuff((Monster) entity); }
+            }
+        });
         // Recolour the fog a deep void purple around each player (crash-safe; no-ops on legacy).
         if (fogRecolorEnabled) {
             plugin.getFogController().begin("worldmood:void_tension");
         }
 
-        // Dense purple mist — the layer that actually makes the mood read purple in any lighting.
-        // Runs on its own 4-tick task (not the 1/s mood tick) so the haze stays smooth, not pulsing.
         if (ambientHazeEnabled) {
-            if (hazeTask != null) hazeTask.cancel();
-            hazeTask = new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (plugin.getMoodManager().getCurrentMood() != VoidTension.this) {
-                        cancel();
-                        return;
-                    }
-                    for (Player p : Bukkit.getOnlinePlayers()) {
-                        if (p.getGameMode() == GameMode.SPECTATOR) continue;
-                        World.Environment env = p.getWorld().getEnvironment();
-                        if (env != World.Environment.NORMAL && env != World.Environment.NETHER
-                                && env != World.Environment.THE_END) continue;
-                        Atmosphere.dustHaze(p, HAZE_MIST, 1.6f, 50, 9.5);
-                        Atmosphere.dustHaze(p, HAZE_MIST_DEEP, 1.0f, 28, 5.5);
-                    }
-                }
-            }.runTaskTimer(plugin, 0L, 4L);
+            addLayers();
         }
 
-        for(Player p : Bukkit.getOnlinePlayers()) {
+        fanOut(p -> {
             p.playSound(p.getLocation(), Sound.BLOCK_PORTAL_AMBIENT, SoundCategory.AMBIENT, 0.8f, 0.4f);
             p.playSound(p.getLocation(), Sound.ENTITY_ENDERMAN_SCREAM, SoundCategory.HOSTILE, 0.35f, 0.6f);
             p.sendTitle(ChatColor.DARK_PURPLE + "" + ChatColor.BOLD + "Void Tension", ChatColor.LIGHT_PURPLE + "Reality feels thin and warped...", 10, 80, 20);
-        }
+        });
     }
 
     @Override
     public void remove() {
-        HandlerList.unregisterAll(this);
-        if (hazeTask != null) {
-            hazeTask.cancel();
-            hazeTask = null;
-        }
         // Restore the recoloured fog biomes (safe to call even if fog was never applied).
         plugin.getFogController().end();
-        for (World world : Bukkit.getWorlds()) {
-            if (world.getEnvironment() == World.Environment.NORMAL || world.getEnvironment() == World.Environment.NETHER || world.getEnvironment() == World.Environment.THE_END) {
-                for (LivingEntity entity : world.getLivingEntities()) {
-                    if (entity instanceof Player || entity.isDead()) continue;
-                    PersistentDataContainer data = entity.getPersistentDataContainer();
-                    if (data.has(VOID_BUFFED_KEY, PersistentDataType.BYTE) && entity instanceof Monster) { removeVoidBuffs((Monster) entity); }
-                    if (data.has(VOID_GENERIC_SPEED_KEY, PersistentDataType.DOUBLE) && entity instanceof Monster) { removeSpeedBuff((Monster) entity); }
-                    if (data.has(VOID_NAMED_KEY, PersistentDataType.BYTE)) { removeVoidName(entity); }
-                }
-            }
-        }
-        for(Player p : Bukkit.getOnlinePlayers()) {
+        forEachLivingEntity(this::isValidAnomalyWorld, entity -> {
+            if (entity instanceof Player || entity.isDead()) return;
+            PersistentDataContainer data = entity.getPersistentDataContainer();
+            if (data.has(VOID_BUFFED_KEY, PersistentDataType.BYTE) && entity instanceof Monster) { removeVoidBuffs((Monster) entity); }
+            if (data.has(VOID_GENERIC_SPEED_KEY, PersistentDataType.DOUBLE) && entity instanceof Monster) { removeSpeedBuff((Monster) entity); }
+            if (data.has(VOID_NAMED_KEY, PersistentDataType.BYTE)) { removeVoidName(entity); }
+        });
+        fanOut(p -> {
             p.playSound(p.getLocation(), Sound.BLOCK_BEACON_DEACTIVATE, SoundCategory.AMBIENT, 0.7f, 1.1f);
             p.sendTitle(ChatColor.AQUA+"Reality Stabilizes", ChatColor.GRAY+"The void tension dissipates...", 10, 60, 20);
+        });
+    }
+
+    /** Warped purple haze + reality-bending screen wobble + oppressive dark (client-side, transient). */
+    private void addLayers() {
+        // Dense purple mist — the layer that actually makes the mood read purple in any lighting.
+        // Every 4 ticks rather than once a second so the haze stays smooth, not pulsing.
+        layer("mist", 4, EnumSet.of(World.Environment.NORMAL, World.Environment.NETHER, World.Environment.THE_END), p -> {
+            Atmosphere.dustHaze(p, hazeMist, 50, 9.5);
+            Atmosphere.dustHaze(p, hazeMistDeep, 28, 5.5);
+        });
+        // swirling portal/witch/dragon-breath accents
+        layer("portal", 20, null, p -> Atmosphere.haze(p, Compat.PORTAL, 14, 6.0, 0.6));
+        layer("witch", 3 * 20, null, p -> Atmosphere.haze(p, Compat.WITCH, 6, 5.0, 0.0));
+        layer("dragon-breath", 5 * 20, null, p -> Atmosphere.haze(p, Compat.DRAGON_BREATH, 4, 4.0, 0.02));
+
+        // Nausea screen-warp comes in WAVES, not constantly — Void Tension lasts a full day,
+        // and non-stop nausea would be genuinely sickening. ~8s of warp every ~40s reads as
+        // "reality lurches" periodically. Config-toggleable and mild (amplifier 0).
+        if (screenWarpEnabled) {
+            layer("screen-warp", 20, null, p -> {
+                if ((secondsElapsed % 40) < 8) Atmosphere.pulse(p, warpPulse);
+            });
+        }
+        // periodic true-darkness beat on 1.19+ (null-safe; skipped on older servers)
+        if (darkPulse != null) {
+            layer("dark-pulse", 9 * 20, null, p -> Atmosphere.pulse(p, darkPulse));
         }
     }
 
     @Override
     public void tick(long ticksRemaining) {
-        // warped purple haze + reality-bending screen wobble + oppressive dark (client-side, transient)
-        if (ambientHazeEnabled) {
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                if (player.getGameMode() == GameMode.SPECTATOR) continue;
-                // The dense purple dust mist is spawned by the dedicated hazeTask (started in apply);
-                // here we keep the swirling portal/witch accents and the screen effects.
-                Atmosphere.haze(player, Compat.PORTAL, 14, 6.0, 0.6);
-                if (secondsElapsed % 3 == 0) Atmosphere.haze(player, Compat.WITCH, 6, 5.0, 0.0);
-                if (secondsElapsed % 5 == 0) Atmosphere.haze(player, Compat.DRAGON_BREATH, 4, 4.0, 0.02);
-
-                // Nausea screen-warp comes in WAVES, not constantly — Void Tension lasts a full day,
-                // and non-stop nausea would be genuinely sickening. ~8s of warp every ~40s reads as
-                // "reality lurches" periodically. Config-toggleable and mild (amplifier 0).
-                if (screenWarpEnabled && (secondsElapsed % 40) < 8) {
-                    Atmosphere.pulse(player, Compat.NAUSEA, 60, 0);
-                }
-                // periodic true-darkness beat on 1.19+ (null-safe; skipped on older servers)
-                if (secondsElapsed % 9 == 0) {
-                    Atmosphere.pulse(player, Compat.DARKNESS, 100, 0);
-                }
-            }
-        }
 
-        if (configEnableAnomalies && !anomalyExecutors.isEmpty()) {
+        if (configEnableAnomalies && !anomalies.isEmpty()) {
             int playerCount = Bukkit.getOnlinePlayers().size();
             if (playerCount > 0) {
                 double effectiveChance = 1.0 - Math.pow(1.0 - configAnomalyChancePerTickPerPlayer, playerCount);
@@ -359,9 +386,9 @@ public class VoidTension extends Mood implements Listener {
             }
         }
         if (secondsElapsed % MOB_TELEPORT_INTERVAL_SECONDS == 0) {
-            for (Player player : Bukkit.getOnlinePlayers()) {
+            forEachPlayer(player -> {
                 World world = player.getWorld();
-                if (world.getEnvironment() != World.Environment.NORMAL && world.getEnvironment() != World.Environment.NETHER && world.getEnvironment() != World.Environment.THE_END) continue;
+                if (world.getEnvironment() != World.Environment.NORMAL && world.getEnvironment() != World.Environment.NETHER && world.getEnvironment() != World.Environment.THE_END) return;
                 for (Entity entity : player.getNearbyEntities(32, 16, 32)) {
                     if (entity instanceof Monster && !entity.isDead()) {
                         Monster monster = (Monster) entity;
@@ -372,7 +399,7 @@ public class VoidTension extends Mood implements Listener {
                                 if (targetLocation != null && targetLocation.distanceSquared(currentLocation) > 4) {
                                     world.playSound(currentLocation, Sound.ENTITY_ENDERMAN_TELEPORT, SoundCategory.HOSTILE, 0.7f, 0.8f);
                                     world.spawnParticle(Compat.PORTAL, currentLocation.add(0, monster.getHeight() / 2.0, 0), 30, 0.3, 0.5, 0.3, 0.15);
-                                    monster.teleport(targetLocation);
+                                    plugin.getScheduler().teleport(monster, targetLocation.clone());
                                     world.playSound(targetLocation, Sound.ENTITY_ENDERMAN_TELEPORT, SoundCategory.HOSTILE, 0.9f, 1.1f);
                                     world.spawnParticle(Compat.PORTAL, targetLocation.add(0, monster.getHeight() / 2.0, 0), 35, 0.3, 0.5, 0.3, 0.15);
                                 }
@@ -380,23 +407,45 @@ public class VoidTension extends Mood implements Listener {
                         }
                     }
                 }
-            }
+            });
         }
     }
 
     private void triggerRandomAnomaly() {
-        if (anomalyExecutors.isEmpty()) {
-            return;
-        }
-        anomalyExecutors.get(random.nextInt(anomalyExecutors.size())).get();
+        Player targetPlayer = getEligibleRandomPlayer();
+        if (targetPlayer == null) return;
+        // null when every enabled anomaly is cooling down
+        WeightedEventTable.Event<Predicate<Player>> anomaly = anomalies.pick(random);
+        if (anomaly == null) return;
+        // Picked here, run where the target lives: every anomaly works on the target's surroundings.
+        plugin.getScheduler().runFor(targetPlayer, () -> {
+            long start = System.nanoTime();
+            try {
+                anomaly.getAction().test(targetPlayer);
+            } catch (RuntimeException e) {
+                anomaly.recordFailure();
+                plugin.getLogger().warning("[VoidTension] Anomaly " + anomaly.getName() + " failed: " + e);
+            } finally {
+                anomaly.recordRun(start);
+            }
+        });
+    }
+
+    @Override
+    public WeightedEventTable<?> getEventTable() {
+        return anomalies;
     }
 
+    /** A random living survival/adventure player, picked in one pass over the player grid. */
     private Player getEligibleRandomPlayer() {
-        List<Player> eligiblePlayers = Bukkit.getOnlinePlayers().stream()
-                .filter(p -> !p.isDead() && (p.getGameMode() == GameMode.SURVIVAL || p.getGameMode() == GameMode.ADVENTURE))
-                .collect(Collectors.toList());
-        if (eligiblePlayers.isEmpty()) return null;
-        return eligiblePlayers.get(random.nextInt(eligiblePlayers.size()));
+        Player picked = null;
+        int eligible = 0;
+        for (Player p : plugin.getPlayerGrid().players()) {
+            if (p.isDead() || (p.getGameMode() != GameMode.SURVIVAL && p.getGameMode() != GameMode.ADVENTURE)) continue;
+            // Reservoir sampling: the n-th eligible player replaces the pick with chance 1/n.
+            if (random.nextInt(++eligible) == 0) picked = p;
+        }
+        return picked;
     }
 
     private boolean isValidAnomalyWorld(World world) {
@@ -405,8 +454,7 @@ public class VoidTension extends Mood implements Listener {
                 world.getEnvironment() == World.Environment.NETHER;
     }
 
-    private boolean executeAntiGravityPulse() {
-        Player targetPlayer = getEligibleRandomPlayer(); if (targetPlayer == null) return false;
+    private boolean executeAntiGravityPulse(Player targetPlayer) {
         Location center = targetPlayer.getLocation(); World world = center.getWorld();
         if (world == null || !isValidAnomalyWorld(world)) return false;
 
@@ -414,7 +462,7 @@ public class VoidTension extends Mood implements Listener {
         world.playSound(center, Sound.ENTITY_ENDERMAN_TELEPORT, SoundCategory.PLAYERS, 1.5f, 0.4f);
         world.spawnParticle(Compat.PORTAL, center, 180, 4.5, 1.8, 4.5, 0.25);
         world.spawnParticle(Compat.REVERSE_PORTAL, center, 120, 4.5, 1.8, 4.5, 0.15);
-        for (Player p : getNearbyPlayers(center, 12)) {
+        for (Player p : nearbyPlayers(center, 12)) {
             if (p.getGameMode() == GameMode.SURVIVAL || p.getGameMode() == GameMode.ADVENTURE) {
                 p.addPotionEffect(new PotionEffect(Compat.LEVITATION, anomalyAntiGravityPulseDurationTicks, 1), true);
                 p.addPotionEffect(new PotionEffect(Compat.SLOW_FALLING, anomalyAntiGravityPulseDurationTicks * 2 + 60, 0), true);
@@ -424,8 +472,7 @@ public class VoidTension extends Mood implements Listener {
         return true;
     }
 
-    private boolean executeVoidGrasp() {
-        Player targetPlayer = getEligibleRandomPlayer(); if (targetPlayer == null) return false;
+    private boolean executeVoidGrasp(Player targetPlayer) {
         Location center = targetPlayer.getLocation(); World world = center.getWorld();
         if (world == null || !isValidAnomalyWorld(world)) return false;
 
@@ -434,7 +481,7 @@ public class VoidTension extends Mood implements Listener {
         world.playSound(center, Sound.BLOCK_CONDUIT_DEACTIVATE, SoundCategory.PLAYERS, 1.1f, 0.4f);
         world.spawnParticle(Compat.SQUID_INK, center, 250, 6.5, 2.5, 6.5, 0);
         world.spawnParticle(Compat.CRIT, center, 150, 6.5, 2.5, 6.5, 0.1);
-        for (Player p : getNearbyPlayers(center, 15)) {
+        for (Player p : nearbyPlayers(center, 15)) {
             if (p.getGameMode() == GameMode.SURVIVAL || p.getGameMode() == GameMode.ADVENTURE) {
                 p.addPotionEffect(new PotionEffect(Compat.SLOWNESS, anomalyVoidGraspDurationTicks, 2), true);
                 p.addPotionEffect(new PotionEffect(Compat.WEAKNESS, anomalyVoidGraspDurationTicks, 1), true);
@@ -449,8 +496,7 @@ public class VoidTension extends Mood implements Listener {
         return true;
     }
 
-    private boolean executeRealityTear() {
-        Player targetPlayer = getEligibleRandomPlayer(); if (targetPlayer == null) return false;
+    private boolean executeRealityTear(Player targetPlayer) {
         Location center = targetPlayer.getLocation(); World world = center.getWorld();
         if (world == null || !isValidAnomalyWorld(world)) return false;
         plugin.getLogger().finer("[VoidTension Anomaly] Executing Reality Tear near " + targetPlayer.getName());
@@ -459,22 +505,21 @@ public class VoidTension extends Mood implements Listener {
         world.playSound(soundLoc, Sound.BLOCK_GLASS_BREAK, SoundCategory.BLOCKS, 0.6f, 0.7f);
         world.spawnParticle(Compat.SMOKE, soundLoc, 20, 0.3, 0.3, 0.3, 0.03);
         world.spawnParticle(Compat.CRIT, soundLoc, 25, 0.6, 0.6, 0.6, 0.12);
-        for (Player p : getNearbyPlayers(center, 10)) {
+        for (Player p : nearbyPlayers(center, 10)) {
             p.addPotionEffect(new PotionEffect(Compat.NAUSEA, anomalyRealityTearDurationTicks, 0), true);
         }
         targetPlayer.sendMessage(ChatColor.GRAY + "You hear something... unsettling nearby.");
         return true;
     }
 
-    private boolean executeSpatialWarp() {
-        Player targetPlayer = getEligibleRandomPlayer(); if (targetPlayer == null) return false;
+    private boolean executeSpatialWarp(Player targetPlayer) {
         World world = targetPlayer.getWorld();
         if (world == null || !isValidAnomalyWorld(world)) return false;
         plugin.getLogger().finer("[VoidTension Anomaly] Executing Spatial Warp for " + targetPlayer.getName());
         Location playerOriginalLoc = targetPlayer.getLocation();
         Location targetTeleportLoc = findSafeTeleportLocation(playerOriginalLoc, 8.0);
         if (targetTeleportLoc != null && targetTeleportLoc.distanceSquared(playerOriginalLoc) > 9) {
-            targetPlayer.teleport(targetTeleportLoc);
+            plugin.getScheduler().teleport(targetPlayer, targetTeleportLoc);
             world.playSound(targetTeleportLoc, Sound.ENTITY_ENDERMAN_TELEPORT, SoundCategory.PLAYERS, 1.0f, 0.7f);
             world.spawnParticle(Compat.PORTAL, targetTeleportLoc, 40, 0.5, 0.8, 0.5, 0.1);
             targetPlayer.addPotionEffect(new PotionEffect(Compat.NAUSEA, anomalySpatialWarpDurationTicks, 0), true);
@@ -487,8 +532,7 @@ public class VoidTension extends Mood implements Listener {
         return true;
     }
 
-    private boolean executeVoidShriek() {
-        Player targetPlayer = getEligibleRandomPlayer(); if (targetPlayer == null) return false;
+    private boolean executeVoidShriek(Player targetPlayer) {
         Location center = targetPlayer.getLocation(); World world = center.getWorld();
         if (world == null || !isValidAnomalyWorld(world)) return false;
         plugin.getLogger().finer("[VoidTension Anomaly] Executing Void Shriek near " + targetPlayer.getName());
@@ -496,7 +540,7 @@ public class VoidTension extends Mood implements Listener {
         world.playSound(center, Sound.ENTITY_ENDER_DRAGON_GROWL, SoundCategory.AMBIENT, 0.6f, 0.6f);
         if (SONIC_BOOM_PARTICLE != null) world.spawnParticle(SONIC_BOOM_PARTICLE, center, 1, 0,0,0,0);
         else world.spawnParticle(Compat.EXPLOSION, center, 1,0,0,0,0);
-        for (Player p : getNearbyPlayers(center, 20)) {
+        for (Player p : nearbyPlayers(center, 20)) {
             if (p.getGameMode() == GameMode.SURVIVAL || p.getGameMode() == GameMode.ADVENTURE) {
                 p.addPotionEffect(new PotionEffect(Compat.SLOWNESS, anomalyVoidShriekDurationTicks, 1), true);
                 p.addPotionEffect(new PotionEffect(Compat.MINING_FATIGUE, anomalyVoidShriekDurationTicks, 1), true);
@@ -506,8 +550,7 @@ public class VoidTension extends Mood implements Listener {
         return true;
     }
 
-    private boolean executeUnstableEnergy() {
-        Player targetPlayer = getEligibleRandomPlayer(); if (targetPlayer == null) return false;
+    private boolean executeUnstableEnergy(Player targetPlayer) {
         Location center = targetPlayer.getLocation(); World world = center.getWorld();
         if (world == null || !isValidAnomalyWorld(world)) return false;
         plugin.getLogger().finer("[VoidTension Anomaly] Executing Unstable Energy on " + targetPlayer.getName());
@@ -528,15 +571,14 @@ public class VoidTension extends Mood implements Listener {
         return true;
     }
 
-    private boolean executeChronoStutter() {
-        Player targetPlayer = getEligibleRandomPlayer(); if (targetPlayer == null) return false;
+    private boolean executeChronoStutter(Player targetPlayer) {
         Location center = targetPlayer.getLocation(); World world = center.getWorld();
         if (world == null || !isValidAnomalyWorld(world)) return false;
         plugin.getLogger().finer("[VoidTension Anomaly] Executing Chrono Stutter near " + targetPlayer.getName());
         world.playSound(center, Sound.BLOCK_NOTE_BLOCK_BASEDRUM, SoundCategory.PLAYERS, 1.0f, 0.4f);
         world.playSound(center, Sound.BLOCK_NOTE_BLOCK_BASEDRUM, SoundCategory.PLAYERS, 1.0f, 1.6f);
         world.spawnParticle(Compat.REVERSE_PORTAL, center, 90, 3.5, 1.2, 3.5, 0.08);
-        for (Player p : getNearbyPlayers(center, 10)) {
+        for (Player p : nearbyPlayers(center, 10)) {
             if (p.getGameMode() == GameMode.SURVIVAL || p.getGameMode() == GameMode.ADVENTURE) {
                 p.addPotionEffect(new PotionEffect(Compat.SLOWNESS, anomalyChronoStutterDurationTicks, 3), true);
                 p.addPotionEffect(new PotionEffect(Compat.HASTE, anomalyChronoStutterDurationTicks, 2, false, true, true), true);
@@ -546,8 +588,7 @@ public class VoidTension extends Mood implements Listener {
         return true;
     }
 
-    private boolean executeWhisperingMadness() {
-        Player targetPlayer = getEligibleRandomPlayer(); if (targetPlayer == null) return false;
+    private boolean executeWhisperingMadness(Player targetPlayer) {
         World world = targetPlayer.getWorld();
         if (world == null || !isValidAnomalyWorld(world)) return false;
         plugin.getLogger().finer("[VoidTension Anomaly] Executing Whispering Madness on " + targetPlayer.getName());
@@ -563,8 +604,7 @@ public class VoidTension extends Mood implements Listener {
         return true;
     }
 
-    private boolean executeUnstableGround() {
-        Player targetPlayer = getEligibleRandomPlayer(); if (targetPlayer == null) return false;
+    private boolean executeUnstableGround(Player targetPlayer) {
         Location center = targetPlayer.getLocation(); World world = center.getWorld();
         if (world == null || !isValidAnomalyWorld(world)) return false;
         plugin.getLogger().finer("[VoidTension Anomaly] Executing Unstable Ground near " + targetPlayer.getName());
@@ -572,16 +612,10 @@ public class VoidTension extends Mood implements Listener {
         world.playSound(center, Sound.BLOCK_GRINDSTONE_USE, SoundCategory.BLOCKS, 1.1f, 0.4f);
         world.playSound(center, Compat.DEEPSLATE_BREAK, SoundCategory.BLOCKS, 0.9f, 0.6f);
 
-        List<Material> unstableTypesList = new ArrayList<>(Arrays.asList(Material.CRYING_OBSIDIAN, Material.MAGMA_BLOCK));
-        Material amethyst = Material.getMaterial("AMETHYST_BLOCK"); // 1.17+
-        if (amethyst != null) unstableTypesList.add(amethyst);
-        if (SCULK_MATERIAL != null) unstableTypesList.add(SCULK_MATERIAL);
-        if (unstableTypesList.isEmpty()) unstableTypesList.add(Material.NETHERRACK);
+        BlockData crumble = unstableGroundParticles[random.nextInt(unstableGroundParticles.length)];
+        world.spawnParticle(Compat.BLOCK_CRUMBLE, center.clone().add(0, 0.2, 0), 60, 3, 0.2, 3, 0, crumble);
 
-        Material blockDataParticleMat = unstableTypesList.get(random.nextInt(unstableTypesList.size()));
-        world.spawnParticle(Compat.BLOCK_CRUMBLE, center.clone().add(0, 0.2, 0), 60, 3, 0.2, 3, 0, blockDataParticleMat.createBlockData());
-
-        List<Block> changedBlocksList = new ArrayList<>(); List<BlockData> originalDataList = new ArrayList<>();
+        Map<Block, Material> changes = new LinkedHashMap<>();
         for (int dx = -2; dx <= 2; dx++) {
             for (int dz = -2; dz <= 2; dz++) {
                 if (random.nextDouble() < 0.45) {
@@ -589,46 +623,34 @@ public class VoidTension extends Mood implements Listener {
                     if (currentBlock.getType().isSolid() && !currentBlock.isLiquid() &&
                             currentBlock.getType().getHardness() < 50 && !(currentBlock.getState() instanceof Container) &&
                             currentBlock.getType() != Material.BEDROCK && currentBlock.getType() != Material.BARRIER ) {
-                        changedBlocksList.add(currentBlock); originalDataList.add(currentBlock.getBlockData());
-                        currentBlock.setType(unstableTypesList.get(random.nextInt(unstableTypesList.size())), false);
+                        changes.put(currentBlock, unstableGroundTypes[random.nextInt(unstableGroundTypes.length)]);
                     }
                 }
             }
         }
-        if (!changedBlocksList.isEmpty()) {
+        if (!changes.isEmpty()) {
             long revertDelayTicks = anomalyUnstableGroundDurationTicks + random.nextInt(4 * 20);
             if (revertDelayTicks < 20L) revertDelayTicks = 20L;
 
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    for (int i = 0; i < changedBlocksList.size(); i++) {
-                        Block blockToRevert = changedBlocksList.get(i);
-                        if (unstableTypesList.contains(blockToRevert.getType())) {
-                            blockToRevert.setBlockData(originalDataList.get(i), true);
-                        }
-                    }
-                    world.playSound(center, Compat.DEEPSLATE_PLACE, SoundCategory.BLOCKS, 0.8f, 0.9f);
-                }
-            }.runTaskLater(plugin, revertDelayTicks);
+            // Journalled before the swap, so a crash before the revert is undone on startup.
+            plugin.getBlockRevertQueue().swap(world, changes, revertDelayTicks,
+                    () -> world.playSound(center, Compat.DEEPSLATE_PLACE, SoundCategory.BLOCKS, 0.8f, 0.9f));
 
-            for (Player p : getNearbyPlayers(center, 8)) {
+            for (Player p : nearbyPlayers(center, 8)) {
                 p.sendMessage(ChatColor.DARK_PURPLE + "The ground beneath feels unstable!");
             }
         }
         return true;
     }
 
-    private boolean executeVoidLeech() {
-        Player targetPlayer = getEligibleRandomPlayer(); if (targetPlayer == null) return false;
+    private boolean executeVoidLeech(Player targetPlayer) {
         Location center = targetPlayer.getLocation(); World world = center.getWorld();
         if (world == null || !isValidAnomalyWorld(world)) return false;
         plugin.getLogger().finer("[VoidTension Anomaly] Executing Void Leech near " + targetPlayer.getName());
 
         world.playSound(center, Sound.ENTITY_PLAYER_HURT_SWEET_BERRY_BUSH, SoundCategory.PLAYERS, 1.0f, 0.7f);
         world.playSound(center, Sound.PARTICLE_SOUL_ESCAPE, SoundCategory.PLAYERS, 0.9f, 1.1f);
-        Particle.DustOptions purpleDustOptions = new Particle.DustOptions(Color.fromRGB(100, 0, 120), 1.3f);
-        for (Player p : getNearbyPlayers(center, 12)) {
+        for (Player p : nearbyPlayers(center, 12)) {
             if (p.getGameMode() == GameMode.SURVIVAL || p.getGameMode() == GameMode.ADVENTURE) {
                 int weaknessDuration = anomalyVoidLeechWitherDurationTicks + (DEFAULT_MEDIUM_DURATION_SECONDS - DEFAULT_SHORT_DURATION_SECONDS) * 20; // e.g., Wither 6s (120t), Weakness 10s (200t)
                 p.addPotionEffect(new PotionEffect(Compat.WEAKNESS, weaknessDuration, 0), true);
@@ -636,17 +658,16 @@ public class VoidTension extends Mood implements Listener {
                 p.sendMessage(ChatColor.DARK_PURPLE + "A draining energy touches you...");
                 Location pLoc = p.getEyeLocation(); Vector direction = center.toVector().subtract(pLoc.toVector()).normalize().multiply(0.6);
                 for(int i = 0; i<6; i++) {
-                    world.spawnParticle(Compat.DUST, pLoc.clone().add(random.nextGaussian()*0.4, random.nextGaussian()*0.4, random.nextGaussian()*0.4) , 0, direction.getX(), direction.getY(), direction.getZ(), 0.6, purpleDustOptions);
+                    world.spawnParticle(Compat.DUST, pLoc.clone().add(random.nextGaussian()*0.4, random.nextGaussian()*0.4, random.nextGaussian()*0.4) , 0, direction.getX(), direction.getY(), direction.getZ(), 0.6, leechDust);
                 }
             }
         }
         return true;
     }
 
-    @EventHandler(priority = EventPriority.NORMAL)
-    public void onCreatureSpawn(CreatureSpawnEvent event) {
+    private void onCreatureSpawn(CreatureSpawnEvent event) {
         LivingEntity entity = event.getEntity();
-        if (entity instanceof Player || entity.isDead()) return;
+        if (entity.isDead()) return;
         PersistentDataContainer data = entity.getPersistentDataContainer();
 
         if (!data.has(VOID_NAMED_KEY, PersistentDataType.BYTE)) {
@@ -658,32 +679,13 @@ public class VoidTension extends Mood implements Listener {
             if (!data.has(VOID_GENERIC_SPEED_KEY, PersistentDataType.DOUBLE)) {
                 applySpeedBuff(monster);
             }
-            boolean shouldConsiderBuff;
-            switch (event.getSpawnReason()) {
-                case NATURAL:
-                case SPAWNER:
-                case REINFORCEMENTS:
-                case PATROL:
-                case RAID:
-                case DROWNED:
-                case JOCKEY:
-                case MOUNT:
-                case SLIME_SPLIT:
-                case SILVERFISH_BLOCK:
-                    shouldConsiderBuff = true;
-                    break;
-                default:
-                    shouldConsiderBuff = false;
-                    break;
-            }
-            if (shouldConsiderBuff && random.nextDouble() < configStrongMobSpawnChance) {
+            if (STRONG_REASONS.contains(event.getSpawnReason()) && random.nextDouble() < configStrongMobSpawnChance) {
                 makeMobStrong(monster);
             }
         }
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onEntityDeath(EntityDeathEvent event) {
+    private void onEntityDeath(EntityDeathEvent event) {
         PersistentDataContainer data = event.getEntity().getPersistentDataContainer();
         data.remove(VOID_BUFFED_KEY);
         data.remove(VOID_NAMED_KEY);
@@ -693,19 +695,11 @@ public class VoidTension extends Mood implements Listener {
     }
 
     private void applyVoidName(LivingEntity entity) {
-        String typeName = entity.getType().name().replace("_", " ");
-        String[] words = typeName.toLowerCase().split(" ");
-        for (int i = 0; i < words.length; i++) { if (!words[i].isEmpty()) { words[i] = Character.toUpperCase(words[i].charAt(0)) + words[i].substring(1); } }
-        String formattedTypeName = String.join(" ", words);
-        entity.setCustomName(ChatColor.DARK_PURPLE + "Void Touched " + ChatColor.LIGHT_PURPLE + formattedTypeName);
-        entity.setCustomNameVisible(false);
+        VOID_NAMES.apply(entity);
     }
 
     private void removeVoidName(LivingEntity entity) {
-        String currentName = entity.getCustomName();
-        if (currentName != null && currentName.startsWith(ChatColor.DARK_PURPLE + "Void Touched ")) {
-            entity.setCustomName(null);
-        }
+        VOID_NAMES.remove(entity);
         entity.getPersistentDataContainer().remove(VOID_NAMED_KEY);
     }
 
@@ -800,17 +794,6 @@ public class VoidTension extends Mood implements Listener {
         }
     }
 
-    private List<Player> getNearbyPlayers(Location location, double radius) {
-        List<Player> nearby = new ArrayList<>(); double radiusSq = radius * radius;
-        World world = location.getWorld();
-        if (world == null) return nearby;
-        for (Player p : world.getPlayers()) {
-            if (!p.isDead() && p.getLocation().distanceSquared(location) <= radiusSq) {
-                nearby.add(p);
-            }
-        } return nearby;
-    }
-
     private Location findSafeTeleportLocation(Location origin, double maxRadius) {
         World world = origin.getWorld(); if (world == null) return null;
         for (int i = 0; i < 20; i++) {
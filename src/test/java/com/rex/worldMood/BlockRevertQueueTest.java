@@ -0,0 +1,152 @@
+package com.rex.worldMood;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BlockRevertQueueTest {
+
+    private FakeTaskScheduler scheduler;
+    private WorldStateGuard guard;
+    private BlockRevertQueue queue;
+    private World world;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+    private final List<String> offThread = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new FakeTaskScheduler(4);
+        WorldMood plugin = mock(WorldMood.class);
+        when(plugin.getScheduler()).thenReturn(scheduler);
+        when(plugin.isEnabled()).thenReturn(true);
+        guard = mock(WorldStateGuard.class);
+        // The journal is "on disk" at once; the real guard calls back from its writer thread.
+        doAnswer(call -> {
+            ((Runnable) call.getArgument(2)).run();
+            return null;
+        }).when(guard).journalSwaps(any(), any(), any());
+        queue = new BlockRevertQueue(plugin, guard);
+
+        world = mock(World.class);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+        when(world.getBlockAt(anyInt(), anyInt(), anyInt())).thenAnswer(call ->
+                blocks.get(key(call.getArgument(0), call.getArgument(1), call.getArgument(2))));
+        TestServer.register(world);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void swapsInOneChunkAreRevertedByOneRegionTask() {
+        AtomicInteger reverted = new AtomicInteger();
+        // Two anomalies in chunk (0, 0) and one in chunk (1, 0).
+        swap(reverted, block(1, 64, 1), block(2, 64, 1));
+        swap(reverted, block(5, 64, 5));
+        swap(reverted, block(20, 64, 3));
+        int before00 = scheduler.runAtCount(world, 0, 0);
+        int before10 = scheduler.runAtCount(world, 1, 0);
+
+        scheduler.tick(60);
+
+        assertEquals(1, scheduler.runAtCount(world, 0, 0) - before00, "one revert task for chunk (0, 0)");
+        assertEquals(1, scheduler.runAtCount(world, 1, 0) - before10, "one revert task for chunk (1, 0)");
+        assertEquals(3, reverted.get(), "each swap's callback runs once");
+        for (Block block : blocks.values()) {
+            verify(block).setBlockData(any(BlockData.class), eq(true));
+        }
+        assertTrue(offThread.isEmpty(), "reverted off the owning thread: " + offThread);
+    }
+
+    @Test
+    void journalIsWrittenBeforeTheBlocksChangeAndClearedAfterTheyRevert() {
+        Block block = block(1, 64, 1);
+        swap(new AtomicInteger(), block);
+
+        InOrder order = inOrder(guard, block);
+        order.verify(guard).journalSwaps(eq(world), any(), any());
+        order.verify(block).setType(Material.MAGMA_BLOCK, false);
+
+        scheduler.tick(60);
+        order.verify(block).setBlockData(any(BlockData.class), eq(true));
+        order.verify(guard).journalReverted(eq(world), any());
+    }
+
+    @Test
+    void blockChangedSinceTheSwapIsLeftAlone() {
+        Block mined = block(1, 64, 1);
+        swap(new AtomicInteger(), mined);
+        mined.setType(Material.AIR, false);
+
+        scheduler.tick(60);
+        verify(mined, atLeastOnce()).getType();
+        verify(mined, never()).setBlockData(any(BlockData.class), anyBoolean());
+    }
+
+    /** Swaps the given blocks to magma from the thread that owns the first one, as an anomaly would. */
+    private void swap(AtomicInteger reverted, Block... swapped) {
+        Map<Block, Material> changes = new LinkedHashMap<>();
+        for (Block block : swapped) changes.put(block, Material.MAGMA_BLOCK);
+        scheduler.runAt(world, swapped[0].getX() >> 4, swapped[0].getZ() >> 4,
+                () -> queue.swap(world, changes, 40L, reverted::incrementAndGet));
+        scheduler.awaitIdle();
+    }
+
+    /** A block that remembers its type and checks it is only put back from its own region. */
+    private Block block(int x, int y, int z) {
+        Block block = mock(Block.class);
+        AtomicReference<Material> type = new AtomicReference<>(Material.STONE);
+        when(block.getX()).thenReturn(x);
+        when(block.getY()).thenReturn(y);
+        when(block.getZ()).thenReturn(z);
+        BlockData original = mock(BlockData.class);
+        when(block.getBlockData()).thenReturn(original);
+        when(block.getType()).thenAnswer(call -> type.get());
+        doAnswer(call -> {
+            type.set(call.getArgument(0));
+            return null;
+        }).when(block).setType(any(Material.class), anyBoolean());
+        doAnswer(call -> {
+            if (!scheduler.ownsChunk(world, x >> 4, z >> 4)) offThread.add(key(x, y, z));
+            type.set(Material.STONE);
+            return null;
+        }).when(block).setBlockData(any(BlockData.class), anyBoolean());
+        blocks.put(key(x, y, z), block);
+        return block;
+    }
+
+    private static String key(int x, int y, int z) {
+        return x + "," + y + "," + z;
+    }
+}
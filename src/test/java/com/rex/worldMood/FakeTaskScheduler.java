@@ -0,0 +1,299 @@
+package com.rex.worldMood;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A region-threaded {@link TaskScheduler} for tests, in the shape of Folia: one global thread and
+ * a handful of region threads, each a single-threaded executor. A chunk always belongs to the same
+ * region thread, and so does an entity (by UUID), so work for one target keeps its order while work
+ * for different targets really does run concurrently.
+ * <p>
+ * As on a real server, the undelayed {@code run*} methods run inline when the calling thread
+ * already owns the target and hop otherwise. Time only moves when a test calls {@link #tick(int)}:
+ * delayed work and timers fire then, on their own threads, and {@code tick} waits for everything
+ * they set off to finish.
+ * <p>
+ * Anything a task throws is kept and rethrown from {@link #awaitIdle()}, so an assertion that fails
+ * on a region thread still fails the test.
+ * <p>
+ * With no region threads it is shaped like Spigot instead: everything belongs to the global thread,
+ * so work for a player or a chunk runs inline when scheduled from it.
+ */
+final class FakeTaskScheduler implements TaskScheduler {
+
+    private static final long IDLE_TIMEOUT_MILLIS = 10_000L;
+
+    private final Lane global;
+    private final Lane[] regions;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final List<Throwable> failures = new ArrayList<>();
+    // Delayed work and timers, in the order they were scheduled. Guarded by this.
+    private final List<Timed> timed = new ArrayList<>();
+    private final Map<String, AtomicInteger> chunkTasks = new ConcurrentHashMap<>();
+    private long currentTick;
+
+    FakeTaskScheduler(int regionThreads) {
+        global = new Lane("fake-global");
+        regions = new Lane[regionThreads];
+        for (int i = 0; i < regionThreads; i++) {
+            regions[i] = new Lane("fake-region-" + i);
+        }
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return regions.length > 0;
+    }
+
+    @Override
+    public Task runGlobal(Runnable task) {
+        return run(global, task);
+    }
+
+    @Override
+    public Task runGlobalLater(Runnable task, long delayTicks) {
+        return later(global, task, delayTicks);
+    }
+
+    @Override
+    public Task runGlobalTimer(Consumer<Task> task, long delayTicks, long periodTicks) {
+        return timer(global, task, delayTicks, periodTicks);
+    }
+
+    @Override
+    public Task runFor(Entity entity, Runnable task) {
+        return run(laneOf(entity), task);
+    }
+
+    @Override
+    public Task runForLater(Entity entity, Runnable task, long delayTicks) {
+        return later(laneOf(entity), task, delayTicks);
+    }
+
+    @Override
+    public Task runAt(World world, int chunkX, int chunkZ, Runnable task) {
+        chunkTasks.computeIfAbsent(chunkName(world, chunkX, chunkZ), k -> new AtomicInteger()).incrementAndGet();
+        return run(laneOf(world, chunkX, chunkZ), task);
+    }
+
+    @Override
+    public Task runAtLater(World world, int chunkX, int chunkZ, Runnable task, long delayTicks) {
+        return later(laneOf(world, chunkX, chunkZ), task, delayTicks);
+    }
+
+    @Override
+    public void teleport(Entity entity, Location destination) {
+        run(laneOf(entity), () -> entity.teleport(destination));
+    }
+
+    @Override
+    public synchronized void cancelAll() {
+        for (Timed entry : timed) {
+            entry.handle.cancel();
+        }
+        timed.clear();
+    }
+
+    /** Runs {@code task} on the global thread and waits for it and everything it set off. */
+    void onGlobal(Runnable task) {
+        runGlobal(task);
+        awaitIdle();
+    }
+
+    /** Whether the calling thread is the global thread. */
+    boolean isGlobalThread() {
+        return global.owns();
+    }
+
+    /** Whether the calling thread owns the given chunk. */
+    boolean ownsChunk(World world, int chunkX, int chunkZ) {
+        return laneOf(world, chunkX, chunkZ).owns();
+    }
+
+    /** Whether the calling thread owns {@code entity}. */
+    boolean ownsEntity(Entity entity) {
+        return laneOf(entity).owns();
+    }
+
+    /** How many times {@link #runAt} has been asked to run something in that chunk. */
+    int runAtCount(World world, int chunkX, int chunkZ) {
+        AtomicInteger count = chunkTasks.get(chunkName(world, chunkX, chunkZ));
+        return count == null ? 0 : count.get();
+    }
+
+    /** Advances time by {@code ticks}, firing whatever falls due, and waits after each tick. */
+    void tick(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            List<Timed> due = new ArrayList<>();
+            synchronized (this) {
+                currentTick++;
+                Iterator<Timed> it = timed.iterator();
+                while (it.hasNext()) {
+                    Timed entry = it.next();
+                    if (entry.handle.isCancelled()) {
+                        it.remove();
+                    } else if (entry.dueTick <= currentTick) {
+                        due.add(entry);
+                        if (entry.periodTicks > 0) {
+                            entry.dueTick += entry.periodTicks;
+                        } else {
+                            it.remove();
+                        }
+                    }
+                }
+            }
+            for (Timed entry : due) {
+                submit(entry.lane, entry.handle, () -> entry.action.accept(entry.handle));
+            }
+            awaitIdle();
+        }
+    }
+
+    /** Waits until no task is queued or running, then rethrows the first failure, if any. */
+    void awaitIdle() {
+        long deadline = System.currentTimeMillis() + IDLE_TIMEOUT_MILLIS;
+        while (inFlight.get() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Scheduled work did not finish within " + IDLE_TIMEOUT_MILLIS + "ms");
+            }
+            Thread.yield();
+        }
+        synchronized (failures) {
+            if (!failures.isEmpty()) {
+                Throwable first = failures.get(0);
+                failures.clear();
+                if (first instanceof Error) throw (Error) first;
+                throw new AssertionError("A scheduled task failed", first);
+            }
+        }
+    }
+
+    /** Stops every thread. Call after each test. */
+    void shutdown() {
+        global.executor.shutdownNow();
+        for (Lane region : regions) {
+            region.executor.shutdownNow();
+        }
+        try {
+            global.executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Task run(Lane lane, Runnable task) {
+        if (lane.owns()) {
+            task.run();
+            return DONE;
+        }
+        Handle handle = new Handle();
+        submit(lane, handle, task);
+        return handle;
+    }
+
+    private synchronized Task later(Lane lane, Runnable task, long delayTicks) {
+        Handle handle = new Handle();
+        timed.add(new Timed(lane, handle, ignored -> task.run(), currentTick + Math.max(1L, delayTicks), 0L));
+        return handle;
+    }
+
+    private synchronized Task timer(Lane lane, Consumer<Task> task, long delayTicks, long periodTicks) {
+        Handle handle = new Handle();
+        timed.add(new Timed(lane, handle, task, currentTick + Math.max(1L, delayTicks), Math.max(1L, periodTicks)));
+        return handle;
+    }
+
+    private void submit(Lane lane, Handle handle, Runnable task) {
+        inFlight.incrementAndGet();
+        lane.executor.execute(() -> {
+            try {
+                if (!handle.isCancelled()) task.run();
+            } catch (Throwable t) {
+                synchronized (failures) {
+                    failures.add(t);
+                }
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    private Lane laneOf(World world, int chunkX, int chunkZ) {
+        if (regions.length == 0) return global;
+        int hash = 31 * (31 * world.getUID().hashCode() + chunkX) + chunkZ;
+        return regions[Math.floorMod(hash, regions.length)];
+    }
+
+    private Lane laneOf(Entity entity) {
+        if (regions.length == 0) return global;
+        UUID id = entity.getUniqueId();
+        return regions[Math.floorMod(id.hashCode(), regions.length)];
+    }
+
+    private static String chunkName(World world, int chunkX, int chunkZ) {
+        return world.getUID() + ":" + chunkX + ":" + chunkZ;
+    }
+
+    /** One thread and the work queued for it. */
+    private static final class Lane {
+        final ExecutorService executor;
+        volatile Thread thread;
+
+        Lane(String name) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread t = new Thread(runnable, name);
+                t.setDaemon(true);
+                thread = t;
+                return t;
+            });
+        }
+
+        boolean owns() {
+            return Thread.currentThread() == thread;
+        }
+    }
+
+    private static final class Handle implements Task {
+        private volatile boolean cancelled;
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private static final class Timed {
+        final Lane lane;
+        final Handle handle;
+        final Consumer<Task> action;
+        final long periodTicks;
+        long dueTick;
+
+        Timed(Lane lane, Handle handle, Consumer<Task> action, long dueTick, long periodTicks) {
+            this.lane = lane;
+            this.handle = handle;
+            this.action = action;
+            this.dueTick = dueTick;
+            this.periodTicks = periodTicks;
+        }
+    }
+}
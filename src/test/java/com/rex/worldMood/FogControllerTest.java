@@ -0,0 +1,153 @@
+package com.rex.worldMood;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FogControllerTest {
+
+    private static final Biome ORIGINAL = Biome.PLAINS;
+    private static final Biome FOG = Biome.BASALT_DELTAS;
+
+    private FakeTaskScheduler scheduler;
+    private WorldStateGuard guard;
+    private FogController fog;
+    private World world;
+    // What happened, in order: "save", "tint", "restore", "clear".
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> offThread = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger savedCells = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new FakeTaskScheduler(4);
+        WorldMood plugin = mock(WorldMood.class);
+        when(plugin.getScheduler()).thenReturn(scheduler);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("FogControllerTest"));
+        when(plugin.isEnabled()).thenReturn(true);
+        when(plugin.getActivityTracker()).thenReturn(mock(ActivityTracker.class));
+        when(plugin.getEffectsProfile()).thenReturn(mock(EffectsProfile.class));
+
+        guard = mock(WorldStateGuard.class);
+        doAnswer(call -> {
+            savedCells.set(((Collection<?>) call.getArgument(1)).size());
+            events.add("save");
+            return null;
+        }).when(guard).saveFog(any(World.class), any());
+        doAnswer(call -> {
+            events.add("clear");
+            return null;
+        }).when(guard).clearFog();
+        fog = new FogController(plugin, guard);
+
+        world = mock(World.class);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+        when(world.getName()).thenReturn("world");
+        when(world.getEnvironment()).thenReturn(World.Environment.NORMAL);
+        when(world.getMinHeight()).thenReturn(-64);
+        when(world.getMaxHeight()).thenReturn(320);
+        when(world.getBiome(anyInt(), anyInt(), anyInt())).thenAnswer(call -> {
+            checkOwner(call.getArgument(0), call.getArgument(2));
+            return ORIGINAL;
+        });
+        doAnswer(call -> {
+            checkOwner(call.getArgument(0), call.getArgument(2));
+            events.add(call.getArgument(3) == FOG ? "tint" : "restore");
+            return null;
+        }).when(world).setBiome(anyInt(), anyInt(), anyInt(), any(Biome.class));
+        TestServer.register(world);
+
+        Player player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        when(player.getWorld()).thenReturn(world);
+        when(player.getLocation()).thenReturn(new Location(world, 8, 64, 8));
+        doReturn(Collections.singletonList(player)).when(TestServer.get()).getOnlinePlayers();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void cellsAreRecordedBeforeTheyAreTinted() {
+        scheduler.onGlobal(() -> fog.start("worldmood:blood_moon", FOG));
+
+        assertTrue(events.contains("tint"), "the bubble was tinted");
+        int firstTint = events.indexOf("tint");
+        assertEquals("save", events.get(firstTint - 1), "the record is saved right before the first tint");
+        assertEquals(1, count("save"), "one save per world sweep, after every region read is back");
+        assertEquals(savedCells.get(), count("tint"), "every tinted cell is in the record");
+        assertTrue(offThread.isEmpty(), "biomes touched off the owning thread: " + offThread);
+    }
+
+    @Test
+    void endWhileTheFirstSweepIsOutLeavesNothingBehind() {
+        // end() lands while every region read of the first sweep is still queued.
+        scheduler.onGlobal(() -> {
+            fog.start("worldmood:blood_moon", FOG);
+            fog.end();
+        });
+
+        assertFalse(events.contains("tint"), "a sweep from an ended session must not tint");
+        verify(guard, never()).saveFog(any(World.class), any());
+        assertEquals(1, count("clear"));
+
+        // The stale sweep still released its hold, so the next session sweeps normally.
+        events.clear();
+        scheduler.onGlobal(() -> fog.start("worldmood:blood_moon", FOG));
+        assertTrue(events.contains("tint"), "a later session is not blocked by the abandoned sweep");
+    }
+
+    @Test
+    void recordIsClearedOnlyAfterEveryRestoreHasLanded() {
+        scheduler.onGlobal(() -> fog.start("worldmood:blood_moon", FOG));
+        int tinted = count("tint");
+        events.clear();
+
+        scheduler.onGlobal(fog::end);
+
+        assertEquals(tinted, count("restore"), "every tinted cell is put back");
+        assertEquals(1, count("clear"), "the record is cleared once");
+        assertEquals("clear", events.get(events.size() - 1), "and only after the last restore");
+        assertTrue(offThread.isEmpty(), "biomes touched off the owning thread: " + offThread);
+    }
+
+    private void checkOwner(int x, int z) {
+        if (!scheduler.ownsChunk(world, x >> 4, z >> 4)) offThread.add(x + "," + z);
+    }
+
+    private int count(String event) {
+        synchronized (events) {
+            int n = 0;
+            for (String e : events) {
+                if (e.equals(event)) n++;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.rex.worldMood;
+
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PlayerFanoutTest {
+
+    private FakeTaskScheduler scheduler;
+    private WorldMood plugin;
+    private PlayerFanout fanout;
+    private final Map<UUID, List<String>> seen = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new FakeTaskScheduler(4);
+        WorldMoodSettings settings = mock(WorldMoodSettings.class);
+        when(settings.getAnnounceSpreadTicks()).thenReturn(3);
+        plugin = mock(WorldMood.class);
+        when(plugin.getScheduler()).thenReturn(scheduler);
+        when(plugin.getSettings()).thenReturn(settings);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("PlayerFanoutTest"));
+        fanout = new PlayerFanout(plugin);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void eachPlayerSeesDeliveriesInTheOrderTheyWereMade() {
+        List<Player> players = players(12);
+        // A mood starts and is skipped before its rollout is through: every player must still see
+        // the start before the end, even though their deliveries land on different region threads.
+        scheduler.onGlobal(() -> {
+            for (Player player : players) fanout.deliver(player, record("start"));
+            for (Player player : players) fanout.deliver(player, record("title"));
+        });
+        scheduler.tick(1);
+        scheduler.onGlobal(() -> {
+            for (Player player : players) fanout.deliver(player, record("end"));
+        });
+        scheduler.tick(10);
+
+        for (Player player : players) {
+            assertEquals(Arrays.asList("start", "title", "end"), seen.get(player.getUniqueId()),
+                    "deliveries for " + player.getName());
+        }
+    }
+
+    @Test
+    void burstIsSpreadOverTheConfiguredTicks() {
+        List<Player> players = players(6);
+        scheduler.onGlobal(() -> {
+            for (Player player : players) fanout.deliver(player, record("start"));
+        });
+        assertEquals(0, seen.size(), "nothing is sent before the first drain");
+
+        // announceSpreadTicks is 3, so six players drain two per tick.
+        scheduler.tick(1);
+        assertEquals(2, seen.size());
+        scheduler.tick(1);
+        assertEquals(4, seen.size());
+        scheduler.tick(1);
+        assertEquals(6, seen.size());
+    }
+
+    @Test
+    void deliveriesRunOnTheirPlayersThread() {
+        List<Player> players = players(8);
+        List<String> wrongThread = Collections.synchronizedList(new ArrayList<>());
+        scheduler.onGlobal(() -> {
+            for (Player player : players) {
+                fanout.deliver(player, p -> {
+                    if (!scheduler.ownsEntity(p)) wrongThread.add(p.getName());
+                });
+            }
+        });
+        scheduler.tick(5);
+        assertTrue(wrongThread.isEmpty(), "ran off their own thread: " + wrongThread);
+    }
+
+    @Test
+    void oneFailingDeliveryDoesNotSwallowTheRest() {
+        Player player = players(1).get(0);
+        scheduler.onGlobal(() -> {
+            fanout.deliver(player, record("first"));
+            fanout.deliver(player, p -> {
+                throw new IllegalStateException("broken delivery");
+            });
+            fanout.deliver(player, record("last"));
+        });
+        scheduler.tick(3);
+        assertEquals(Arrays.asList("first", "last"), seen.get(player.getUniqueId()));
+    }
+
+    @Test
+    void forgottenPlayerGetsNothingMore() {
+        List<Player> players = players(6);
+        scheduler.onGlobal(() -> {
+            for (Player player : players) fanout.deliver(player, record("start"));
+        });
+        Player leaver = players.get(5);
+        fanout.forget(leaver);
+        scheduler.awaitIdle();
+        scheduler.tick(5);
+        assertEquals(5, seen.size());
+        assertFalse(seen.containsKey(leaver.getUniqueId()));
+    }
+
+    @Test
+    void deliveryThatQueuesForOthersDoesNotBreakTheDrain() {
+        // Spigot-shaped: deliveries run inline on the thread that drains them.
+        scheduler.shutdown();
+        scheduler = new FakeTaskScheduler(0);
+        when(plugin.getScheduler()).thenReturn(scheduler);
+        fanout = new PlayerFanout(plugin);
+
+        List<Player> players = players(6);
+        Player leaver = players.get(5);
+        scheduler.onGlobal(() -> {
+            fanout.deliver(players.get(0), p -> {
+                record("start").accept(p);
+                fanout.deliver(players.get(1), record("nudge"));
+                fanout.forget(leaver);
+            });
+            for (Player player : players.subList(1, 6)) fanout.deliver(player, record("start"));
+        });
+        scheduler.tick(10);
+
+        assertEquals(Collections.singletonList("start"), seen.get(players.get(0).getUniqueId()));
+        assertEquals(Arrays.asList("start", "nudge"), seen.get(players.get(1).getUniqueId()));
+        for (Player player : players.subList(2, 5)) {
+            assertEquals(Collections.singletonList("start"), seen.get(player.getUniqueId()));
+        }
+        assertFalse(seen.containsKey(leaver.getUniqueId()));
+    }
+
+    private Consumer<Player> record(String what) {
+        return player -> seen.computeIfAbsent(player.getUniqueId(),
+                k -> Collections.synchronizedList(new ArrayList<>())).add(what);
+    }
+
+    private static List<Player> players(int count) {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Player player = mock(Player.class);
+            when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+            when(player.getName()).thenReturn("player" + i);
+            when(player.isOnline()).thenReturn(true);
+            players.add(player);
+        }
+        return players;
+    }
+}
@@ -0,0 +1,44 @@
+package com.rex.worldMood;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.World;
+
+import java.util.logging.Logger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The mocked {@link Server} behind {@link Bukkit}'s static methods. Bukkit takes its server once
+ * per JVM and Mockito's static mocks only apply on the thread that made them, which would miss the
+ * fake scheduler's threads, so every test shares this one mock and stubs its own worlds on it.
+ */
+final class TestServer {
+
+    private static Server server;
+
+    private TestServer() {
+    }
+
+    static synchronized Server get() {
+        if (server == null) {
+            Server mocked = mock(Server.class);
+            when(mocked.getLogger()).thenReturn(Logger.getLogger("TestServer"));
+            when(mocked.getName()).thenReturn("TestServer");
+            when(mocked.getVersion()).thenReturn("test");
+            when(mocked.getBukkitVersion()).thenReturn("1.20.1-R0.1-SNAPSHOT");
+            Bukkit.setServer(mocked);
+            server = mocked;
+        }
+        return server;
+    }
+
+    /** Makes {@code Bukkit.getWorld(world.getUID())} return {@code world}. */
+    static void register(World world) {
+        Server s = get();
+        synchronized (TestServer.class) {
+            when(s.getWorld(world.getUID())).thenReturn(world);
+        }
+    }
+}